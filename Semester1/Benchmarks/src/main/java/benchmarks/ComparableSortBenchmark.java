@@ -0,0 +1,64 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the O(n log n) Comparable[] sorts in the Sorting folder:
+ * ShellSort and both mergesorts (and the ping-pong bottom-up mergesort with a
+ * reused buffer) on 1K to 10M Integer keys.
+ * Each invocation sorts a fresh copy of the input, so the O(n) copy is part
+ * of the measured time for every sort alike.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ComparableSortBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    int n;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "FEW_UNIQUE", "ORGAN_PIPE"})
+    SortInput input;
+
+    Integer[] keys;
+    Comparable[] buffer;        // reused by every mergeSortBottomUpBuffered invocation
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = input.integers(n);
+        buffer = new Comparable[n];
+    }
+
+    @Benchmark
+    public Integer[] shellSort() throws Throwable {
+        Integer[] a = keys.clone();
+        Sorters.SHELL_SORT.invokeExact((Comparable[]) a);
+        return a;
+    }
+
+    @Benchmark
+    public Integer[] mergeSortTopDown() throws Throwable {
+        Integer[] a = keys.clone();
+        Sorters.MERGE_SORT_TOP_DOWN.invokeExact((Comparable[]) a);
+        return a;
+    }
+
+    @Benchmark
+    public Integer[] mergeSortBottomUp() throws Throwable {
+        Integer[] a = keys.clone();
+        Sorters.MERGE_SORT_BOTTOM_UP.invokeExact((Comparable[]) a);
+        return a;
+    }
+
+    @Benchmark
+    public Integer[] mergeSortBottomUpBuffered() throws Throwable {
+        Integer[] a = keys.clone();
+        Sorters.MERGE_SORT_BOTTOM_UP_BUFFERED.invokeExact((Comparable[]) a, buffer);
+        return a;
+    }
+}
@@ -0,0 +1,53 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing the STANDARD (in place, the tree of HeapSort_dAry) and
+ * CACHE_ALIGNED (padded copy) heap layouts of PrimitiveHeapSort_dAry on long keys.
+ * The sizes start at 10M so the heap is far bigger than the caches and its
+ * array is allocated as a G1 humongous object, which the aligned layout
+ * relies on for its line alignment.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "-XX:+UseG1GC"})
+@State(Scope.Benchmark)
+public class HeapLayoutBenchmark {
+
+    @Param({"4", "8"})
+    int d;
+
+    @Param({"10000000", "20000000"})
+    int n;
+
+    @Param({"RANDOM"})
+    SortInput input;
+
+    @Param({"STANDARD", "CACHE_ALIGNED"})
+    String layout;
+
+    long[] keys;
+    boolean aligned;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int[] ints = input.ints(n);
+        keys = new long[n];
+        //widen the int keys to long, with the index in the low word so every key is distinct
+        for (int i = 0; i < n; i++) keys[i] = ((long) ints[i] << 32) ^ i;
+        aligned = layout.equals("CACHE_ALIGNED");
+    }
+
+    @Benchmark
+    public long[] heapSort() throws Throwable {
+        long[] a = keys.clone();
+        if (aligned) Sorters.PRIMITIVE_HEAP_SORT_CACHE_ALIGNED.invokeExact(a, d);
+        else Sorters.PRIMITIVE_HEAP_SORT_STANDARD.invokeExact(a, d);
+        return a;
+    }
+}
@@ -0,0 +1,48 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for HeapSort_dAry.sort() with heap orders d = 2 to 8, with
+ * the top-down and the bottom-up sortdown sink.
+ * The HeapSort_dAry(keys, d) constructor copies the keys into its own
+ * 1-based array, so building the heap object is part of the measured time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class HeapSortBenchmark {
+
+    @Param({"2", "3", "4", "5", "6", "7", "8"})
+    int d;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    int n;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "FEW_UNIQUE", "ORGAN_PIPE"})
+    SortInput input;
+
+    //sortdown with the bottom-up (Floyd/Wegener) sink instead of the top-down one
+    @Param({"false", "true"})
+    boolean bottomUp;
+
+    Integer[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = input.integers(n);
+    }
+
+    @Benchmark
+    public Object[] heapSort() throws Throwable {
+        Object hs = (Object) Sorters.HEAP_SORT_NEW.invokeExact((Object) keys, d);
+        Sorters.HEAP_SORT_SET_BOTTOM_UP.invokeExact(hs, bottomUp);
+        Sorters.HEAP_SORT_SORT.invokeExact(hs);
+        return (Object[]) Sorters.HEAP_SORT_GET_PQ.invokeExact(hs);
+    }
+}
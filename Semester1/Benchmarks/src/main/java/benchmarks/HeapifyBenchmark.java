@@ -0,0 +1,59 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for bulk-loading a HeapSort_dAry: copying the keys in and
+ * heapifying them on one thread with reheapify(), or on a ForkJoinPool with
+ * the HeapSort_dAry(keys, d, pool) constructor. Both build the same heap.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class HeapifyBenchmark {
+
+    @Param({"2", "4", "8"})
+    int d;
+
+    @Param({"1000000", "10000000"})
+    int n;
+
+    @Param({"RANDOM"})
+    SortInput input;
+
+    //0 means the common pool
+    @Param({"0"})
+    int threads;
+
+    Integer[] keys;
+    ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = input.integers(n);
+        pool = threads == 0 ? ForkJoinPool.commonPool() : new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (pool != ForkJoinPool.commonPool()) pool.shutdown();
+    }
+
+    @Benchmark
+    public Object sequential() throws Throwable {
+        Object hs = (Object) Sorters.HEAP_SORT_NEW.invokeExact((Object) keys, d);
+        Sorters.HEAP_SORT_REHEAPIFY.invokeExact(hs);
+        return hs;
+    }
+
+    @Benchmark
+    public Object parallel() throws Throwable {
+        return (Object) Sorters.HEAP_SORT_NEW_PARALLEL.invokeExact((Object) keys, d, (Object) pool);
+    }
+}
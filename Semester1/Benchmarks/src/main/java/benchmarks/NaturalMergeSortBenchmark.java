@@ -0,0 +1,47 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for NaturalMergeSort on a LinkedListDeque.
+ * The sort relinks the list in place, so a new list is built before every
+ * invocation (outside the measured time). Level.Invocation setup adds some
+ * timing overhead, which only matters at the smallest sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class NaturalMergeSortBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    int n;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "FEW_UNIQUE", "ORGAN_PIPE"})
+    SortInput input;
+
+    Integer[] keys;
+    Object nms;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = input.integers(n);
+    }
+
+    @Setup(Level.Invocation)
+    public void buildList() throws Throwable {
+        Object list = (Object) Sorters.LIST_NEW.invokeExact();
+        for (Integer key : keys) Sorters.LIST_ADD_AT_END.invokeExact(list, (Comparable) key);
+        nms = (Object) Sorters.NATURAL_MERGE_SORT_NEW.invokeExact(list);
+    }
+
+    @Benchmark
+    public Object naturalMergeSort() throws Throwable {
+        Sorters.NATURAL_MERGE_SORT_SORT.invokeExact(nms);
+        return nms;
+    }
+}
@@ -0,0 +1,54 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the quadratic Comparable[] sorts: InsertionSort,
+ * SelectionSort and BubbleSort. These take hours per operation at 10M keys,
+ * so the default sizes stop at 100K; larger sizes can still be run with
+ * -p n=1000000.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class QuadraticSortBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int n;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "FEW_UNIQUE", "ORGAN_PIPE"})
+    SortInput input;
+
+    Integer[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = input.integers(n);
+    }
+
+    @Benchmark
+    public Integer[] insertionSort() throws Throwable {
+        Integer[] a = keys.clone();
+        Sorters.INSERTION_SORT.invokeExact((Comparable[]) a);
+        return a;
+    }
+
+    @Benchmark
+    public Integer[] selectionSort() throws Throwable {
+        Integer[] a = keys.clone();
+        Sorters.SELECTION_SORT.invokeExact((Comparable[]) a);
+        return a;
+    }
+
+    @Benchmark
+    public Integer[] bubbleSort() throws Throwable {
+        Integer[] a = keys.clone();
+        Sorters.BUBBLE_SORT.invokeExact((Comparable[]) a);
+        return a;
+    }
+}
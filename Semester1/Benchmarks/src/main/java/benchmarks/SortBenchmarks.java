@@ -0,0 +1,28 @@
+package benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar. Takes the usual JMH command line
+ * (e.g. "HeapSort -p d=4 -p n=1000000") but writes the results as JSON to
+ * sort-benchmarks.json unless -rf / -rff say otherwise, so every run leaves a
+ * file that can be diffed against the previous one.
+ */
+public class SortBenchmarks {
+
+    static final String DEFAULT_RESULT_FILE = "sort-benchmarks.json";
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        ChainedOptionsBuilder opts = new OptionsBuilder().parent(cmd);
+        if (!cmd.getResultFormat().hasValue()) opts.resultFormat(ResultFormatType.JSON);
+        if (!cmd.getResult().hasValue()) opts.result(DEFAULT_RESULT_FILE);
+        new Runner(opts.build()).run();
+    }
+}
@@ -0,0 +1,71 @@
+package benchmarks;
+
+import java.util.Random;
+
+/**
+ * Input arrays for the sorting benchmarks. Every distribution is generated
+ * from a fixed seed so the same (distribution, n) pair gives the same keys in
+ * every run and results can be compared from one run to the next.
+ */
+public enum SortInput {
+    //uniformly random keys
+    RANDOM {
+        @Override
+        void fill(int[] a, Random r) {
+            for (int i = 0; i < a.length; i++) a[i] = r.nextInt();
+        }
+    },
+    //already in ascending order
+    SORTED {
+        @Override
+        void fill(int[] a, Random r) {
+            for (int i = 0; i < a.length; i++) a[i] = i;
+        }
+    },
+    //in descending order
+    REVERSED {
+        @Override
+        void fill(int[] a, Random r) {
+            for (int i = 0; i < a.length; i++) a[i] = a.length - i;
+        }
+    },
+    //random keys drawn from only FEW_UNIQUE_KEYS distinct values
+    FEW_UNIQUE {
+        @Override
+        void fill(int[] a, Random r) {
+            for (int i = 0; i < a.length; i++) a[i] = r.nextInt(FEW_UNIQUE_KEYS);
+        }
+    },
+    //ascending up to the middle and descending after it: 0 1 2 .. m .. 2 1 0
+    ORGAN_PIPE {
+        @Override
+        void fill(int[] a, Random r) {
+            int n = a.length;
+            for (int i = 0; i < n; i++) a[i] = Math.min(i, n - 1 - i);
+        }
+    };
+
+    static final int FEW_UNIQUE_KEYS = 10;
+    static final long SEED = 42L;
+
+    abstract void fill(int[] a, Random r);
+
+    /**
+     * Returns n keys with this distribution
+     */
+    public int[] ints(int n) {
+        int[] a = new int[n];
+        fill(a, new Random(SEED));
+        return a;
+    }
+
+    /**
+     * Returns the same keys as ints(n) boxed, for the Comparable[] sorts
+     */
+    public Integer[] integers(int n) {
+        int[] keys = ints(n);
+        Integer[] a = new Integer[n];
+        for (int i = 0; i < n; i++) a[i] = keys[i];
+        return a;
+    }
+}
@@ -0,0 +1,105 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Method handles for the sorts under test.
+ * The assignment classes are in the default package, which cannot be imported
+ * from a named package, and JMH will not generate code for a benchmark in the
+ * default package. So the sorts are looked up by name once here. The handles
+ * are static final, which the JIT treats as constants and inlines, so calling
+ * through them costs the same as a direct call.
+ */
+final class Sorters {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    //static void X.sort(Comparable[])
+    static final MethodHandle INSERTION_SORT = comparableSort("InsertionSort");
+    static final MethodHandle SELECTION_SORT = comparableSort("SelectionSort");
+    static final MethodHandle BUBBLE_SORT = comparableSort("BubbleSort");
+    static final MethodHandle SHELL_SORT = comparableSort("ShellSort");
+    static final MethodHandle MERGE_SORT_TOP_DOWN = comparableSort("MergeSortTopDown");
+    static final MethodHandle MERGE_SORT_BOTTOM_UP = comparableSort("MergeSortBottomUp");
+
+    //static void MergeSortBottomUp.sort(Comparable[] a, Comparable[] buffer)
+    static final MethodHandle MERGE_SORT_BOTTOM_UP_BUFFERED = staticMethod("MergeSortBottomUp", "sort", void.class, Comparable[].class, Comparable[].class);
+
+    //new HeapSort_dAry(Object[] keys, int d), then void setBottomUp(boolean), void sort() and Object[] getPq()
+    static final MethodHandle HEAP_SORT_NEW = constructor("HeapSort_dAry", Object[].class, int.class);
+    //new HeapSort_dAry(Object[] keys, int d, ForkJoinPool pool) and void reheapify()
+    static final MethodHandle HEAP_SORT_NEW_PARALLEL = constructor("HeapSort_dAry", Object[].class, int.class, ForkJoinPool.class);
+    static final MethodHandle HEAP_SORT_REHEAPIFY = virtual("HeapSort_dAry", "reheapify", void.class);
+    static final MethodHandle HEAP_SORT_SET_BOTTOM_UP = virtual("HeapSort_dAry", "setBottomUp", void.class, boolean.class);
+    static final MethodHandle HEAP_SORT_SORT = virtual("HeapSort_dAry", "sort", void.class);
+    static final MethodHandle HEAP_SORT_GET_PQ = virtual("HeapSort_dAry", "getPq", Object[].class);
+
+    //static void PrimitiveHeapSort_dAry.sort(long[] a, int d, Layout layout) with the layout bound in
+    static final MethodHandle PRIMITIVE_HEAP_SORT_STANDARD = primitiveHeapSort("STANDARD");
+    static final MethodHandle PRIMITIVE_HEAP_SORT_CACHE_ALIGNED = primitiveHeapSort("CACHE_ALIGNED");
+
+    //new LinkedListDeque(), void addAtEnd(Comparable), new NaturalMergeSort(LinkedListDeque), void sort()
+    static final MethodHandle LIST_NEW = constructor("LinkedListDeque");
+    static final MethodHandle LIST_ADD_AT_END = virtual("LinkedListDeque", "addAtEnd", void.class, Comparable.class);
+    static final MethodHandle NATURAL_MERGE_SORT_NEW = constructor("NaturalMergeSort", type("LinkedListDeque"));
+    static final MethodHandle NATURAL_MERGE_SORT_SORT = virtual("NaturalMergeSort", "sort", void.class);
+
+    private Sorters() {
+    }
+
+    private static Class<?> type(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Sort class " + name + " is not on the classpath", e);
+        }
+    }
+
+    private static MethodHandle comparableSort(String className) {
+        return staticMethod(className, "sort", void.class, Comparable[].class);
+    }
+
+    private static MethodHandle staticMethod(String className, String name, Class<?> returnType, Class<?>... params) {
+        try {
+            return LOOKUP.findStatic(type(className), name, MethodType.methodType(returnType, params));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(className + "." + name + " not found", e);
+        }
+    }
+
+    //(long[] a, int d)void handle for PrimitiveHeapSort_dAry.sort with the given Layout constant
+    private static MethodHandle primitiveHeapSort(String layoutName) {
+        Class<?> layoutType = type("PrimitiveHeapSort_dAry$Layout");
+        Object layout = null;
+        for (Object constant : layoutType.getEnumConstants()) {
+            if (((Enum<?>) constant).name().equals(layoutName)) layout = constant;
+        }
+        if (layout == null) throw new IllegalStateException("No PrimitiveHeapSort_dAry layout " + layoutName);
+        MethodHandle sort = staticMethod("PrimitiveHeapSort_dAry", "sort", void.class, long[].class, int.class, layoutType);
+        return MethodHandles.insertArguments(sort, 2, layout);
+    }
+
+    //constructor handle with the created object and the parameters widened to Object, so invokeExact call sites
+    //can be written without naming the default-package class
+    private static MethodHandle constructor(String className, Class<?>... params) {
+        try {
+            MethodHandle mh = LOOKUP.findConstructor(type(className), MethodType.methodType(void.class, params));
+            return mh.asType(mh.type().erase());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(className + " constructor not found", e);
+        }
+    }
+
+    //instance method handle with the receiver widened to Object
+    private static MethodHandle virtual(String className, String name, Class<?> returnType, Class<?>... params) {
+        try {
+            MethodHandle mh = LOOKUP.findVirtual(type(className), name, MethodType.methodType(returnType, params));
+            return mh.asType(mh.type().changeParameterType(0, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(className + "." + name + " not found", e);
+        }
+    }
+}
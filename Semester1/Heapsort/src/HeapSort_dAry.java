@@ -5,6 +5,8 @@
 
 import java.util.Arrays;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 //heapsort with a generic type of Key
 public class HeapSort_dAry<Key> {
@@ -14,6 +16,12 @@ public class HeapSort_dAry<Key> {
     private Key[] pq;                    // Note: pq[0] is empty and items in PQ are stored at indices 1 to maxInitialCapacity
     private int maxInitialCapacity;      // number of items on priority queue excluding key[0] which is not used
 
+    private boolean trace = false;       // print each heapify and sortdown step (used by the tester to show the algorithm)
+
+    private boolean bottomUp = false;    // sortdown with the bottom-up (Floyd/Wegener) sink instead of the top-down one
+
+    private static final int HEAPIFY_GRAIN = 1 << 12;   // nodes of one level sunk by a single fork/join task
+
 
 
     //Getters and Setters for private variables
@@ -42,6 +50,22 @@ public class HeapSort_dAry<Key> {
         this.maxInitialCapacity = maxInitialCapacity;
     }
 
+    public boolean isTrace() {
+        return trace;
+    }
+
+    public void setTrace(boolean trace) {
+        this.trace = trace;
+    }
+
+    public boolean isBottomUp() {
+        return bottomUp;
+    }
+
+    public void setBottomUp(boolean bottomUp) {
+        this.bottomUp = bottomUp;
+    }
+
     /**
      * Initializes an empty priority queue with the given initial capacity.
      *
@@ -71,12 +95,26 @@ public class HeapSort_dAry<Key> {
     public HeapSort_dAry(Key[] keys, int n_ary) {
 
         d = n_ary;
-        pq = (Key[]) new Object[keys.length + 1];
+        //same array type as keys so that getPq() can be used as a Key[] (e.g. a String[]) by the caller
+        pq = (Key[]) java.lang.reflect.Array.newInstance(keys.getClass().getComponentType(), keys.length + 1);
         for (int i = 0; i < keys.length; i++)
             pq[i + 1] = keys[i];
         maxInitialCapacity = keys.length;
     }
 
+    /**
+     * Initializes a priority queue from the array of keys and builds the heap on the given pool
+     * with reheapify(pool). The heap is the same as the one the sequential reheapify() builds.
+     *
+     * @param keys the array of keys
+     * @param n_ary the heap order
+     * @param pool the fork/join pool to heapify on
+     */
+    public HeapSort_dAry(Key[] keys, int n_ary, ForkJoinPool pool) {
+        this(keys, n_ary);
+        reheapify(pool);
+    }
+
 
     /**
      * Returns true if this priority queue is empty.
@@ -113,11 +151,8 @@ public class HeapSort_dAry<Key> {
      */
     private void resize(int capacity) {
         assert capacity > maxInitialCapacity;
-        Key[] temp = (Key[]) new Object[capacity];
-        for (int i = 1; i <= maxInitialCapacity; i++) {
-            temp[i] = pq[i];
-        }
-        pq = temp;
+        //copyOf keeps the runtime type of pq
+        pq = Arrays.copyOf(pq, capacity);
     }
 
 
@@ -175,23 +210,18 @@ public class HeapSort_dAry<Key> {
      */
     private void sink(int k) {
 
-        //Check if we are withing array limits
-        while (d * k <= (maxInitialCapacity)) {
+        //Check if we are withing array limits: the first child of k is d*k-(d-2)
+        while (d * k - (d - 2) <= (maxInitialCapacity)) {
             Key x = pq[k];
 //            System.out.println("Before calling sink for element: a[" + k + "] :" + x);
 //            show(pq);
             int j = d * k;
             //The children will be from j-(d-2) to j+1 inclusive for a node which has all its chlildren filled
-            int largestChild = j;
-            if (j < (maxInitialCapacity)) {
-
-                int[] childIndex = getChildNodes(k);
-                for (int i = j - (d - 2); i <= j + 1; i++) {
-                    if (less(largestChild, i)) {
-                        largestChild = i;
-                    }
+            int largestChild = j - (d - 2);
+            for (int i = j - (d - 2) + 1; i <= Math.min(j + 1, maxInitialCapacity); i++) {
+                if (less(largestChild, i)) {
+                    largestChild = i;
                 }
-
             }
 //            System.out.println("Largest Child: a [" + largestChild + "] :" + pq[largestChild]);
             if (!less(k, largestChild)) break;
@@ -335,14 +365,75 @@ public class HeapSort_dAry<Key> {
      */
     public void reheapify() {
         int n = size();
-        for (int k = size() / d; k >= 1; k--) {
+        //start from the parent of the last node
+        for (int k = (n + d - 2) / d; k >= 1; k--) {
             sink(k);
-            System.out.print(n + "\t" + k + "\t");
-            show(pq);
+            if (trace) {
+                System.out.print(n + "\t" + k + "\t");
+                show(pq);
+            }
         }
 
     }
 
+    /**
+     * reheapify using top down, sinking the nodes of each level of the tree in parallel on the given pool.
+     * The levels are done from the deepest up. The nodes of one level have disjoint subtrees and sink only
+     * moves keys inside its own subtree, so they can be sunk in any order and the heap is exactly the one
+     * reheapify() builds, whatever the number of threads. Does not print a trace.
+     *
+     * @param pool the fork/join pool to heapify on
+     */
+    public void reheapify(ForkJoinPool pool) {
+        heapify(pool, maxInitialCapacity);
+    }
+
+    //Parallel heapify phase over pq[1..n]
+    private void heapify(ForkJoinPool pool, int n) {
+        int lastParent = (n + d - 2) / d;
+        if (lastParent < 1) return;
+        //levels[l] is the first node of level l: level 0 is the root, the first child of node k is d*k-(d-2)
+        int[] levels = new int[64];
+        int depth = 0;
+        levels[0] = 1;
+        while (levels[depth] <= lastParent) {
+            levels[depth + 1] = d * levels[depth] - (d - 2);
+            depth++;
+        }
+        //levels 0 .. depth-1 contain parents
+        for (int l = depth - 1; l >= 0; l--) {
+            int lo = levels[l];
+            int hi = Math.min(levels[l + 1] - 1, lastParent);
+            if (hi - lo < HEAPIFY_GRAIN) {
+                for (int k = hi; k >= lo; k--) sink(pq, k, n, d);
+            } else {
+                pool.invoke(new HeapifyTask(lo, hi, n));
+            }
+        }
+    }
+
+    //sinks the nodes lo..hi of one level, splitting the range until it is HEAPIFY_GRAIN nodes or fewer
+    @SuppressWarnings("serial")
+    private class HeapifyTask extends RecursiveAction {
+        private final int lo, hi, n;
+
+        HeapifyTask(int lo, int hi, int n) {
+            this.lo = lo;
+            this.hi = hi;
+            this.n = n;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo < HEAPIFY_GRAIN) {
+                for (int k = hi; k >= lo; k--) sink(pq, k, n, d);
+                return;
+            }
+            int mid = lo + (hi - lo) / 2;
+            invokeAll(new HeapifyTask(lo, mid, n), new HeapifyTask(mid + 1, hi, n));
+        }
+    }
+
 
 
     // log with base
@@ -403,14 +494,16 @@ public class HeapSort_dAry<Key> {
      */
     private void sink(Key[] pq, int k, int n, int d) {
 
-        while (d * k <= n) {
+        //the children of k are d*k-(d-2) to d*k+1, the last sibling group may be only partly filled
+        while (d * k - (d - 2) <= n) {
             Key x = pq[k];
 //            System.out.println("Before calling sink for element: a[" + k + "] :" + x);
 //            show(pq);
             int j = d * k;
             int largestChild = j - (d-2);
-            for (int i = j - (d - 2); i <= j + 1 ; i++) {
-                if ((j < n) && !less(pq, i, largestChild)) {
+            //ties keep the first child, as in sink(k), so sort() and reheapify() build the same heap
+            for (int i = j - (d - 2) + 1; i <= Math.min(j + 1, n); i++) {
+                if (less(pq, largestChild, i)) {
                         largestChild = i;
                     }
                 }
@@ -428,6 +521,39 @@ public class HeapSort_dAry<Key> {
 
     }
 
+    /** Bottom-up (Floyd/Wegener) sink used by the sortdown phase when bottomUp is set.
+     *  The key moved to the root during sortdown came from the bottom of the heap, so it almost always sinks back
+     *  to the bottom. Instead of comparing it with the largest child at every level, this first walks the path of
+     *  largest children all the way to a leaf, moving each one up a level (d-1 compares per level), then puts the
+     *  key in the leaf and swims it up, which usually takes only a compare or two. Top-down sink spends d compares
+     *  per level, so this saves about half the compares for d = 2 and one in d for larger d.
+     * @param pq priority queue
+     * @param k node to sink from
+     * @param n limits of tree nodes to swap with
+     * @param d tree'sorder
+     */
+    private void sinkBottomUp(Key[] pq, int k, int n, int d) {
+        Key x = pq[k];
+        int j = k;
+        //walk down to a leaf along the largest children, moving each of them up into its parent
+        while (d * j - (d - 2) <= n) {
+            int largestChild = d * j - (d - 2);
+            for (int i = largestChild + 1; i <= Math.min(d * j + 1, n); i++) {
+                if (less(pq, largestChild, i)) {
+                    largestChild = i;
+                }
+            }
+            pq[j] = pq[largestChild];
+            j = largestChild;
+        }
+        //put the key in the leaf and swim it back up, no higher than k
+        pq[j] = x;
+        while (j > k && less(pq, (j + d - 2) / d, j)) {
+            exch(pq, j, (j + d - 2) / d);
+            j = (j + d - 2) / d;
+        }
+    }
+
     /***************************************************************************
      * Helper functions for comparisons and swaps.
      ***************************************************************************/
@@ -446,26 +572,47 @@ public class HeapSort_dAry<Key> {
 
     /**
      Rearranges the array in ascending order, using the natural order.
+     With bottomUp set, the sortdown phase uses sinkBottomUp, which gives the same result with fewer compares.
      */
     public void sort() {
         int n = maxInitialCapacity;
 
-        // heapify phase
-        for (int k = n/ d; k >= 1; k--) {
+        // heapify phase, starting from the parent of the last node
+        for (int k = (n + d - 2) / d; k >= 1; k--) {
             sink(pq, k, n, d);
 //            sink(k);
-            System.out.print(n + "\t" + k + "\t");
+            if (trace) {
+                System.out.print(n + "\t" + k + "\t");
+                show(pq);
+            }
+        }
+        sortdown();
+    }
+
+    /**
+     Rearranges the array in ascending order, using the natural order, with the heapify phase done in parallel
+     on the given pool (see reheapify(ForkJoinPool)). The sortdown phase is sequential.
+     @param pool the fork/join pool to heapify on
+     */
+    public void sort(ForkJoinPool pool) {
+        heapify(pool, maxInitialCapacity);
+        sortdown();
+    }
+
+    //Sortdown phase of sort(): pq[1..maxInitialCapacity] must be heap ordered
+    private void sortdown() {
+        int n = maxInitialCapacity;
+        if (trace) {
+            System.out.println("************************************************************************************************************************");
+            System.out.println("Array & Tree After Heapify Phase: ");
+            System.out.println("************************************************************************************************************************");
             show(pq);
+            System.out.println("************************************************************************************************************************");
+            printNaryTree();
+            System.out.println("************************************************************************************************************************");
+            // sortdown phase
+            System.out.println("Sortdown phase: ");
         }
-        System.out.println("************************************************************************************************************************");
-        System.out.println("Array & Tree After Heapify Phase: ");
-        System.out.println("************************************************************************************************************************");
-        show(pq);
-        System.out.println("************************************************************************************************************************");
-        printNaryTree();
-        System.out.println("************************************************************************************************************************");
-        // sortdown phase
-        System.out.println("Sortdown phase: ");
         while (n > 1) {
 //            exch(1, n--);
 //            sink(1);
@@ -474,11 +621,14 @@ public class HeapSort_dAry<Key> {
             // sortdown phase
             exch(pq, 1, n--);
 //            show(pq);
-            System.out.println("************************************************************************************************************************");
+            if (trace) System.out.println("************************************************************************************************************************");
 
-            sink(pq,1, n, d);
-            System.out.print(n + "\t" + 1 + "\t");
-            show(pq);
+            if (bottomUp) sinkBottomUp(pq, 1, n, d);
+            else sink(pq,1, n, d);
+            if (trace) {
+                System.out.print(n + "\t" + 1 + "\t");
+                show(pq);
+            }
 //            n--;
         }
 
@@ -520,6 +670,7 @@ public class HeapSort_dAry<Key> {
 
 
         HeapSort_dAry<String> hs2 = new HeapSort_dAry<String>(a, 3);
+        hs2.setTrace(true);
         System.out.println("Initial Array and Tree: ");
         System.out.println("************************************************************************************************************************");
         hs2.show(hs2.getPq());
@@ -533,6 +684,45 @@ public class HeapSort_dAry<Key> {
         hs2.show(hs2.getPq());
         hs2.printNaryTree();
 
+        //Compare counts of the two sortdown sinks on long keys that share a common prefix, where compares are expensive
+        System.out.println("************************************************************************************************************************");
+        System.out.println("Compares to sort 100000 composite string keys (top-down vs bottom-up sortdown): ");
+        System.out.println("d\ttop-down\tbottom-up");
+        java.util.Random random = new java.util.Random(42);
+        CountedKey[] keys = new CountedKey[100000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new CountedKey("region-07/cluster-12/job-" + random.nextInt(1000000) + "/task-" + i);
+        }
+        for (int d = 2; d <= 8; d++) {
+            long[] compares = new long[2];
+            for (int mode = 0; mode < 2; mode++) {
+                HeapSort_dAry<CountedKey> hs = new HeapSort_dAry<CountedKey>(keys, d);
+                hs.setBottomUp(mode == 1);
+                CountedKey.compares = 0;
+                hs.sort();
+                compares[mode] = CountedKey.compares;
+            }
+            System.out.println(d + "\t" + compares[0] + "\t\t" + compares[1]);
+        }
+    }
+
+    //String key that counts its compareTo calls
+    private static class CountedKey implements Comparable<CountedKey> {
+        static long compares;
+        private final String key;
+
+        CountedKey(String key) {
+            this.key = key;
+        }
+
+        public int compareTo(CountedKey that) {
+            compares++;
+            return key.compareTo(that.key);
+        }
+
+        public String toString() {
+            return key;
+        }
     }
 
 
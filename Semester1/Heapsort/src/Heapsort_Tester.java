@@ -149,6 +149,7 @@ public class Heapsort_Tester {
             hs.printNaryTree();
             System.out.println("************************************************************************************************************************");
             System.out.println("Calling Heapsort: Heapify followed by sortdown: ");
+            hs.setTrace(true);
             hs.sort();
             System.out.println("************************************************************************************************************************");
             System.out.println("************************************************************************************************************************");
@@ -199,6 +200,7 @@ public class Heapsort_Tester {
             hs2.printNaryTree();
             System.out.println("************************************************************************************************************************");
             System.out.println("Calling Heapsort: Heapify followed by sortdown: ");
+            hs2.setTrace(true);
             hs2.sort();
             System.out.println("************************************************************************************************************************");
             System.out.println("************************************************************************************************************************");
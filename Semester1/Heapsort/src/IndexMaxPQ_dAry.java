@@ -0,0 +1,113 @@
+/*  Indexed max priority queue on a d-ary heap (see IndexPQ_dAry)
+ *  Supports the usual insert and delete-the-maximum operations along with delete, changeKey, decreaseKey and
+ *  increaseKey by index.
+ */
+
+import java.util.NoSuchElementException;
+
+public class IndexMaxPQ_dAry<Key extends Comparable<Key>> extends IndexPQ_dAry<Key> {
+
+    /**
+     * Initializes an empty indexed priority queue with indices between 0 and maxN - 1
+     *
+     * @param maxN the keys on this priority queue are indexed from 0 to maxN - 1
+     * @param d    the heap order (number of children per node), at least 2
+     * @throws IllegalArgumentException if maxN < 0 or d < 2
+     */
+    public IndexMaxPQ_dAry(int maxN, int d) {
+        super(maxN, d, true);
+    }
+
+    /**
+     * Initializes an empty indexed priority queue on a 4-ary heap
+     *
+     * @param maxN the keys on this priority queue are indexed from 0 to maxN - 1
+     */
+    public IndexMaxPQ_dAry(int maxN) {
+        this(maxN, 4);
+    }
+
+    /**
+     * Returns an index associated with a maximum key.
+     *
+     * @return an index associated with a maximum key
+     * @throws NoSuchElementException if this priority queue is empty
+     */
+    public int maxIndex() {
+        return topIndex();
+    }
+
+    /**
+     * Returns a maximum key.
+     *
+     * @return a maximum key
+     * @throws NoSuchElementException if this priority queue is empty
+     */
+    public Key maxKey() {
+        return topKey();
+    }
+
+    /**
+     * Removes a maximum key and returns its associated index.
+     *
+     * @return an index associated with a maximum key
+     * @throws NoSuchElementException if this priority queue is empty
+     */
+    public int delMax() {
+        return delTop();
+    }
+
+    /**
+     * Increase the key associated with index i to the specified value.
+     *
+     * @param i   the index of the key to increase
+     * @param key increase the key associated with index i to this key
+     * @throws IllegalArgumentException unless 0 <= i < maxN
+     * @throws IllegalArgumentException if key <= keyOf(i)
+     * @throws NoSuchElementException if no key is associated with index i
+     */
+    public void increaseKey(int i, Key key) {
+        validateContains(i);
+        if (keyOf(i).compareTo(key) >= 0)
+            throw new IllegalArgumentException("Calling increaseKey() with a key not strictly greater than the key in the priority queue");
+        raiseKey(i, key);
+    }
+
+    /**
+     * Decrease the key associated with index i to the specified value.
+     *
+     * @param i   the index of the key to decrease
+     * @param key decrease the key associated with index i to this key
+     * @throws IllegalArgumentException unless 0 <= i < maxN
+     * @throws IllegalArgumentException if key >= keyOf(i)
+     * @throws NoSuchElementException if no key is associated with index i
+     */
+    public void decreaseKey(int i, Key key) {
+        validateContains(i);
+        if (keyOf(i).compareTo(key) <= 0)
+            throw new IllegalArgumentException("Calling decreaseKey() with a key not strictly less than the key in the priority queue");
+        lowerKey(i, key);
+    }
+
+    /**
+     * Inserts some strings, changes and deletes a few by index and deletes the rest in descending order.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        String[] strings = {"it", "was", "the", "best", "of", "times", "it", "was", "the", "worst"};
+        IndexMaxPQ_dAry<String> pq = new IndexMaxPQ_dAry<String>(strings.length, 3);
+        for (int i = 0; i < strings.length; i++) {
+            pq.insert(i, strings[i]);
+        }
+        pq.increaseKey(3, "zzz");
+        pq.decreaseKey(9, "a");
+        pq.delete(1);
+        System.out.println("Deleting in order after increaseKey(3, zzz), decreaseKey(9, a) and delete(1): ");
+        while (!pq.isEmpty()) {
+            String key = pq.maxKey();
+            int i = pq.delMax();
+            System.out.println(i + " " + key);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*  Indexed min priority queue on a d-ary heap (see IndexPQ_dAry)
+ *  Supports the usual insert and delete-the-minimum operations along with delete, changeKey, decreaseKey and
+ *  increaseKey by index, as needed by Dijkstra's shortest paths and by schedulers that reprioritise pending jobs.
+ */
+
+import java.util.NoSuchElementException;
+
+public class IndexMinPQ_dAry<Key extends Comparable<Key>> extends IndexPQ_dAry<Key> {
+
+    /**
+     * Initializes an empty indexed priority queue with indices between 0 and maxN - 1
+     *
+     * @param maxN the keys on this priority queue are indexed from 0 to maxN - 1
+     * @param d    the heap order (number of children per node), at least 2
+     * @throws IllegalArgumentException if maxN < 0 or d < 2
+     */
+    public IndexMinPQ_dAry(int maxN, int d) {
+        super(maxN, d, false);
+    }
+
+    /**
+     * Initializes an empty indexed priority queue on a 4-ary heap
+     *
+     * @param maxN the keys on this priority queue are indexed from 0 to maxN - 1
+     */
+    public IndexMinPQ_dAry(int maxN) {
+        this(maxN, 4);
+    }
+
+    /**
+     * Returns an index associated with a minimum key.
+     *
+     * @return an index associated with a minimum key
+     * @throws NoSuchElementException if this priority queue is empty
+     */
+    public int minIndex() {
+        return topIndex();
+    }
+
+    /**
+     * Returns a minimum key.
+     *
+     * @return a minimum key
+     * @throws NoSuchElementException if this priority queue is empty
+     */
+    public Key minKey() {
+        return topKey();
+    }
+
+    /**
+     * Removes a minimum key and returns its associated index.
+     *
+     * @return an index associated with a minimum key
+     * @throws NoSuchElementException if this priority queue is empty
+     */
+    public int delMin() {
+        return delTop();
+    }
+
+    /**
+     * Decrease the key associated with index i to the specified value.
+     *
+     * @param i   the index of the key to decrease
+     * @param key decrease the key associated with index i to this key
+     * @throws IllegalArgumentException unless 0 <= i < maxN
+     * @throws IllegalArgumentException if key >= keyOf(i)
+     * @throws NoSuchElementException if no key is associated with index i
+     */
+    public void decreaseKey(int i, Key key) {
+        validateContains(i);
+        if (keyOf(i).compareTo(key) <= 0)
+            throw new IllegalArgumentException("Calling decreaseKey() with a key not strictly less than the key in the priority queue");
+        raiseKey(i, key);
+    }
+
+    /**
+     * Increase the key associated with index i to the specified value.
+     *
+     * @param i   the index of the key to increase
+     * @param key increase the key associated with index i to this key
+     * @throws IllegalArgumentException unless 0 <= i < maxN
+     * @throws IllegalArgumentException if key <= keyOf(i)
+     * @throws NoSuchElementException if no key is associated with index i
+     */
+    public void increaseKey(int i, Key key) {
+        validateContains(i);
+        if (keyOf(i).compareTo(key) >= 0)
+            throw new IllegalArgumentException("Calling increaseKey() with a key not strictly greater than the key in the priority queue");
+        lowerKey(i, key);
+    }
+
+    /**
+     * Shortest path distances on a small directed graph with Dijkstra's algorithm, relaxing edges with
+     * decreaseKey, followed by deleting the remaining items in key order.
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        //tinyEWD.txt from the textbook: from, to, weight
+        double[][] edges = {
+                {4, 5, 0.35}, {5, 4, 0.35}, {4, 7, 0.37}, {5, 7, 0.28}, {7, 5, 0.28}, {5, 1, 0.32}, {0, 4, 0.38},
+                {0, 2, 0.26}, {7, 3, 0.39}, {1, 3, 0.29}, {2, 7, 0.34}, {6, 2, 0.40}, {3, 6, 0.52}, {6, 0, 0.58},
+                {6, 4, 0.93}};
+        int v = 8;
+        double[] distTo = new double[v];
+        for (int i = 0; i < v; i++) distTo[i] = Double.POSITIVE_INFINITY;
+        distTo[0] = 0.0;
+
+        IndexMinPQ_dAry<Double> pq = new IndexMinPQ_dAry<Double>(v, 3);
+        pq.insert(0, 0.0);
+        while (!pq.isEmpty()) {
+            int from = pq.delMin();
+            for (double[] e : edges) {
+                if ((int) e[0] != from) continue;
+                int to = (int) e[1];
+                if (distTo[to] > distTo[from] + e[2]) {
+                    distTo[to] = distTo[from] + e[2];
+                    if (pq.contains(to)) pq.decreaseKey(to, distTo[to]);
+                    else pq.insert(to, distTo[to]);
+                }
+            }
+        }
+        System.out.println("Shortest path distances from vertex 0: ");
+        for (int i = 0; i < v; i++) {
+            System.out.printf("0 to %d: %.2f%n", i, distTo[i]);
+        }
+
+        String[] strings = {"it", "was", "the", "best", "of", "times", "it", "was", "the", "worst"};
+        IndexMinPQ_dAry<String> spq = new IndexMinPQ_dAry<String>(strings.length, 3);
+        for (int i = 0; i < strings.length; i++) {
+            spq.insert(i, strings[i]);
+        }
+        spq.changeKey(3, "zzz");
+        spq.delete(5);
+        System.out.println("Deleting in order after changeKey(3, zzz) and delete(5): ");
+        while (!spq.isEmpty()) {
+            String key = spq.minKey();
+            int i = spq.delMin();
+            System.out.println(i + " " + key);
+        }
+    }
+}
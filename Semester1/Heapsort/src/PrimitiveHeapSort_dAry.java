@@ -0,0 +1,239 @@
+/*  d-ary heapsort for long[] and int[] keys with a choice of array layout
+ *
+ *  HeapSort_dAry keeps its heap 1-based, so the children of node k are at d*k-(d-2) .. d*k+1 and for most d a
+ *  sibling group starts part way into a cache line and runs into the next one. Every sink step scans one whole
+ *  sibling group, so a group split over two lines costs two cache misses per level on a heap too big for the cache.
+ *
+ *  Here the heap is stored from a chosen offset of an array (heap position p at pq[off + p], the children of
+ *  p at positions d*p+1 .. d*p+d):
+ *    STANDARD       off = 0: the array is sorted in place with no extra memory. This is the tree of HeapSort_dAry,
+ *                   one slot earlier since there is no empty pq[0]
+ *    CACHE_ALIGNED  off is picked so that every sibling group starts on a 64-byte cache line boundary, so when
+ *                   d * (key size) divides the line size a sink step touches one cache line per level
+ *                   (d = 8 for long keys, d = 16 for int keys, or d = 4 with two groups per line)
+ *
+ *  The padding goes in front of the keys, so CACHE_ALIGNED copies them into a new array of off + n keys, sorts
+ *  that and copies them back: O(n) extra memory, 80 MB for 10M long keys (none if off comes out 0).
+ *  The offset alone aligns nothing, as Java gives no control over where an array starts in memory. It assumes the
+ *  array data starts ARRAY_HEADER_BYTES past a cache line boundary, which holds for arrays the G1 collector
+ *  allocates as humongous objects (bigger than half a heap region, so a few hundred thousand keys or more) on a
+ *  HotSpot JVM with compressed class pointers: those are placed at the start of a region. With another collector,
+ *  another header size or a smaller array the groups are only d-aligned relative to the array, and CACHE_ALIGNED
+ *  costs the copy without the benefit.
+ *
+ *  The sinking key is held aside and larger children are moved up into the hole, one write per level instead of
+ *  an exchange. Both layouts use exactly the same code so they can be compared directly.
+ */
+
+public class PrimitiveHeapSort_dAry {
+
+    static final int ARRAY_HEADER_BYTES = 16;   // HotSpot long[]/int[] header with compressed class pointers
+
+    /**
+     * Where the heap is placed in its array
+     */
+    public enum Layout {
+        //root at index 0 of the array being sorted, in place
+        STANDARD {
+            int offset(int d, int keyBytes) {
+                return 0;
+            }
+        },
+        //each sibling group starts at a cache line boundary
+        CACHE_ALIGNED {
+            int offset(int d, int keyBytes) {
+                //the children of position p start at index d*p + 1 + off. For the group to start on a multiple of its own
+                //size in bytes for every p, d*p + 1 + off + header keys must be a multiple of d,
+                //so off = -(1 + header keys) mod d
+                int headerKeys = ARRAY_HEADER_BYTES / keyBytes;
+                return Math.floorMod(-(1 + headerKeys), d);
+            }
+        };
+
+        //index of the root in the padded array; 0 sorts the array in place
+        abstract int offset(int d, int keyBytes);
+    }
+
+    /**
+     * Rearranges the array in ascending order with a d-ary heap in the CACHE_ALIGNED layout, which sorts a padded
+     * copy of the array
+     *
+     * @param a the array to sort
+     * @param d the heap order (number of children per node), at least 2
+     */
+    public static void sort(long[] a, int d) {
+        sort(a, d, Layout.CACHE_ALIGNED);
+    }
+
+    /**
+     * Rearranges the array in ascending order with a d-ary heap in the given layout: in place for STANDARD, on a
+     * padded copy of n + off keys for CACHE_ALIGNED
+     *
+     * @param a the array to sort
+     * @param d the heap order (number of children per node), at least 2
+     * @param layout where the heap is placed in its array
+     */
+    public static void sort(long[] a, int d, Layout layout) {
+        checkOrder(d);
+        int n = a.length;
+        if (n < 2) return;
+        int off = layout.offset(d, Long.BYTES);
+        if (off == 0) {
+            heapsort(a, 0, n, d);
+            return;
+        }
+        long[] pq = new long[off + n];
+        System.arraycopy(a, 0, pq, off, n);
+        heapsort(pq, off, n, d);
+        System.arraycopy(pq, off, a, 0, n);
+    }
+
+    //sorts the n keys stored from pq[off]
+    private static void heapsort(long[] pq, int off, int n, int d) {
+        // heapify phase, starting from the parent of the last node
+        for (int p = (n - 2) / d; p >= 0; p--) {
+            sink(pq, off, p, n, d);
+        }
+        // sortdown phase
+        for (int m = n - 1; m > 0; m--) {
+            long max = pq[off];
+            pq[off] = pq[off + m];
+            pq[off + m] = max;
+            sink(pq, off, 0, m, d);
+        }
+    }
+
+    /** Top-down reheapify of heap position p in a heap of n keys stored from pq[off]
+     * @param pq padded heap array
+     * @param off index of the root
+     * @param p heap position to sink
+     * @param n number of keys in the heap
+     * @param d heap order
+     */
+    private static void sink(long[] pq, int off, int p, int n, int d) {
+        long x = pq[off + p];
+        while (true) {
+            int first = d * p + 1;
+            if (first >= n) break;
+            int last = Math.min(first + d, n);
+            int largestChild = first;
+            long largest = pq[off + first];
+            for (int i = first + 1; i < last; i++) {
+                long key = pq[off + i];
+                if (key > largest) {
+                    largestChild = i;
+                    largest = key;
+                }
+            }
+            if (largest <= x) break;
+            pq[off + p] = largest;
+            p = largestChild;
+        }
+        pq[off + p] = x;
+    }
+
+    /**
+     * Rearranges the array in ascending order with a d-ary heap in the CACHE_ALIGNED layout, which sorts a padded
+     * copy of the array
+     *
+     * @param a the array to sort
+     * @param d the heap order (number of children per node), at least 2
+     */
+    public static void sort(int[] a, int d) {
+        sort(a, d, Layout.CACHE_ALIGNED);
+    }
+
+    /**
+     * Rearranges the array in ascending order with a d-ary heap in the given layout: in place for STANDARD, on a
+     * padded copy of n + off keys for CACHE_ALIGNED
+     *
+     * @param a the array to sort
+     * @param d the heap order (number of children per node), at least 2
+     * @param layout where the heap is placed in its array
+     */
+    public static void sort(int[] a, int d, Layout layout) {
+        checkOrder(d);
+        int n = a.length;
+        if (n < 2) return;
+        int off = layout.offset(d, Integer.BYTES);
+        if (off == 0) {
+            heapsort(a, 0, n, d);
+            return;
+        }
+        int[] pq = new int[off + n];
+        System.arraycopy(a, 0, pq, off, n);
+        heapsort(pq, off, n, d);
+        System.arraycopy(pq, off, a, 0, n);
+    }
+
+    //int[] version of heapsort(long[], ...)
+    private static void heapsort(int[] pq, int off, int n, int d) {
+        // heapify phase, starting from the parent of the last node
+        for (int p = (n - 2) / d; p >= 0; p--) {
+            sink(pq, off, p, n, d);
+        }
+        // sortdown phase
+        for (int m = n - 1; m > 0; m--) {
+            int max = pq[off];
+            pq[off] = pq[off + m];
+            pq[off + m] = max;
+            sink(pq, off, 0, m, d);
+        }
+    }
+
+    //int[] version of sink(long[], ...)
+    private static void sink(int[] pq, int off, int p, int n, int d) {
+        int x = pq[off + p];
+        while (true) {
+            int first = d * p + 1;
+            if (first >= n) break;
+            int last = Math.min(first + d, n);
+            int largestChild = first;
+            int largest = pq[off + first];
+            for (int i = first + 1; i < last; i++) {
+                int key = pq[off + i];
+                if (key > largest) {
+                    largestChild = i;
+                    largest = key;
+                }
+            }
+            if (largest <= x) break;
+            pq[off + p] = largest;
+            p = largestChild;
+        }
+        pq[off + p] = x;
+    }
+
+    private static void checkOrder(int d) {
+        if (d < 2) throw new IllegalArgumentException("Heap order must be at least 2: " + d);
+    }
+
+    private static boolean isSorted(long[] a) {
+        for (int i = 1; i < a.length; i++) {
+            if (a[i] < a[i - 1]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Times both layouts on the same random keys for d = 4 and d = 8
+     *
+     * @param args optional number of keys (default 10,000,000)
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        long[] keys = new java.util.Random(42).longs(n).toArray();
+        System.out.println("n = " + n);
+        System.out.println("d\tlayout\t\tms");
+        for (int d : new int[]{4, 8}) {
+            for (Layout layout : Layout.values()) {
+                long[] a = keys.clone();
+                long start = System.nanoTime();
+                sort(a, d, layout);
+                long ms = (System.nanoTime() - start) / 1_000_000;
+                if (!isSorted(a)) throw new IllegalStateException("not sorted: d = " + d + " " + layout);
+                System.out.println(d + "\t" + layout + "\t" + (layout == Layout.STANDARD ? "\t" : "") + ms);
+            }
+        }
+    }
+}
@@ -22,6 +22,9 @@ public class NaturalMergeSort {
     //The currList private variable holds the LinkedList that is provided as input and also the in-place sorted output
     private LinkedListDeque currList = new LinkedListDeque();
 
+    //When set, sort prints the sublists found and merged in each iteration (used by the tester to show the algorithm)
+    private boolean trace = false;
+
     /**
      * Default contructor for natural mergesort
      */
@@ -42,6 +45,14 @@ public class NaturalMergeSort {
         return currList;
     }
 
+    public boolean isTrace() {
+        return trace;
+    }
+
+    public void setTrace(boolean trace) {
+        this.trace = trace;
+    }
+
     /** Checks if 1st argument is less than second based on a specific comparator operation defined on the class
      * @param v object that implements Comparable
      * @param w object that implements Comparable
@@ -91,26 +102,30 @@ public class NaturalMergeSort {
 
                 }
                 //print where we are in the mergesort process
-                System.out.println("Iteration #" + (level) + " Merge #" + (numMerge + 1) + ":");
+                if (trace) System.out.println("Iteration #" + (level) + " Merge #" + (numMerge + 1) + ":");
 
                 //Get the 1st longest sorted subsequence
                 seg1 = getSortedSegment(nextHead);
 
 
-                System.out.print("1st Sorted SubList is: ");
-                if (seg1!= null && !seg1.isEmpty()) {
-                    seg1.printList();
-                } else {
-                    System.out.println("Empty!");
+                if (trace) {
+                    System.out.print("1st Sorted SubList is: ");
+                    if (seg1 != null && !seg1.isEmpty()) {
+                        seg1.printList();
+                    } else {
+                        System.out.println("Empty!");
+                    }
                 }
 
                 //Get the 2nd longest sorted subsequence that just begins after 1st one above ends
-                System.out.print("2nd Sorted SubList is: ");
                 seg2 = getSortedSegment(seg1.getTail().next);
-                if (seg2!= null && !seg2.isEmpty()) {
-                    seg2.printList();
-                } else {
-                    System.out.println("Empty!");
+                if (trace) {
+                    System.out.print("2nd Sorted SubList is: ");
+                    if (seg2 != null && !seg2.isEmpty()) {
+                        seg2.printList();
+                    } else {
+                        System.out.println("Empty!");
+                    }
                 }
 //                }
                 // Set the head node for next merging
@@ -120,9 +135,11 @@ public class NaturalMergeSort {
                 LinkedListDeque merged = merge(seg1, seg2);
 
                 //Print merged list to show progress
-                System.out.print("After merging sublists, the Merged List is: ");
-                merged.printList();
-                System.out.println();
+                if (trace) {
+                    System.out.print("After merging sublists, the Merged List is: ");
+                    merged.printList();
+                    System.out.println();
+                }
 
                 //Add the merged subsequences so it can be shown at the end of each iteration.
                 cList.append(merged);
@@ -135,12 +152,14 @@ public class NaturalMergeSort {
                 numMerge++;
 
             }
-            System.out.println("========================================================================================================================");
-            System.out.print("After Iteration " + level + " List is :");
             //Inplace modify the list
             currList = cList;
-            currList.printList();
-            System.out.println("========================================================================================================================");
+            if (trace) {
+                System.out.println("========================================================================================================================");
+                System.out.print("After Iteration " + level + " List is :");
+                currList.printList();
+                System.out.println("========================================================================================================================");
+            }
         }
         /** START DEBUG CODE
         LinkedListDeque outList = new LinkedListDeque();
@@ -380,6 +399,7 @@ public class NaturalMergeSort {
         System.out.print("List Before Sorting: ");
         nms.currList.printList();
         System.out.println("========================================================================================================================");
+        nms.setTrace(true);
         nms.sort();
         System.out.println("========================================================================================================================");
         System.out.print("List After Sorting: ");
@@ -120,6 +120,7 @@ public class TesterNaturalMergesort {
         nms.getCurrList().printList();
         System.out.println("========================================================================================================================");
         //perform the sort operation
+        nms.setTrace(true);
         nms.sort();
         System.out.println("========================================================================================================================");
         System.out.print("List After Sorting: ");
@@ -0,0 +1,287 @@
+/*  Thread-safe minimum priority queue for many producers and consumers
+ *  MinPQ is not thread-safe, and putting one lock around it makes every insert and delMin wait for each other.
+ *  This queue has two modes, chosen when it is created:
+ *    EXACT    a lock-free skiplist (ConcurrentSkipListMap). delMin always returns a smallest key, at the cost of
+ *             every thread contending for the head of the same list.
+ *    RELAXED  a MultiQueue: c * threads independent MinPQs, each with its own lock. insert adds to a random queue;
+ *             delMin looks at the minimums of two random queues and removes the smaller one. Threads rarely touch
+ *             the same queue, so it scales with the number of threads, but delMin may return a key that is not
+ *             the smallest: on average its rank is within a small multiple of the number of queues.
+ *  Equal keys are all kept (the skiplist breaks ties with an insertion sequence number).
+ *  size() and isEmpty() are exact only when no other thread is changing the queue.
+ */
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ConcurrentMinPQ<Key> {
+
+    /**
+     * How strictly delMin follows the priority order
+     */
+    public enum Strictness {
+        //delMin returns a smallest key
+        EXACT,
+        //delMin returns a key close to the smallest, for better throughput with many threads
+        RELAXED
+    }
+
+    private static final int QUEUES_PER_THREAD = 2;     // c in the MultiQueue: queues = c * threads
+
+    private final Strictness strictness;
+    private final Comparator<Key> comparator;           // null for the natural order
+
+    //EXACT: key -> sequence number of insertion, so equal keys are different entries
+    private final ConcurrentSkipListMap<Entry<Key>, Boolean> skipList;
+    private final AtomicLong sequence = new AtomicLong();
+
+    //RELAXED: queues[i] is guarded by locks[i]; tops[i] is the minimum of queues[i] (null if empty) for lock-free peeking
+    private final MinPQ<Key>[] queues;
+    private final ReentrantLock[] locks;
+    private final AtomicReferenceArray<Key> tops;
+
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * Initializes an empty priority queue for the number of processors on this machine.
+     *
+     * @param strictness EXACT or RELAXED ordering of delMin
+     */
+    public ConcurrentMinPQ(Strictness strictness) {
+        this(strictness, Runtime.getRuntime().availableProcessors(), null);
+    }
+
+    /**
+     * Initializes an empty priority queue.
+     *
+     * @param strictness EXACT or RELAXED ordering of delMin
+     * @param threads the number of threads expected to use the queue; RELAXED uses 2 * threads internal queues
+     * @param comparator the order in which to compare the keys, or null for their natural order
+     */
+    public ConcurrentMinPQ(Strictness strictness, int threads, Comparator<Key> comparator) {
+        if (threads < 1) throw new IllegalArgumentException("Number of threads must be positive: " + threads);
+        this.strictness = strictness;
+        this.comparator = comparator;
+        if (strictness == Strictness.EXACT) {
+            skipList = new ConcurrentSkipListMap<>(this::compareEntries);
+            queues = null;
+            locks = null;
+            tops = null;
+        } else {
+            skipList = null;
+            int q = QUEUES_PER_THREAD * threads;
+            queues = (MinPQ<Key>[]) new MinPQ[q];
+            locks = new ReentrantLock[q];
+            tops = new AtomicReferenceArray<>(q);
+            for (int i = 0; i < q; i++) {
+                queues[i] = comparator == null ? new MinPQ<Key>() : new MinPQ<Key>(comparator);
+                locks[i] = new ReentrantLock();
+            }
+        }
+    }
+
+    public Strictness getStrictness() {
+        return strictness;
+    }
+
+    /**
+     * Returns true if this priority queue is empty.
+     *
+     * @return {@code true} if this priority queue is empty;
+     *         {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the number of keys on this priority queue.
+     *
+     * @return the number of keys on this priority queue
+     */
+    public int size() {
+        return (int) Math.max(0, size.sum());
+    }
+
+    /**
+     * Adds a new key to this priority queue.
+     *
+     * @param x the key to add to this priority queue
+     */
+    public void insert(Key x) {
+        if (x == null) throw new IllegalArgumentException("Key is null");
+        if (strictness == Strictness.EXACT) {
+            skipList.put(new Entry<>(x, sequence.getAndIncrement()), Boolean.TRUE);
+        } else {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (true) {
+                int i = random.nextInt(queues.length);
+                //a busy queue is skipped rather than waited for
+                if (!locks[i].tryLock()) continue;
+                try {
+                    queues[i].insert(x);
+                    tops.set(i, queues[i].min());
+                } finally {
+                    locks[i].unlock();
+                }
+                break;
+            }
+        }
+        size.increment();
+    }
+
+    /**
+     * Removes and returns a smallest key (EXACT) or a key close to the smallest (RELAXED).
+     *
+     * @return the key removed from this priority queue
+     * @throws NoSuchElementException if this priority queue is empty
+     */
+    public Key delMin() {
+        Key min = strictness == Strictness.EXACT ? delMinExact() : delMinRelaxed();
+        if (min == null) throw new NoSuchElementException("Priority queue underflow");
+        size.decrement();
+        return min;
+    }
+
+    private Key delMinExact() {
+        java.util.Map.Entry<Entry<Key>, Boolean> first = skipList.pollFirstEntry();
+        return first == null ? null : first.getKey().key;
+    }
+
+    private Key delMinRelaxed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            int i = random.nextInt(queues.length);
+            int j = random.nextInt(queues.length);
+            Key a = tops.get(i);
+            Key b = tops.get(j);
+            int k;
+            if (a == null && b == null) {
+                //both empty: look for any queue with keys. The scan is not atomic, so concurrent inserts and
+                //delMins can put keys only in queues it has already passed; while size is positive, scan again
+                //rather than report an empty queue
+                k = anyNonEmpty(random.nextInt(queues.length));
+                if (k < 0) {
+                    if (size.sum() <= 0) return null;
+                    Thread.onSpinWait();
+                    continue;
+                }
+            }
+            else if (a == null) k = j;
+            else if (b == null) k = i;
+            else k = less(b, a) ? j : i;
+
+            if (!locks[k].tryLock()) continue;
+            try {
+                if (queues[k].isEmpty()) continue;
+                Key min = queues[k].delMin();
+                tops.set(k, queues[k].isEmpty() ? null : queues[k].min());
+                return min;
+            } finally {
+                locks[k].unlock();
+            }
+        }
+    }
+
+    //index of a queue that has keys, scanning from start, or -1 if all were seen empty
+    private int anyNonEmpty(int start) {
+        for (int t = 0; t < queues.length; t++) {
+            int i = (start + t) % queues.length;
+            if (tops.get(i) != null) return i;
+        }
+        return -1;
+    }
+
+    /***************************************************************************
+     * Helper functions for compares.
+     ***************************************************************************/
+    private boolean less(Key v, Key w) {
+        return compare(v, w) < 0;
+    }
+
+    private int compare(Key v, Key w) {
+        if (comparator == null) return ((Comparable<Key>) v).compareTo(w);
+        return comparator.compare(v, w);
+    }
+
+    private int compareEntries(Entry<Key> v, Entry<Key> w) {
+        int cmp = compare(v.key, w.key);
+        if (cmp != 0) return cmp;
+        return Long.compare(v.seq, w.seq);
+    }
+
+    //skiplist entry: a key and its insertion sequence number
+    private static class Entry<Key> {
+        private final Key key;
+        private final long seq;
+
+        Entry(Key key, long seq) {
+            this.key = key;
+            this.seq = seq;
+        }
+    }
+
+    /**
+     * Throughput of a MinPQ behind one lock and of both ConcurrentMinPQ modes with 1 to 64 threads.
+     * Each thread does alternating insert / delMin pairs with random keys on a queue prefilled with 1M keys.
+     * args: milliseconds per measurement (default 1000)
+     */
+    public static void main(String[] args) throws InterruptedException {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        int prefill = 1000000;
+        System.out.println("Throughput in insert+delMin pairs per ms, " + prefill + " keys in the queue, "
+                + Runtime.getRuntime().availableProcessors() + " processors");
+        System.out.println("threads\tsynchronized MinPQ\tEXACT\t\tRELAXED");
+        for (int threads = 1; threads <= 64; threads *= 2) {
+            final int t = threads;
+            //MinPQ behind a single lock
+            MinPQ<Long> locked = new MinPQ<Long>();
+            java.util.Random random = new java.util.Random(42);
+            for (int i = 0; i < prefill; i++) locked.insert(random.nextLong());
+            double sync = throughput(threads, millis, () -> {
+                long key = ThreadLocalRandom.current().nextLong();
+                synchronized (locked) {
+                    locked.insert(key);
+                    locked.delMin();
+                }
+            });
+            double[] concurrent = new double[2];
+            for (Strictness s : Strictness.values()) {
+                ConcurrentMinPQ<Long> pq = new ConcurrentMinPQ<Long>(s, t, null);
+                for (int i = 0; i < prefill; i++) pq.insert(random.nextLong());
+                concurrent[s.ordinal()] = throughput(threads, millis, () -> {
+                    pq.insert(ThreadLocalRandom.current().nextLong());
+                    pq.delMin();
+                });
+            }
+            System.out.printf("%d\t%.0f\t\t\t%.0f\t\t%.0f%n", threads, sync, concurrent[0], concurrent[1]);
+        }
+    }
+
+    //runs op on the given number of threads for about millis ms and returns the operations per ms
+    private static double throughput(int threads, long millis, Runnable op) throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        long deadline = System.nanoTime() + millis * 1000000L;
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> {
+                long done = 0;
+                while ((done & 255) != 0 || System.nanoTime() < deadline) {
+                    op.run();
+                    done++;
+                }
+                ops.add(done);
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread w : workers) w.start();
+        for (Thread w : workers) w.join();
+        return ops.sum() / ((System.nanoTime() - start) / 1e6);
+    }
+}
@@ -2,6 +2,9 @@ import java.util.ArrayList;
 
 public class FIFO extends JobSchedulerModel {
 
+    //rows of the jobs that have arrived and are waiting to run
+    private final JobTable.RowDeque readyQueue = new JobTable.RowDeque();
+
 
     public FIFO(ArrayList<Job> jobList) {
         super(jobList);
@@ -10,55 +13,39 @@ public class FIFO extends JobSchedulerModel {
 //        sort();
     }
 
+    public FIFO(JobTable jobs) {
+        super(jobs);
+        myQTpye = "FIFO";
+    }
+
     public void createQueue(){
-        jobPendingQ= new MinPQ(jobList.size(), new Job.SortbyArrivalTime());
-        for(Job j: jobList){
-            int myId = j.getId();
-            int myArrvlTime = j.getArrivalTime();
-            jobPendingQ.insert(j);
-        }
+        jobPendingQ= new MinPQ<Job>(jobList.size(), new Job.SortbyArrivalTime());
+        //one pass over the jobs: appended, then heapified
+        jobPendingQ.insertAll(jobList);
     }
 
 
 
 
 
+    //Jobs run to completion in order of arrival (ties by id)
     public void computeSchedule(){
-        int elapsedTime = 0;
-        int prevEndTime = 0;
-        int jobCount = 0;
-        int currTAT =0;
-
-        for(Job currJob : jobPendingQ){
-            if(currJob.getId()==0) continue;
-            int currArrTime = currJob.getArrivalTime();
-            int currProcTime = currJob.getProcessingTime();
-            //if either prior job is done before current job arrives or it is 1st job no wait time, can start immediately
-                if(currArrTime < prevEndTime){
-                    currJob.setStartTime(prevEndTime);
-                    currJob.setWaitingTime(prevEndTime - currArrTime);
-
-                }
-                //otherwise
-                else{
-                    currJob.setStartTime(currArrTime);
-                    currJob.setWaitingTime(0);
-
-                }
-            currJob.setEndTime(currJob.getStartTime() + currJob.getProcessingTime());
-            elapsedTime = currJob.getEndTime();
-
-            prevEndTime = elapsedTime;
-
-            jobCount++;
-            finishedJobs.add(currJob);
-
-        }
-        if(jobList.size() == jobCount) bJobsProcessed = true;
+        simulate();
     }
 
+    protected void resetReadyQueue() {
+        readyQueue.clear();
+    }
 
+    protected void addReady(int row) {
+        readyQueue.addLast(row);
+    }
 
+    protected int nextReady() {
+        return readyQueue.pollFirst();
+    }
 
-
+    protected boolean hasReady() {
+        return !readyQueue.isEmpty();
+    }
 }
@@ -0,0 +1,266 @@
+/*  Indexed priority queue on a d-ary heap
+ *
+ *  Each key is attached to an integer index between 0 and maxN-1, so a client can look up, change or delete
+ *  the key of a pending item by its index (for example a vertex number in Dijkstra's algorithm or a job id in a
+ *  scheduler) instead of deleting it and inserting it again.
+ *  The heap uses the same 1-based d-ary layout as HeapSort_dAry: the children of heap position k are
+ *  d*k-(d-2) .. d*k+1 and its parent is (k+d-2)/d. Three parallel arrays hold the state, so no object is created
+ *  per entry:
+ *    pq[k]   index stored at heap position k
+ *    qp[i]   heap position of index i (the inverse of pq), -1 if i is not on the queue
+ *    keys[i] key of index i
+ *  insert, delete, changeKey and removing the top take O(d log_d n) compares; contains, keyOf and the top take
+ *  constant time.
+ *
+ *  IndexMinPQ_dAry and IndexMaxPQ_dAry give the min and max oriented versions of this class.
+ */
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+public abstract class IndexPQ_dAry<Key extends Comparable<Key>> {
+
+    private final int d;            // d-ary heap parameter
+    private int maxN;               // indices are 0 .. maxN-1
+    private final boolean max;      // true: largest key on top, false: smallest key on top
+    private int n;                  // number of keys on the priority queue
+    private int[] pq;               // binary heap of indices using 1-based indexing
+    private int[] qp;               // inverse of pq: qp[pq[k]] = pq[qp[i]] = i
+    private Key[] keys;             // keys[i] = priority of i
+
+    /**
+     * Initializes an empty indexed priority queue with indices between 0 and maxN - 1
+     *
+     * @param maxN the keys on this priority queue are indexed from 0 to maxN - 1
+     * @param d    the heap order (number of children per node), at least 2
+     * @param max  true to keep the largest key on top, false for the smallest
+     * @throws IllegalArgumentException if maxN < 0 or d < 2
+     */
+    protected IndexPQ_dAry(int maxN, int d, boolean max) {
+        if (maxN < 0) throw new IllegalArgumentException("maxN must not be negative: " + maxN);
+        if (d < 2) throw new IllegalArgumentException("Heap order must be at least 2: " + d);
+        this.maxN = maxN;
+        this.d = d;
+        this.max = max;
+        keys = (Key[]) new Comparable[maxN];
+        pq = new int[maxN + 1];
+        qp = new int[maxN];
+        for (int i = 0; i < maxN; i++)
+            qp[i] = -1;
+    }
+
+    public int getD() {
+        return d;
+    }
+
+    /**
+     * Raises the number of indices to at least capacity, at least doubling it so that growing one index at a
+     * time costs amortized constant time. Does nothing if the queue already has room for capacity indices.
+     *
+     * @param capacity the indices on this priority queue will be 0 to at least capacity - 1
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= maxN) return;
+        int newMaxN = (int) Math.min(Integer.MAX_VALUE - 1, Math.max(capacity, 2L * maxN));
+        keys = Arrays.copyOf(keys, newMaxN);
+        pq = Arrays.copyOf(pq, newMaxN + 1);
+        qp = Arrays.copyOf(qp, newMaxN);
+        for (int i = maxN; i < newMaxN; i++)
+            qp[i] = -1;
+        maxN = newMaxN;
+    }
+
+    /**
+     * Returns true if this priority queue is empty.
+     *
+     * @return true if this priority queue is empty; false otherwise
+     */
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    /**
+     * Is i an index on this priority queue?
+     *
+     * @param i an index
+     * @return true if i is an index on this priority queue; false otherwise
+     * @throws IllegalArgumentException unless 0 <= i < maxN
+     */
+    public boolean contains(int i) {
+        validateIndex(i);
+        return qp[i] != -1;
+    }
+
+    /**
+     * Returns the number of keys on this priority queue.
+     *
+     * @return the number of keys on this priority queue
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Associates key with index i.
+     *
+     * @param i   an index
+     * @param key the key to associate with index i
+     * @throws IllegalArgumentException unless 0 <= i < maxN
+     * @throws IllegalArgumentException if there already is an item associated with index i
+     */
+    public void insert(int i, Key key) {
+        validateIndex(i);
+        if (contains(i)) throw new IllegalArgumentException("index is already in the priority queue: " + i);
+        n++;
+        qp[i] = n;
+        pq[n] = i;
+        keys[i] = key;
+        swim(n);
+    }
+
+    /**
+     * Returns the key associated with index i.
+     *
+     * @param i the index of the key to return
+     * @return the key associated with index i
+     * @throws IllegalArgumentException unless 0 <= i < maxN
+     * @throws NoSuchElementException if no key is associated with index i
+     */
+    public Key keyOf(int i) {
+        validateContains(i);
+        return keys[i];
+    }
+
+    /**
+     * Changes the key associated with index i to the given key, in either direction.
+     *
+     * @param i   the index of the key to change
+     * @param key change the key associated with index i to this key
+     * @throws IllegalArgumentException unless 0 <= i < maxN
+     * @throws NoSuchElementException if no key is associated with index i
+     */
+    public void changeKey(int i, Key key) {
+        validateContains(i);
+        keys[i] = key;
+        //only one of these moves it
+        swim(qp[i]);
+        sink(qp[i]);
+    }
+
+    /**
+     * Removes the key associated with index i.
+     *
+     * @param i the index of the key to remove
+     * @throws IllegalArgumentException unless 0 <= i < maxN
+     * @throws NoSuchElementException if no key is associated with index i
+     */
+    public void delete(int i) {
+        validateContains(i);
+        int index = qp[i];
+        exch(index, n--);
+        //the last key moved into index's place may belong above or below it
+        if (index <= n) {
+            swim(index);
+            sink(index);
+        }
+        keys[i] = null;
+        qp[i] = -1;
+        pq[n + 1] = -1;
+    }
+
+    /***************************************************************************
+     * Top of the heap, used by the min and max oriented subclasses
+     ***************************************************************************/
+
+    //index of the key on top of the heap
+    protected int topIndex() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        return pq[1];
+    }
+
+    //key on top of the heap
+    protected Key topKey() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        return keys[pq[1]];
+    }
+
+    //removes the key on top of the heap and returns its index
+    protected int delTop() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        int top = pq[1];
+        exch(1, n--);
+        sink(1);
+        qp[top] = -1;
+        keys[top] = null;
+        pq[n + 1] = -1;
+        return top;
+    }
+
+    //moves the key of index i towards the top after it has been made higher priority
+    protected void raiseKey(int i, Key key) {
+        keys[i] = key;
+        swim(qp[i]);
+    }
+
+    //moves the key of index i away from the top after it has been made lower priority
+    protected void lowerKey(int i, Key key) {
+        keys[i] = key;
+        sink(qp[i]);
+    }
+
+    //throws IllegalArgumentException unless i is a valid index and NoSuchElementException unless it is on the queue
+    protected void validateContains(int i) {
+        validateIndex(i);
+        if (qp[i] == -1) throw new NoSuchElementException("index is not in the priority queue: " + i);
+    }
+
+    private void validateIndex(int i) {
+        if (i < 0) throw new IllegalArgumentException("index is negative: " + i);
+        if (i >= maxN) throw new IllegalArgumentException("index >= capacity: " + i);
+    }
+
+    /***************************************************************************
+     * Helper functions to reheapify
+     ***************************************************************************/
+
+    //Bottom-up re-heapify: for d-ary trees, parent of position k is (k+d-2)/d
+    private void swim(int k) {
+        while (k > 1 && above(k, (k + d - 2) / d)) {
+            exch(k, (k + d - 2) / d);
+            k = (k + d - 2) / d;
+        }
+    }
+
+    //Top-down re-heapify: the children of position k are d*k-(d-2) to d*k+1
+    private void sink(int k) {
+        while (d * k - (d - 2) <= n) {
+            int j = d * k;
+            int topChild = j - (d - 2);
+            for (int i = topChild + 1; i <= Math.min(j + 1, n); i++) {
+                if (above(i, topChild)) {
+                    topChild = i;
+                }
+            }
+            if (!above(topChild, k)) break;
+            exch(k, topChild);
+            k = topChild;
+        }
+    }
+
+    /***************************************************************************
+     * Helper functions for compares and swaps.
+     ***************************************************************************/
+    //should the key at heap position i be above the key at heap position j?
+    private boolean above(int i, int j) {
+        int cmp = keys[pq[i]].compareTo(keys[pq[j]]);
+        return max ? cmp > 0 : cmp < 0;
+    }
+
+    private void exch(int i, int j) {
+        int swap = pq[i];
+        pq[i] = pq[j];
+        pq[j] = swap;
+        qp[pq[i]] = i;
+        qp[pq[j]] = j;
+    }
+}
@@ -3,6 +3,9 @@
  *  Job objects have arrival time, start time, end time, processing time, TAT, waiting times as their main properties
  *  the boolean flag bCompleted is used to indicate that the job had completed
  *  The job class has various comparator classes that are useful to sort the job objects by processingTime, arrivalTime or ids.
+ *  A job is either a standalone record holding its own properties, or a view of a JobTable row: the schedulers work on
+ *  the table, and the getters and setters of a view read and write its row (the waiting time, TAT and bCompleted of a
+ *  view are derived from its end time).
  *  @author: Vishak Srikanth
  *  @version: 11/01/2021
  */
@@ -19,6 +22,10 @@ public class Job implements Comparable {
     private int TAT;
     private boolean bCompleted = false;
 
+    //the table row this job is a view of, or null for a standalone job
+    private JobTable table;
+    private int row;
+
 
     /** Constructor for job: needs a jod id, its arrival time and its processing time
      * @param id job id
@@ -32,84 +39,116 @@ public class Job implements Comparable {
         remainingTime = processingTime;
     }
 
+    //makes this job a view of a table row
+    void attach(JobTable table, int row) {
+        this.table = table;
+        this.row = row;
+    }
+
+    //copies the properties of a view into this job and makes it a standalone job again
+    void detach() {
+        if (table == null) return;
+        JobTable t = table;
+        table = null;
+        id = t.id(row);
+        arrivalTime = t.arrival(row);
+        processingTime = t.processing(row);
+        remainingTime = t.remaining(row);
+        startTime = t.start(row);
+        endTime = t.end(row);
+        waitingTime = t.waitingTime(row);
+        TAT = t.tat(row);
+        bCompleted = t.isCompleted(row);
+    }
+
 
     /**
      * Getters and setters for each member variable
      */
     public int getArrivalTime() {
-        return arrivalTime;
+        return table == null ? arrivalTime : table.arrival(row);
     }
 
     public void setArrivalTime(int arrivalTime) {
-        this.arrivalTime = arrivalTime;
+        if (table == null) this.arrivalTime = arrivalTime;
+        else               table.setArrival(row, arrivalTime);
     }
 
     public int getId() {
-        return id;
+        return table == null ? id : table.id(row);
     }
 
     public void setId(int id) {
-        this.id = id;
+        if (table == null) this.id = id;
+        else               table.setId(row, id);
     }
 
     public int getProcessingTime() {
-        return processingTime;
+        return table == null ? processingTime : table.processing(row);
     }
 
     public void setProcessingTime(int processingTime) {
-        this.processingTime = processingTime;
+        if (table == null) this.processingTime = processingTime;
+        else               table.setProcessing(row, processingTime);
     }
 
     public int getRemainingTime() {
-        return remainingTime;
+        return table == null ? remainingTime : table.remaining(row);
     }
 
     public void setRemainingTime(int remainingTime) {
-        this.remainingTime = remainingTime;
+        if (table == null) this.remainingTime = remainingTime;
+        else               table.setRemaining(row, remainingTime);
     }
 
     public int getWaitingTime() {
-        return waitingTime;
+        return table == null ? waitingTime : table.waitingTime(row);
     }
 
     public void setWaitingTime(int waitingTime) {
-        this.waitingTime = waitingTime;
+        if (table == null) this.waitingTime = waitingTime;
+        else               table.setEnd(row, table.arrival(row) + table.processing(row) + waitingTime);
     }
 
     public String toString() {
-        return "Job ID: " + id + " Arrival time: " + arrivalTime + " ProcTime: " + processingTime;
+        return "Job ID: " + getId() + " Arrival time: " + getArrivalTime() + " ProcTime: " + getProcessingTime();
     }
 
     public int getStartTime() {
-        return startTime;
+        return table == null ? startTime : table.start(row);
     }
 
     public void setStartTime(int startTime) {
-        this.startTime = startTime;
+        if (table == null) this.startTime = startTime;
+        else               table.setStart(row, startTime);
     }
 
     public int getEndTime() {
-        return endTime;
+        return table == null ? endTime : table.end(row);
     }
 
     public void setEndTime(int endTime) {
-        this.endTime = endTime;
+        if (table == null) this.endTime = endTime;
+        else               table.setEnd(row, endTime);
     }
 
     public int getTAT() {
-        return TAT;
+        return table == null ? TAT : table.tat(row);
     }
 
     public void setTAT(int TAT) {
-        this.TAT = TAT;
+        if (table == null) this.TAT = TAT;
+        else               table.setEnd(row, table.arrival(row) + TAT);
     }
 
     public boolean isbCompleted() {
-        return bCompleted;
+        return table == null ? bCompleted : table.isCompleted(row);
     }
 
+    //a view is completed once it has an end time, so only clearing the flag changes its row
     public void setbCompleted(boolean bCompleted) {
-        this.bCompleted = bCompleted;
+        if (table == null)   this.bCompleted = bCompleted;
+        else if (!bCompleted) table.setEnd(row, -1);
     }
 
 
@@ -127,7 +166,7 @@ public class Job implements Comparable {
         // Used for sorting in ascending order of
         // arrival time
         public int compare(Job a, Job b) {
-            return (new Integer(a.arrivalTime)).compareTo(b.arrivalTime);
+            return (new Integer(a.getArrivalTime())).compareTo(b.getArrivalTime());
         }
     }
 
@@ -138,7 +177,7 @@ public class Job implements Comparable {
         // Used for sorting in ascending order of
         // processingTime
         public int compare(Job a, Job b) {
-            return (new Integer(a.processingTime)).compareTo(b.processingTime);
+            return (new Integer(a.getProcessingTime())).compareTo(b.getProcessingTime());
         }
     }
 
@@ -148,7 +187,7 @@ public class Job implements Comparable {
     public static class SortbyId implements Comparator<Job> {
         @Override
         public int compare(Job a, Job b) {
-            return (new Integer(a.id)).compareTo(b.id);
+            return (new Integer(a.getId())).compareTo(b.getId());
         }
     }
 
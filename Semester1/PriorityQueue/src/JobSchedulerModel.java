@@ -1,10 +1,22 @@
 /*  The main JobScheduler parent class is extended by each scheduler implementation such as RR, FIFO and SJF that extend
  *  the JobSchedulerModel class to implement the relevant scheduling algorithms
+ *  It also holds the event-driven simulation core shared by the schedulers: simulate() keeps a MinPQ of events (the next
+ *  job arrival and the end of the current run) and jumps the clock straight from one event to the next, so the cost
+ *  depends on the number of jobs and runs rather than on how long they take. A scheduler only supplies its ready queue
+ *  (addReady, nextReady, hasReady), its time slice (quantum) and, if it is preemptive, when an arriving job takes the
+ *  processor from the running one (preempts).
+ *  The core and the ready queues work on a JobTable, where a job is an int row rather than an object; the jobs in
+ *  jobList become views of the table, and a model can also be built from a table alone.
+ *  computeSchedule(trace, output) runs the same core on a stream of jobs instead of jobList, for traces too long to
+ *  keep in memory.
  *
  *  @author: Vishak Srikanth
  *  @version: 11/01/2021
  */
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Consumer;
 
 public class JobSchedulerModel {
 
@@ -30,11 +42,22 @@ public class JobSchedulerModel {
      */
     public JobSchedulerModel(ArrayList<Job> jobList) {
         this.jobList = jobList;
+        fromList = true;
         //create queue has no default implementation in parent class and only needs to be implmented in child classes
         // which extend JobSchedulerModel class
         createQueue();
     }
 
+    /** Constructor for a schedule model that works directly on a table of jobs, with no Job object per job:
+     *  the results are read from the table, as jobList and finishedJobs stay empty
+     * @param jobs input jobs, one per row
+     */
+    public JobSchedulerModel(JobTable jobs) {
+        this.jobs = jobs;
+        fromList = false;
+        createQueue();
+    }
+
     //Getters and Setter methods
     public ArrayList<Job> getJobList() {
         return jobList;
@@ -145,6 +168,307 @@ public class JobSchedulerModel {
     }
 
 
+    /***************************************************************************
+     * Event-driven simulation core
+     ***************************************************************************/
+
+    //quantum of a scheduler that runs each job to completion once it has started
+    protected static final int NO_PREEMPTION = Integer.MAX_VALUE;
+
+    //Event kinds: at equal times arrivals are handled first, so a job that arrives just as another is preempted
+    //joins the ready queue ahead of it
+    private static final int ARRIVAL = 0;
+    private static final int RUN_END = 1;
+
+    //current simulation time
+    protected int clock;
+
+    //The jobs the schedulers work on, one row per job: built from jobList (whose jobs become views of it) each time a
+    //schedule is computed, or given to the constructor for runs too large for a Job object per job
+    protected JobTable jobs;
+    private final boolean fromList;
+
+    //rows in order of arrival (null when the rows are already in that order), and how many of them have arrived
+    private int[] order;
+    private int arrived;
+
+    //streaming mode: where the jobs come from and go to, the Job read for each row in use and the last arrival time
+    private Iterator<Job> trace;
+    private Consumer<Job> output;
+    private Job[] streamed;
+    private int lastArrival;
+    private long completed;
+
+    //A job arrives or its run (a whole job or one time slice) ends at the given time
+    private static class Event implements Comparable<Event> {
+        private final int time;
+        private final int kind;
+        private final int row;      // the job, as a row of jobs
+        private final int run;      // length of the run that ends, for RUN_END
+
+        Event(int time, int kind, int row, int run) {
+            this.time = time;
+            this.kind = kind;
+            this.row = row;
+            this.run = run;
+        }
+
+        public int compareTo(Event that) {
+            if (time != that.time) return Integer.compare(time, that.time);
+            return Integer.compare(kind, that.kind);
+        }
+    }
+
+    /**
+     * Runs the jobs through the scheduler's ready queue, one processor, from time 0.
+     * Each job that finishes gets its start and end time set in jobs; when the model was built from jobList, the
+     * finished jobs are also added to finishedJobs in order of completion. O(n log n) for n jobs plus O(log n) per
+     * time slice that is simulated.
+     */
+    protected void simulate() {
+        order = prepareJobs();
+        arrived = 0;
+        completed = 0;
+        run();
+        bJobsProcessed = completed == jobs.size();
+    }
+
+    /**
+     * Runs the jobs returned by arrivals through the scheduler's ready queue, one processor, from time 0.
+     * Each job is copied into a row of a table of its own when the clock reaches it, and when it finishes, its
+     * properties (start, end, waiting time and TAT) are copied back, it is passed to finished and its row is reused.
+     * So the memory used is bounded by the number of jobs in the system rather than the length of the trace.
+     *
+     * @param arrivals jobs in order of arrival time
+     * @param finished receives each job when it finishes, in order of completion
+     * @return the number of jobs that finished
+     * @throws IllegalArgumentException if a job arrives earlier than the one before it
+     */
+    protected long simulate(Iterator<Job> arrivals, Consumer<Job> finished) {
+        JobTable table = jobs;
+        jobs = new JobTable();
+        trace = arrivals;
+        output = finished;
+        streamed = new Job[16];
+        lastArrival = Integer.MIN_VALUE;
+        completed = 0;
+        try {
+            run();
+            return completed;
+        }
+        finally {
+            jobs = table;
+            trace = null;
+            output = null;
+            streamed = null;
+        }
+    }
+
+    /**
+     * Sets up jobs for a new schedule: copies jobList into a new table, or marks every job of the given table as not
+     * run yet, and clears finishedJobs.
+     *
+     * @return the rows in order of arrival time, ties in order of id, or null if the rows are already in that order
+     */
+    protected int[] prepareJobs() {
+        finishedJobs.clear();
+        if (fromList) {
+            jobs = JobTable.of(jobList);
+        }
+        else {
+            for (int r = 0; r < jobs.size(); r++) jobs.reset(r);
+        }
+        return jobs.arrivalOrder();
+    }
+
+    /**
+     * The event loop shared by both modes, on one processor: takes the jobs from nextArrival() as the clock reaches
+     * them and hands each finished one to complete(). MultiCoreScheduler replaces it with a loop over several cores.
+     */
+    protected void run() {
+        clock = 0;
+        resetReadyQueue();
+        //only the next arrival is kept on the event queue
+        MinPQ<Event> events = new MinPQ<Event>();
+        int first = nextArrival();
+        if (first >= 0) events.insert(new Event(jobs.arrival(first), ARRIVAL, first, 0));
+        int running = -1;
+        Event current = null;       // RUN_END event of the running job; any other RUN_END was cancelled by preemption
+        int runStart = 0;
+        while (!events.isEmpty()) {
+            Event e = events.delMin();
+            clock = e.time;
+            if (e.kind == ARRIVAL) {
+                addReady(e.row);
+                int next = nextArrival();
+                if (next >= 0) events.insert(new Event(jobs.arrival(next), ARRIVAL, next, 0));
+                //a preemptive scheduler may take the processor away from the running job, unless its run ends now
+                if (running >= 0 && current.time > clock && preempts(e.row, running, jobs.remaining(running) - (clock - runStart))) {
+                    jobs.setRemaining(running, jobs.remaining(running) - (clock - runStart));
+                    int preempted = running;
+                    running = -1;
+                    current = null;
+                    addReady(preempted);
+                }
+            }
+            else if (e == current) {
+                running = -1;
+                current = null;
+                jobs.setRemaining(e.row, jobs.remaining(e.row) - e.run);
+                if (jobs.remaining(e.row) == 0) complete(e.row);
+                else                            addReady(e.row);     // preempted at the end of its slice
+            }
+
+            //dispatch once every event at this time has been handled
+            if (running < 0 && hasReady() && (events.isEmpty() || events.min().time > clock)) {
+                fastForward(events.isEmpty() ? Integer.MAX_VALUE : events.min().time);
+                running = nextReady();
+                if (jobs.start(running) < 0) jobs.setStart(running, clock);
+                int run = Math.min(quantum(), jobs.remaining(running));
+                runStart = clock;
+                current = new Event(clock + run, RUN_END, running, run);
+                events.insert(current);
+            }
+        }
+    }
+
+    /**
+     * Returns the row of the next job to arrive, or -1 if there is none. In streaming mode the job is read from the
+     * trace and added to jobs, in a row freed by a finished job if there is one.
+     *
+     * @return the row of the next job in order of arrival, or -1
+     * @throws IllegalArgumentException if a job of the trace arrives earlier than the one before it
+     */
+    protected int nextArrival() {
+        if (trace == null) {
+            if (arrived == jobs.size()) return -1;
+            return order == null ? arrived++ : order[arrived++];
+        }
+        if (!trace.hasNext()) return -1;
+        Job j = trace.next();
+        if (j.getArrivalTime() < lastArrival)
+            throw new IllegalArgumentException("Jobs are not in order of arrival: job " + j.getId());
+        lastArrival = j.getArrivalTime();
+        int row = jobs.add(j.getId(), j.getArrivalTime(), j.getProcessingTime());
+        if (row == streamed.length) streamed = Arrays.copyOf(streamed, 2 * row);
+        streamed[row] = j;
+        return row;
+    }
+
+    /**
+     * Records a finished job: sets its end time to the clock and, when the model was built from jobList, adds it to
+     * finishedJobs (in streaming mode the job gets its results and is passed to the output instead).
+     *
+     * @param row the job
+     */
+    protected void complete(int row) {
+        jobs.setEnd(row, clock);
+        completed++;
+        if (trace != null) {
+            Job j = streamed[row];
+            streamed[row] = null;
+            j.attach(jobs, row);
+            j.detach();
+            jobs.release(row);
+            output.accept(j);
+        }
+        else if (fromList) {
+            finishedJobs.add(jobList.get(row));
+        }
+    }
+
+    //true while a schedule is computed from a stream of jobs
+    protected boolean isStreaming() {
+        return trace != null;
+    }
+
+    //Ready queue of the scheduler, holding rows of jobs: a job that has arrived or was preempted is added, and
+    //nextReady picks the job to run next. Implemented in subclasses that use simulate()
+    protected void resetReadyQueue() {
+        throw new UnsupportedOperationException("No ready queue for " + myQTpye);
+    }
+
+    protected void addReady(int row) {
+        throw new UnsupportedOperationException("No ready queue for " + myQTpye);
+    }
+
+    protected int nextReady() {
+        throw new UnsupportedOperationException("No ready queue for " + myQTpye);
+    }
+
+    protected boolean hasReady() {
+        return false;
+    }
+
+    //longest time a job runs before it is preempted and added to the ready queue again
+    protected int quantum() {
+        return NO_PREEMPTION;
+    }
+
+    /**
+     * Called when a job arrives while another is running, after the arriving job has been added to the ready queue.
+     * Returning true stops the running job, which is added to the ready queue again with its remaining time updated.
+     * Non-preemptive by default.
+     *
+     * @param arrived the job that just arrived
+     * @param running the running job
+     * @param runningLeft time the running job still needs
+     * @return true to preempt the running job
+     */
+    protected boolean preempts(int arrived, int running, int runningLeft) {
+        return false;
+    }
+
+    /**
+     * Called before each dispatch when the processor is free. A scheduler can serve the ready jobs in bulk here, as
+     * long as none of them finishes and the clock stays before until (the next arrival); it updates their remaining
+     * (and start) times and advances clock. Does nothing by default.
+     *
+     * @param until time of the next arrival, Integer.MAX_VALUE if none
+     */
+    protected void fastForward(int until) {
+    }
+
+    /**
+     * Streaming mode: schedules the jobs read one at a time from trace (for example a JobTrace file) instead of
+     * jobList, and passes each finished job to output instead of keeping it in finishedJobs. Jobs that finished are
+     * not referenced by the scheduler any more, so a trace of any length can be replayed in memory proportional to
+     * the number of jobs waiting or running at the same time. Supported by every scheduler that uses simulate():
+     * FIFO, SJF, RoundRobin, SRTF, MLFQ and MultiCoreScheduler.
+     *
+     * @param trace jobs in order of arrival time
+     * @param output receives each job when it finishes, in order of completion
+     * @return the number of jobs that finished
+     * @throws IllegalArgumentException if a job arrives earlier than the one before it
+     */
+    public long computeSchedule(Iterator<Job> trace, Consumer<Job> output) {
+        return simulate(trace, output);
+    }
+
+    //average waiting time and TAT of the finished jobs in jobs, 0 before a model built from jobList has computed a
+    //schedule (its table is built then)
+    public double getAverageWaitingTime() {
+        if (jobs == null) return 0;
+        long total = 0, count = 0;
+        for (int r = 0; r < jobs.size(); r++) {
+            if (!jobs.isCompleted(r)) continue;
+            total += jobs.waitingTime(r);
+            count++;
+        }
+        return count == 0 ? 0 : total * 1.0 / count;
+    }
+
+    public double getAverageTAT() {
+        if (jobs == null) return 0;
+        long total = 0, count = 0;
+        for (int r = 0; r < jobs.size(); r++) {
+            if (!jobs.isCompleted(r)) continue;
+            total += jobs.tat(r);
+            count++;
+        }
+        return count == 0 ? 0 : total * 1.0 / count;
+    }
+
     /**
      * Computes the schedule - only check is provided in parent class but needs to be implemented as per each scheduler algorithm
      */
@@ -0,0 +1,289 @@
+/*  Columnar store of the jobs a scheduler works on: one int array per property (id, arrival, processing, remaining,
+ *  start and end time) indexed by row, instead of one Job object per job. The schedulers keep rows on their ready
+ *  queues and read and update the columns directly, so a job costs 24 bytes and no object header, reference or hash
+ *  table entry. The waiting time (end - arrival - processing) and TAT (end - arrival) are derived from the end time,
+ *  which is -1 until the job has finished.
+ *  A Job is either a standalone record (as built by ScheduleTester or read by JobTrace) or a view of a row: of(list)
+ *  copies a list of jobs into a table and turns them into views, so results written to the table show through them.
+ *  Rows freed with release() are reused by add(), so a table fed from a stream only grows to the number of jobs in the
+ *  system at once.
+ */
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+public class JobTable {
+
+    private int[] id;
+    private int[] arrival;
+    private int[] processing;
+    private int[] remaining;
+    private int[] start;            // -1 until the job first runs
+    private int[] end;              // -1 until the job finishes
+    private int n;                  // rows used so far, including released ones
+    private int[] free;             // stack of released rows
+    private int freeCount;
+
+    /**
+     * Creates an empty table.
+     */
+    public JobTable() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty table with room for the given number of jobs.
+     *
+     * @param capacity initial number of rows
+     */
+    public JobTable(int capacity) {
+        capacity = Math.max(capacity, 1);
+        id = new int[capacity];
+        arrival = new int[capacity];
+        processing = new int[capacity];
+        remaining = new int[capacity];
+        start = new int[capacity];
+        end = new int[capacity];
+        free = new int[0];
+    }
+
+    /**
+     * Copies the jobs into a new table, row i holding jobs.get(i), and makes each of them a view of its row.
+     *
+     * @param jobs the jobs
+     * @return the table
+     */
+    public static JobTable of(List<Job> jobs) {
+        JobTable table = new JobTable(jobs.size());
+        for (Job j : jobs) {
+            int row = table.add(j.getId(), j.getArrivalTime(), j.getProcessingTime());
+            j.attach(table, row);
+        }
+        return table;
+    }
+
+    /**
+     * Adds a job that has not run yet, in a released row if there is one.
+     *
+     * @param id job id
+     * @param arrivalTime when the job arrives
+     * @param processingTime how long the job takes to process
+     * @return the row of the job
+     */
+    public int add(int id, int arrivalTime, int processingTime) {
+        int row;
+        if (freeCount > 0) {
+            row = free[--freeCount];
+        }
+        else {
+            if (n == this.id.length) resize(2 * n);
+            row = n++;
+        }
+        this.id[row] = id;
+        arrival[row] = arrivalTime;
+        processing[row] = processingTime;
+        reset(row);
+        return row;
+    }
+
+    /**
+     * Frees a row for reuse by add. Views of the row see the job added to it next.
+     *
+     * @param row the row
+     */
+    public void release(int row) {
+        if (freeCount == free.length) free = Arrays.copyOf(free, Math.max(16, 2 * freeCount));
+        free[freeCount++] = row;
+    }
+
+    //number of rows used so far; every row below it holds a job unless it was released
+    public int size() {
+        return n;
+    }
+
+    //marks the job as not run yet
+    public void reset(int row) {
+        remaining[row] = processing[row];
+        start[row] = -1;
+        end[row] = -1;
+    }
+
+    /**
+     * Returns a view of a row: a Job whose getters and setters read and write the table.
+     *
+     * @param row the row
+     * @return a new view of the row
+     */
+    public Job job(int row) {
+        Job j = new Job(0, 0, 0);
+        j.attach(this, row);
+        return j;
+    }
+
+    /**
+     * Returns the rows in order of arrival time, ties in order of id, or null if the rows already are in that order
+     * (as when the table is filled from a trace), so no extra space is used for them. Merge sort, stable and O(n log n).
+     *
+     * @return the rows in order of arrival, or null for 0, 1, ..., size() - 1
+     */
+    public int[] arrivalOrder() {
+        boolean sorted = true;
+        for (int i = 1; i < n && sorted; i++)
+            sorted = !arrivesBefore(i, i - 1);
+        if (sorted) return null;
+        int[] rows = new int[n];
+        for (int i = 0; i < n; i++) rows[i] = i;
+        int[] aux = new int[n];
+        for (int width = 1; width < n; width *= 2) {
+            for (int lo = 0; lo < n - width; lo += 2 * width)
+                merge(rows, aux, lo, lo + width, Math.min(lo + 2 * width, n));
+        }
+        return rows;
+    }
+
+    //merges rows[lo..mid) and rows[mid..hi)
+    private void merge(int[] rows, int[] aux, int lo, int mid, int hi) {
+        System.arraycopy(rows, lo, aux, lo, hi - lo);
+        int i = lo, j = mid;
+        for (int k = lo; k < hi; k++) {
+            if      (i >= mid)                      rows[k] = aux[j++];
+            else if (j >= hi)                       rows[k] = aux[i++];
+            else if (arrivesBefore(aux[j], aux[i])) rows[k] = aux[j++];
+            else                                    rows[k] = aux[i++];
+        }
+    }
+
+    //true if job a arrives before job b, by arrival time and then id
+    private boolean arrivesBefore(int a, int b) {
+        if (arrival[a] != arrival[b]) return arrival[a] < arrival[b];
+        return id[a] < id[b];
+    }
+
+    private void resize(int capacity) {
+        id = Arrays.copyOf(id, capacity);
+        arrival = Arrays.copyOf(arrival, capacity);
+        processing = Arrays.copyOf(processing, capacity);
+        remaining = Arrays.copyOf(remaining, capacity);
+        start = Arrays.copyOf(start, capacity);
+        end = Arrays.copyOf(end, capacity);
+    }
+
+
+    /**
+     * Getters and setters for each column
+     */
+    public int id(int row) {
+        return id[row];
+    }
+
+    public void setId(int row, int id) {
+        this.id[row] = id;
+    }
+
+    public int arrival(int row) {
+        return arrival[row];
+    }
+
+    public void setArrival(int row, int arrivalTime) {
+        arrival[row] = arrivalTime;
+    }
+
+    public int processing(int row) {
+        return processing[row];
+    }
+
+    public void setProcessing(int row, int processingTime) {
+        processing[row] = processingTime;
+    }
+
+    public int remaining(int row) {
+        return remaining[row];
+    }
+
+    public void setRemaining(int row, int remainingTime) {
+        remaining[row] = remainingTime;
+    }
+
+    public int start(int row) {
+        return start[row];
+    }
+
+    public void setStart(int row, int startTime) {
+        start[row] = startTime;
+    }
+
+    public int end(int row) {
+        return end[row];
+    }
+
+    public void setEnd(int row, int endTime) {
+        end[row] = endTime;
+    }
+
+    public boolean isCompleted(int row) {
+        return end[row] >= 0;
+    }
+
+    //time from arrival to end, 0 until the job has finished
+    public int tat(int row) {
+        return end[row] < 0 ? 0 : end[row] - arrival[row];
+    }
+
+    //TAT less processing time, 0 until the job has finished
+    public int waitingTime(int row) {
+        return end[row] < 0 ? 0 : end[row] - arrival[row] - processing[row];
+    }
+
+
+    /**
+     * A double-ended queue of rows in a circular int array, for FIFO and round robin ready queues: no object per
+     * waiting job, and get(i) lets a scheduler look through the queue in order.
+     */
+    public static class RowDeque {
+        private int[] rows = new int[16];
+        private int head;           // position of the first row
+        private int size;
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public void clear() {
+            head = 0;
+            size = 0;
+        }
+
+        public void addLast(int row) {
+            if (size == rows.length) {
+                int[] copy = new int[2 * size];
+                for (int i = 0; i < size; i++) copy[i] = get(i);
+                rows = copy;
+                head = 0;
+            }
+            rows[(head + size++) & (rows.length - 1)] = row;
+        }
+
+        public int pollFirst() {
+            if (size == 0) throw new NoSuchElementException("Queue underflow");
+            int row = rows[head];
+            head = (head + 1) & (rows.length - 1);
+            size--;
+            return row;
+        }
+
+        public int pollLast() {
+            if (size == 0) throw new NoSuchElementException("Queue underflow");
+            return rows[(head + --size) & (rows.length - 1)];
+        }
+
+        //i-th row from the front
+        public int get(int i) {
+            return rows[(head + i) & (rows.length - 1)];
+        }
+    }
+}
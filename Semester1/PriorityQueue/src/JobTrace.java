@@ -0,0 +1,341 @@
+/*  Job trace files for replaying long workloads through the schedulers without holding them in memory
+ *  A trace is a sequence of jobs (id, arrival time, processing time) in order of arrival time, stored either as text
+ *  or in a compact binary form:
+ *  1. CSV: one job per line as "id,arrival,processing". Blank lines, lines starting with '#' and a header line that
+ *     does not start with a number are skipped
+ *  2. Binary: the 4 bytes "JOBT" followed by 12 bytes per job (id, arrival, processing as big-endian ints)
+ *  A Reader returns the jobs one at a time, reading ahead only as much as its buffer holds, so it can be passed
+ *  straight to JobSchedulerModel.computeSchedule(trace, output). An Output writes the finished jobs to a stream as
+ *  CSV lines "id,arrival,processing,start,end,wait,tat" and keeps only running totals for the averages.
+ *  Running it writes a binary trace of 5M jobs (or the number given as the first argument) and replays it with FIFO,
+ *  SJF, RR, SRTF and MLFQ; with -Xmx32m it still completes, as only the jobs in the system are on the heap.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.Consumer;
+
+public class JobTrace {
+
+    private static final int MAGIC = 0x4A4F4254;     // "JOBT"
+
+    private JobTrace() { }
+
+    /**
+     * Opens a CSV trace.
+     *
+     * @param file the trace file
+     * @return a Reader returning the jobs of the trace in file order
+     * @throws IOException if the file cannot be opened
+     */
+    public static Reader readCsv(Path file) throws IOException {
+        return new CsvReader(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Opens a binary trace.
+     *
+     * @param file the trace file
+     * @return a Reader returning the jobs of the trace in file order
+     * @throws IOException if the file cannot be opened or does not start with "JOBT"
+     */
+    public static Reader readBinary(Path file) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+        try {
+            if (in.readInt() != MAGIC) throw new IOException("Not a binary job trace: " + file);
+        }
+        catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return new BinaryReader(in);
+    }
+
+    /**
+     * Writes jobs to a CSV trace, with a header line.
+     *
+     * @param file the trace file, replaced if it exists
+     * @param jobs jobs in order of arrival time
+     * @return the number of jobs written
+     * @throws IOException if the file cannot be written
+     */
+    public static long writeCsv(Path file, Iterator<Job> jobs) throws IOException {
+        long n = 0;
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("id,arrival,processing\n");
+            while (jobs.hasNext()) {
+                Job j = jobs.next();
+                out.write(j.getId() + "," + j.getArrivalTime() + "," + j.getProcessingTime() + "\n");
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Writes jobs to a binary trace.
+     *
+     * @param file the trace file, replaced if it exists
+     * @param jobs jobs in order of arrival time
+     * @return the number of jobs written
+     * @throws IOException if the file cannot be written
+     */
+    public static long writeBinary(Path file, Iterator<Job> jobs) throws IOException {
+        long n = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            while (jobs.hasNext()) {
+                Job j = jobs.next();
+                out.writeInt(j.getId());
+                out.writeInt(j.getArrivalTime());
+                out.writeInt(j.getProcessingTime());
+                n++;
+            }
+        }
+        return n;
+    }
+
+
+    /***************************************************************************
+     * Readers
+     ***************************************************************************/
+
+    /**
+     * The jobs of a trace file, read one at a time. Read errors are thrown as UncheckedIOException and malformed
+     * records as IllegalArgumentException. Closing it closes the file.
+     */
+    public static abstract class Reader implements Iterator<Job>, Closeable {
+        private Job next;           // job read ahead by hasNext, null if none
+        private boolean done;       // end of the trace reached
+
+        //reads the next job, or returns null at the end of the trace
+        abstract Job read() throws IOException;
+
+        public boolean hasNext() {
+            if (next == null && !done) {
+                try {
+                    next = read();
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                done = next == null;
+            }
+            return next != null;
+        }
+
+        public Job next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Job j = next;
+            next = null;
+            return j;
+        }
+    }
+
+    private static class CsvReader extends Reader {
+        private final BufferedReader in;
+        private long line;
+
+        CsvReader(BufferedReader in) {
+            this.in = in;
+        }
+
+        Job read() throws IOException {
+            String s;
+            while ((s = in.readLine()) != null) {
+                line++;
+                s = s.trim();
+                if (s.isEmpty() || s.charAt(0) == '#') continue;
+                if (line == 1 && !Character.isDigit(s.charAt(0)) && s.charAt(0) != '-') continue;   // header
+                String[] f = s.split(",");
+                if (f.length != 3) throw new IllegalArgumentException("Line " + line + ": expected id,arrival,processing: " + s);
+                try {
+                    return new Job(Integer.parseInt(f[0].trim()), Integer.parseInt(f[1].trim()), Integer.parseInt(f[2].trim()));
+                }
+                catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Line " + line + ": " + e.getMessage());
+                }
+            }
+            return null;
+        }
+
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private static class BinaryReader extends Reader {
+        private final DataInputStream in;
+
+        BinaryReader(DataInputStream in) {
+            this.in = in;
+        }
+
+        Job read() throws IOException {
+            int id;
+            try {
+                id = in.readInt();
+            }
+            catch (EOFException e) {
+                return null;
+            }
+            //a record cut short is an error, not the end of the trace
+            return new Job(id, in.readInt(), in.readInt());
+        }
+
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+
+    /***************************************************************************
+     * Output
+     ***************************************************************************/
+
+    /**
+     * Writes each finished job it is given to a stream as a CSV line "id,arrival,processing,start,end,wait,tat" (after
+     * a header line) and keeps the number of jobs and the totals for the averages. Write errors are thrown as
+     * UncheckedIOException. Closing it flushes and closes the stream.
+     */
+    public static class Output implements Consumer<Job>, Closeable {
+        private final Writer out;
+        private long count;
+        private long totalWaitTime;
+        private long totalTAT;
+        private int maxWaitTime;
+        private int lastEndTime;
+
+        /**
+         * @param out stream the finished jobs are written to
+         */
+        public Output(OutputStream out) {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+            try {
+                this.out.write("id,arrival,processing,start,end,wait,tat\n");
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public void accept(Job j) {
+            try {
+                out.write(j.getId() + "," + j.getArrivalTime() + "," + j.getProcessingTime() + "," + j.getStartTime()
+                        + "," + j.getEndTime() + "," + j.getWaitingTime() + "," + j.getTAT() + "\n");
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count++;
+            totalWaitTime += j.getWaitingTime();
+            totalTAT += j.getTAT();
+            maxWaitTime = Math.max(maxWaitTime, j.getWaitingTime());
+            lastEndTime = Math.max(lastEndTime, j.getEndTime());
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public double averageWaitingTime() {
+            return count == 0 ? 0 : totalWaitTime * 1.0 / count;
+        }
+
+        public double averageTAT() {
+            return count == 0 ? 0 : totalTAT * 1.0 / count;
+        }
+
+        public int maxWaitingTime() {
+            return maxWaitTime;
+        }
+
+        //end time of the last job to finish
+        public int lastEndTime() {
+            return lastEndTime;
+        }
+
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+
+    //Jobs with random gaps between arrivals (0 to 199) and processing times (1 to 190), generated as they are read
+    private static Iterator<Job> randomJobs(int n, long seed) {
+        Random random = new Random(seed);
+        return new Iterator<Job>() {
+            private int id;
+            private int arrival;
+
+            public boolean hasNext() {
+                return id < n;
+            }
+
+            public Job next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                arrival += random.nextInt(200);
+                return new Job(++id, arrival, 1 + random.nextInt(190));
+            }
+        };
+    }
+
+    /**
+     * Writes a binary trace of random jobs to a temporary file and replays it with FIFO, SJF, RR, SRTF and MLFQ,
+     * writing the finished jobs to another temporary file.
+     *
+     * @param args number of jobs (default 5M)
+     * @throws IOException if the temporary files cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        Path trace = Files.createTempFile("jobs", ".trace");
+        Path finished = Files.createTempFile("finished", ".csv");
+        try {
+            long start = System.nanoTime();
+            writeBinary(trace, randomJobs(n, 42));
+            System.out.printf("Wrote %,d jobs to %s (%,d bytes) in %.1f s%n", n, trace, Files.size(trace), (System.nanoTime() - start) / 1e9);
+
+            //the schedulers never see a job list: the jobs come from the trace
+            JobSchedulerModel[] schedulers = {
+                    new FIFO(new ArrayList<Job>()), new SJF(new ArrayList<Job>()), new RoundRobin(new ArrayList<Job>(), 20),
+                    new SRTF(new ArrayList<Job>()), new MLFQ(new ArrayList<Job>(), new int[]{10, 20, 40}, 1000) };
+            String[] names = { "FIFO", "SJF", "RR (slice 20)", "SRTF", "MLFQ" };
+            System.out.printf("%-14s %12s %14s %14s %14s %10s%n", "Scheduler", "Jobs", "Avg wait", "Avg TAT", "Max wait", "Seconds");
+            for (int s = 0; s < schedulers.length; s++) {
+                start = System.nanoTime();
+                Output output;
+                try (Reader jobs = readBinary(trace); Output out = new Output(Files.newOutputStream(finished))) {
+                    schedulers[s].computeSchedule(jobs, out);
+                    output = out;
+                }
+                System.out.printf("%-14s %,12d %14.2f %14.2f %,14d %10.1f%n", names[s], output.count(), output.averageWaitingTime(),
+                        output.averageTAT(), output.maxWaitingTime(), (System.nanoTime() - start) / 1e9);
+            }
+            Runtime rt = Runtime.getRuntime();
+            System.out.printf("Max heap %,d MB, finished jobs written to %s (%,d bytes)%n", rt.maxMemory() >> 20, finished, Files.size(finished));
+        }
+        finally {
+            Files.deleteIfExists(trace);
+            Files.deleteIfExists(finished);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*  Multi-level feedback queue (MLFQ) scheduler
+ *  Jobs are kept on levels 0 (highest priority) to L-1, each with its own time slice (quanta[level]):
+ *  1. A job with a higher priority level always runs before one with a lower level; jobs on the same level are served
+ *     round robin in the order they joined it
+ *  2. An arriving job enters level 0 and preempts a running job from a lower level
+ *  3. A job that uses its whole time slice moves down one level (it stays on the last level); a job preempted by an
+ *     arrival keeps its level
+ *  4. Every boostInterval time units all jobs are moved back to level 0, so long jobs are not starved (0 turns this
+ *     off)
+ *  The ready queue is a single indexed min heap (IndexMinPQ_dAry) of job rows, keyed by (level, order of joining), so
+ *  picking the next job, checking an arrival for preemption and boosting a job take O(log n). A boost only touches the
+ *  jobs demoted since the last one, and is applied lazily when the scheduler next makes a decision, so idle periods
+ *  cost nothing.
+ *  The schedule is computed by the event-driven core in JobSchedulerModel.simulate().
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class MLFQ extends JobSchedulerModel {
+
+    private final int[] quanta;             // time slice of each level; NO_PREEMPTION allowed for the last level
+    private final int boostInterval;        // time between priority boosts, 0 for none
+
+    private IndexMinPQ_dAry<Long> readyQueue;   // rows of jobs keyed by (level, order of joining)
+    private int[] level;                        // level of each job
+    private long joined;                        // counter giving the order in which jobs joined their level
+    private JobTable.RowDeque demoted;          // jobs moved below level 0 since the last boost, once each; only
+    private boolean[] onDemoted;                // kept when there are boosts
+    private int nextBoost;                      // time of the next boost
+    private int boosts;                         // number of boosts so far
+    private int dispatched;                     // the job most recently given the processor, -1 if none
+    private int dispatchedAt;                   // when it was given the processor
+    private int dispatchedBoosts;               // boosts at that time
+
+    /**
+     * @param jobList input list of jobs in order of their ids
+     * @param quanta time slice of each level, from the highest priority level down
+     * @param boostInterval time between moving all jobs back to level 0, or 0 for no boosts
+     */
+    public MLFQ(ArrayList<Job> jobList, int[] quanta, int boostInterval) {
+        super(jobList);
+        this.quanta = checkedQuanta(quanta, boostInterval);
+        this.boostInterval = boostInterval;
+        myQTpye = "MLFQ";
+    }
+
+    /**
+     * @param jobs input jobs, one per row
+     * @param quanta time slice of each level, from the highest priority level down
+     * @param boostInterval time between moving all jobs back to level 0, or 0 for no boosts
+     */
+    public MLFQ(JobTable jobs, int[] quanta, int boostInterval) {
+        super(jobs);
+        this.quanta = checkedQuanta(quanta, boostInterval);
+        this.boostInterval = boostInterval;
+        myQTpye = "MLFQ";
+    }
+
+    //a copy of quanta, after checking it and boostInterval
+    private static int[] checkedQuanta(int[] quanta, int boostInterval) {
+        if (quanta.length == 0) throw new IllegalArgumentException("At least one level is needed");
+        for (int q : quanta)
+            if (q < 1) throw new IllegalArgumentException("Time slices must be positive: " + q);
+        if (boostInterval < 0) throw new IllegalArgumentException("Boost interval must not be negative: " + boostInterval);
+        return quanta.clone();
+    }
+
+    public void computeSchedule() {
+        simulate();
+    }
+
+    protected void resetReadyQueue() {
+        int n = jobs.size();
+        readyQueue = new IndexMinPQ_dAry<Long>(n);
+        level = new int[n];
+        joined = 0;
+        demoted = new JobTable.RowDeque();
+        onDemoted = new boolean[n];
+        nextBoost = boostInterval;
+        boosts = 0;
+        dispatched = -1;
+    }
+
+    protected void addReady(int i) {
+        boostIfDue();
+        //rows grow with the table, and are reused in streaming mode
+        if (i >= level.length) {
+            level = Arrays.copyOf(level, Math.max(i + 1, 2 * level.length));
+            onDemoted = Arrays.copyOf(onDemoted, level.length);
+        }
+        readyQueue.ensureCapacity(level.length);
+        //a job that has not started yet is a new arrival, even in the row of the job dispatched last
+        if (i == dispatched && jobs.start(i) >= 0) {
+            dispatched = -1;
+            if (dispatchedBoosts != boosts) level[i] = 0;
+            else if (clock - dispatchedAt >= quanta[level[i]] && level[i] < quanta.length - 1) level[i]++;
+        }
+        else {
+            level[i] = 0;
+        }
+        //a row already on the list is still there for the next boost, which checks its level then
+        if (level[i] > 0 && boostInterval > 0 && !onDemoted[i]) {
+            onDemoted[i] = true;
+            demoted.addLast(i);
+        }
+        readyQueue.insert(i, key(level[i], joined++));
+    }
+
+    protected int nextReady() {
+        boostIfDue();
+        dispatched = readyQueue.delMin();
+        dispatchedAt = clock;
+        dispatchedBoosts = boosts;
+        return dispatched;
+    }
+
+    protected boolean hasReady() {
+        return !readyQueue.isEmpty();
+    }
+
+    protected int quantum() {
+        return quanta[level[dispatched]];
+    }
+
+    //an arriving job (level 0) preempts a running job from a lower level
+    protected boolean preempts(int arrived, int running, int runningLeft) {
+        boostIfDue();
+        return dispatchedBoosts == boosts && level[running] > 0;
+    }
+
+    //moves every waiting job back to level 0, keeping the order in which they joined their levels
+    private void boostIfDue() {
+        if (boostInterval == 0 || clock < nextBoost) return;
+        boosts++;
+        nextBoost = (clock / boostInterval + 1) * boostInterval;
+        while (!demoted.isEmpty()) {
+            int i = demoted.pollFirst();
+            onDemoted[i] = false;
+            if (level[i] == 0 || !readyQueue.contains(i)) continue;
+            level[i] = 0;
+            readyQueue.changeKey(i, key(0, readyQueue.keyOf(i) & ((1L << 48) - 1)));
+        }
+    }
+
+    //level in the top 16 bits, order of joining below
+    private static long key(int level, long joined) {
+        return ((long) level << 48) | joined;
+    }
+}
@@ -4,6 +4,8 @@
  * @author: Vishak Srikanth
  * @version: 11/01/2021
  */
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
@@ -127,6 +129,84 @@ public class MinPQ<Key> implements Iterable<Key> {
         assert isMinHeap();
     }
 
+    /**
+     * Adds all the keys of the array to this priority queue.
+     * <p>
+     * The array is resized at most once. When the batch is large compared to the priority queue
+     * (k lg(n+k) > n+k for k new keys) the keys are appended and the whole heap is rebuilt with
+     * sink-based heap construction in O(n + k) time; otherwise each key is swum up as in insert().
+     *
+     * @param  keys the keys to add to this priority queue
+     */
+    public void insertAll(Key[] keys) {
+        int k = keys.length;
+        ensureCapacity(n + k);
+        if (rebuildFor(k)) {
+            System.arraycopy(keys, 0, pq, n + 1, k);
+            n += k;
+            heapify();
+        }
+        else {
+            for (Key x : keys) {
+                pq[++n] = x;
+                swim(n);
+            }
+        }
+        assert isMinHeap();
+    }
+
+    /**
+     * Adds all the keys of the collection to this priority queue, as insertAll(Key[]) does.
+     *
+     * @param  keys the keys to add to this priority queue
+     */
+    public void insertAll(Collection<? extends Key> keys) {
+        int k = keys.size();
+        ensureCapacity(n + k);
+        boolean rebuild = rebuildFor(k);
+        for (Key x : keys) {
+            pq[++n] = x;
+            if (!rebuild) swim(n);
+        }
+        if (rebuild) heapify();
+        assert isMinHeap();
+    }
+
+    /**
+     * Adds all the keys of another priority queue to this one, leaving the other unchanged.
+     * Both priority queues should use the same order.
+     *
+     * @param  other the priority queue whose keys to add
+     */
+    public void meld(MinPQ<Key> other) {
+        if (other == this) throw new IllegalArgumentException("Cannot meld a priority queue with itself");
+        insertAll(Arrays.copyOfRange(other.pq, 1, other.n + 1));
+    }
+
+    /**
+     * Shrinks the underlying array to the number of keys on this priority queue.
+     */
+    public void trimToSize() {
+        if (pq.length > n + 1) resize(n + 1);
+    }
+
+    // grow the underlying array once so that it can hold capacity keys
+    private void ensureCapacity(int capacity) {
+        if (capacity >= pq.length) resize(Math.max(capacity + 1, 2 * pq.length));
+    }
+
+    // is rebuilding the heap cheaper than k swims? compares k lg(n+k) with n+k
+    private boolean rebuildFor(int k) {
+        long total = (long) n + k;
+        return (long) k * (63 - Long.numberOfLeadingZeros(total | 1)) > total;
+    }
+
+    // sink-based heap construction over pq[1..n]
+    private void heapify() {
+        for (int k = n/2; k >= 1; k--)
+            sink(k);
+    }
+
     /**
      * Removes and returns a smallest key on this priority queue.
      *
@@ -216,8 +296,12 @@ public class MinPQ<Key> implements Iterable<Key> {
 
     /**
      * Returns an iterator that iterates over the keys on this priority queue
-     * in ascending order.
+     * in ascending order, without changing or copying the priority queue.
      * <p>
+     * The iterator keeps a frontier heap of the heap positions whose parents have been returned: the next key is
+     * the smallest key on the frontier, and its two children then join the frontier. Returning the first k keys
+     * takes O(k log k) time and O(k) extra space, so stopping early is cheap. The priority queue must not be
+     * changed while it is being iterated over.
      * The iterator doesn't implement {@code remove()} since it's optional.
      *
      * @return an iterator that iterates over the keys in ascending order
@@ -226,25 +310,72 @@ public class MinPQ<Key> implements Iterable<Key> {
         return new HeapIterator();
     }
 
+    /**
+     * Returns the keys on this priority queue in heap (array) order rather than in sorted order.
+     * Iterating takes linear time and constant extra space.
+     *
+     * @return the keys on this priority queue in no particular order
+     */
+    public Iterable<Key> unordered() {
+        return () -> new Iterator<Key>() {
+            private int i = 1;
+
+            public boolean hasNext()  { return i <= n;                              }
+            public void remove()      { throw new UnsupportedOperationException();  }
+
+            public Key next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return pq[i++];
+            }
+        };
+    }
+
     private class HeapIterator implements Iterator<Key> {
-        // create a new pq
-        private MinPQ<Key> copy;
+        // binary min heap of positions in pq, at indices 1 to size, ordered by the keys at those positions
+        private int[] frontier = new int[8];
+        private int size;
 
-        // add all items to copy of heap
-        // takes linear time since already in heap order so no keys move
         public HeapIterator() {
-            if (comparator == null) copy = new MinPQ<Key>(size());
-            else                    copy = new MinPQ<Key>(size(), comparator);
-            for (int i = 1; i <= n; i++)
-                copy.insert(pq[i]);
+            if (n > 0) frontier[++size] = 1;
         }
 
-        public boolean hasNext()  { return !copy.isEmpty();                     }
+        public boolean hasNext()  { return size > 0;                            }
         public void remove()      { throw new UnsupportedOperationException();  }
 
         public Key next() {
             if (!hasNext()) throw new NoSuchElementException();
-            return copy.delMin();
+            int top = frontier[1];
+            frontier[1] = frontier[size--];
+            sinkFrontier(1);
+            if (2*top <= n)     add(2*top);
+            if (2*top + 1 <= n) add(2*top + 1);
+            return pq[top];
+        }
+
+        private void add(int position) {
+            if (size == frontier.length - 1) frontier = Arrays.copyOf(frontier, 2 * frontier.length);
+            frontier[++size] = position;
+            int k = size;
+            while (k > 1 && greater(frontier[k/2], frontier[k])) {
+                exchFrontier(k, k/2);
+                k = k/2;
+            }
+        }
+
+        private void sinkFrontier(int k) {
+            while (2*k <= size) {
+                int j = 2*k;
+                if (j < size && greater(frontier[j], frontier[j+1])) j++;
+                if (!greater(frontier[k], frontier[j])) break;
+                exchFrontier(k, j);
+                k = j;
+            }
+        }
+
+        private void exchFrontier(int i, int j) {
+            int swap = frontier[i];
+            frontier[i] = frontier[j];
+            frontier[j] = swap;
         }
     }
 
@@ -276,6 +407,19 @@ public class MinPQ<Key> implements Iterable<Key> {
         for (String i : pq) {
             System.out.println(i);
         }
+        System.out.println();
+
+        // load a batch, meld a second queue into it and trim the array
+        MinPQ<String> other = new MinPQ<>();
+        other.insertAll(Arrays.asList("a", "batch", "of", "keys"));
+        pq.meld(other);
+        pq.trimToSize();
+        System.out.println(pq.size() + " keys after meld");
+
+        // print each key in heap order
+        for (String i : pq.unordered()) {
+            System.out.println(i);
+        }
         while (!pq.isEmpty()) {
             pq.delMin();
         }
@@ -0,0 +1,348 @@
+/*  Simulates M processors (cores), each with its own run queue, for FIFO, SJF, RR and priority scheduling
+ *  1. Arriving jobs are placed on the cores' run queues in turn (job k on core k mod M), as a dispatcher without a
+ *     global view of the load would do
+ *  2. Each core serves its own run queue with the chosen policy: FIFO (order of arrival), SJF (shortest processing
+ *     time), RR (time slices, an unfinished job goes to the back of the same core's queue) or PRIORITY (a given order
+ *     of jobs); FIFO, SJF and PRIORITY run each job to completion
+ *  3. With work stealing on, a core that has nothing to run takes a waiting job from the core with the longest run
+ *     queue (from the back of a FIFO/RR queue, the next job of an SJF/PRIORITY queue), so no core sits idle while
+ *     another has jobs waiting
+ *  Like JobSchedulerModel.simulate() it is event-driven: an indexed min heap over the cores holds the time at which
+ *  each busy core's current run ends, and the clock jumps to the earlier of that and the next arrival. Each job costs
+ *  O(log M + log q) for q jobs on a run queue, plus the same again for every RR slice, independent of the time scale.
+ *  Per-core busy time, completed jobs and utilisation (busy time / makespan) are reported by printCoreStats, and the
+ *  usual finished-job statistics by printFinishedSchedule (or printSummary for large runs).
+ *  Like the single-core schedulers it works on the rows of a JobTable, so the run queues hold ints, not Job objects.
+ *  Its loop replaces JobSchedulerModel.run() and takes the jobs from nextArrival(), so computeSchedule(trace, output)
+ *  replays a stream of jobs on the cores as well.
+ */
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+public class MultiCoreScheduler extends JobSchedulerModel {
+
+    /**
+     * How each core picks the next job from its run queue
+     */
+    public enum Policy { FIFO, SJF, RR, PRIORITY }
+
+    private final int cores;
+    private final Policy policy;
+    private final int timeSlice;                    // RR only
+    private final Comparator<Job> priorityOrder;    // PRIORITY only
+    private final boolean workStealing;
+
+    //run queues of rows: deques for FIFO and RR, heaps for SJF and PRIORITY (in the order given by order)
+    private Comparator<Integer> order;
+    private JobTable.RowDeque[] deques;
+    private MinPQ<Integer>[] heaps;
+    private IndexMinPQ_dAry<Long> runEnds;          // busy cores keyed by (end of current run, core)
+    private IndexMinPQ_dAry<Long> longestQueue;     // all cores keyed by (-queue length, core), for work stealing
+    private int[] running;                          // row of the job running on each core, -1 if none
+    private int[] runLength;
+    private boolean[] idle;
+    private ArrayDeque<Integer> idleCores;          // may hold cores that are no longer idle; idle[] decides
+    private long[] busyTime;
+    private int[] completed;
+    private int makespan;
+
+    /**
+     * @param jobList input list of jobs
+     * @param cores number of processors
+     * @param policy FIFO, SJF or RR (with a time slice of 20); PRIORITY needs the other constructor
+     * @param workStealing true to let idle cores take waiting jobs from other cores
+     */
+    public MultiCoreScheduler(ArrayList<Job> jobList, int cores, Policy policy, boolean workStealing) {
+        this(jobList, cores, policy, 20, null, workStealing);
+    }
+
+    /**
+     * @param jobList input list of jobs
+     * @param cores number of processors
+     * @param policy scheduling policy of each core
+     * @param timeSlice time slice for RR
+     * @param priorityOrder order of jobs for PRIORITY, highest priority first; ignored by the other policies
+     * @param workStealing true to let idle cores take waiting jobs from other cores
+     */
+    public MultiCoreScheduler(ArrayList<Job> jobList, int cores, Policy policy, int timeSlice,
+                              Comparator<Job> priorityOrder, boolean workStealing) {
+        super(jobList);
+        this.cores = cores;
+        this.policy = policy;
+        this.timeSlice = policy == Policy.RR ? timeSlice : NO_PREEMPTION;
+        this.priorityOrder = priorityOrder;
+        this.workStealing = workStealing;
+        check();
+    }
+
+    /**
+     * @param jobs input jobs, one per row
+     * @param cores number of processors
+     * @param policy scheduling policy of each core
+     * @param timeSlice time slice for RR
+     * @param priorityOrder order of jobs for PRIORITY, highest priority first; ignored by the other policies
+     * @param workStealing true to let idle cores take waiting jobs from other cores
+     */
+    public MultiCoreScheduler(JobTable jobs, int cores, Policy policy, int timeSlice,
+                              Comparator<Job> priorityOrder, boolean workStealing) {
+        super(jobs);
+        this.cores = cores;
+        this.policy = policy;
+        this.timeSlice = policy == Policy.RR ? timeSlice : NO_PREEMPTION;
+        this.priorityOrder = priorityOrder;
+        this.workStealing = workStealing;
+        check();
+    }
+
+    //checks the arguments of the constructors, and sets up the per-core counters so the metrics read 0 until a
+    //schedule has been computed
+    private void check() {
+        if (cores < 1) throw new IllegalArgumentException("Number of cores must be positive: " + cores);
+        if (policy == Policy.RR && timeSlice < 1) throw new IllegalArgumentException("Time slice must be positive: " + timeSlice);
+        if (policy == Policy.PRIORITY && priorityOrder == null) throw new IllegalArgumentException("PRIORITY needs a priority order");
+        myQTpye = cores + "-CORE " + policy + (workStealing ? " WITH WORK STEALING" : "");
+        busyTime = new long[cores];
+        completed = new int[cores];
+    }
+
+    public void computeSchedule() {
+        simulate();
+    }
+
+    //the simulation, for a job list or table and for a stream of jobs
+    protected void run() {
+        clock = 0;
+        if (policy == Policy.SJF) {
+            order = (a, b) -> jobs.processing(a) != jobs.processing(b)
+                    ? Integer.compare(jobs.processing(a), jobs.processing(b)) : arrivesFirst(a, b);
+        }
+        else if (policy == Policy.PRIORITY) {
+            //the priority order compares Jobs, so two views are moved to the rows being compared
+            Job x = jobs.job(0), y = jobs.job(0);
+            order = (a, b) -> {
+                x.attach(jobs, a);
+                y.attach(jobs, b);
+                int cmp = priorityOrder.compare(x, y);
+                return cmp != 0 ? cmp : arrivesFirst(a, b);
+            };
+        }
+        else {
+            order = null;
+        }
+        deques = new JobTable.RowDeque[cores];
+        heaps = (MinPQ<Integer>[]) new MinPQ[cores];
+        for (int c = 0; c < cores; c++) {
+            if (order == null) deques[c] = new JobTable.RowDeque();
+            else               heaps[c] = new MinPQ<Integer>(order);
+        }
+        runEnds = new IndexMinPQ_dAry<Long>(cores);
+        longestQueue = new IndexMinPQ_dAry<Long>(cores);
+        if (workStealing)
+            for (int c = 0; c < cores; c++) longestQueue.insert(c, queueKey(c));
+        running = new int[cores];
+        Arrays.fill(running, -1);
+        runLength = new int[cores];
+        idle = new boolean[cores];
+        idleCores = new ArrayDeque<Integer>();
+        for (int c = 0; c < cores; c++) {
+            idle[c] = true;
+            idleCores.add(c);
+        }
+        busyTime = new long[cores];
+        completed = new int[cores];
+        makespan = 0;
+
+        //cores to dispatch once every event at the current time has been handled
+        int[] pending = new int[cores];
+        boolean[] isPending = new boolean[cores];
+        int pendingCount = 0;
+        int next = nextArrival();           // row of the next job to arrive, -1 if none
+        long arrivals = 0;
+        while (next >= 0 || !runEnds.isEmpty()) {
+            long nextEnd = runEnds.isEmpty() ? Long.MAX_VALUE : runEnds.minKey() / cores;
+            int c;
+            //at equal times arrivals come first, as in JobSchedulerModel.simulate()
+            if (next >= 0 && jobs.arrival(next) <= nextEnd) {
+                int j = next;
+                c = (int) (arrivals++ % cores);
+                clock = jobs.arrival(j);
+                next = nextArrival();
+                enqueue(c, j);
+                if (!idle[c]) c = -1;
+            }
+            else {
+                c = runEnds.delMin();
+                clock = (int) nextEnd;
+                int j = running[c];
+                running[c] = -1;
+                jobs.setRemaining(j, jobs.remaining(j) - runLength[c]);
+                if (jobs.remaining(j) == 0) {
+                    complete(j);
+                    completed[c]++;
+                    makespan = clock;
+                }
+                else {
+                    enqueue(c, j);          // end of an RR slice: back of its own core's queue
+                }
+            }
+            if (c >= 0 && !isPending[c]) {
+                isPending[c] = true;
+                pending[pendingCount++] = c;
+            }
+
+            //dispatch once every event at this time has been handled
+            boolean moreNow = (next >= 0 && jobs.arrival(next) == clock)
+                    || (!runEnds.isEmpty() && runEnds.minKey() / cores == clock);
+            if (moreNow) continue;
+            for (int i = 0; i < pendingCount; i++) {
+                isPending[pending[i]] = false;
+                dispatch(pending[i]);
+            }
+            pendingCount = 0;
+            if (workStealing) balance();
+        }
+    }
+
+    //compares two rows by arrival time, then id
+    private int arrivesFirst(int a, int b) {
+        if (jobs.arrival(a) != jobs.arrival(b)) return Integer.compare(jobs.arrival(a), jobs.arrival(b));
+        return Integer.compare(jobs.id(a), jobs.id(b));
+    }
+
+    //starts the next job of core c, stealing one if its queue is empty and stealing is on; otherwise c goes idle
+    private void dispatch(int c) {
+        int j = queueSize(c) > 0 ? poll(c) : (workStealing ? steal() : -1);
+        if (j < 0) {
+            if (!idle[c]) {
+                idle[c] = true;
+                idleCores.add(c);
+            }
+            return;
+        }
+        idle[c] = false;
+        if (jobs.start(j) < 0) jobs.setStart(j, clock);
+        int run = Math.min(timeSlice, jobs.remaining(j));
+        running[c] = j;
+        runLength[c] = run;
+        busyTime[c] += run;
+        runEnds.insert(c, (long) (clock + run) * cores + c);
+    }
+
+    //lets idle cores steal waiting jobs until no core is idle or no job is waiting
+    private void balance() {
+        while (!idleCores.isEmpty() && queueSize(longestQueue.minIndex()) > 0) {
+            int c = idleCores.poll();
+            if (idle[c]) dispatch(c);
+        }
+    }
+
+    //takes a waiting job from the core with the longest run queue, or returns -1 if no job is waiting
+    private int steal() {
+        int victim = longestQueue.minIndex();
+        if (queueSize(victim) == 0) return -1;
+        int j = order == null ? deques[victim].pollLast() : heaps[victim].delMin();
+        longestQueue.changeKey(victim, queueKey(victim));
+        return j;
+    }
+
+    /***************************************************************************
+     * Run queue helpers
+     ***************************************************************************/
+    private void enqueue(int c, int j) {
+        if (order == null) deques[c].addLast(j);
+        else               heaps[c].insert(j);
+        if (workStealing) longestQueue.changeKey(c, queueKey(c));
+    }
+
+    private int poll(int c) {
+        int j = order == null ? deques[c].pollFirst() : heaps[c].delMin();
+        if (workStealing) longestQueue.changeKey(c, queueKey(c));
+        return j;
+    }
+
+    private int queueSize(int c) {
+        return order == null ? deques[c].size() : heaps[c].size();
+    }
+
+    //longest queue first, ties by core number
+    private long queueKey(int c) {
+        return -(long) queueSize(c) * cores + c;
+    }
+
+    /***************************************************************************
+     * Metrics
+     ***************************************************************************/
+
+    //time at which the last job finished
+    public int getMakespan() {
+        return makespan;
+    }
+
+    //fraction of the makespan that core c spent running jobs
+    public double getUtilisation(int c) {
+        return makespan == 0 ? 0 : busyTime[c] * 1.0 / makespan;
+    }
+
+    /**
+     * prints busy time, completed jobs and utilisation for each core, and the makespan
+     */
+    public void printCoreStats() {
+        System.out.println("************ " + myQTpye + " CORE UTILISATION ************");
+        System.out.println("---------------------------------------------------------");
+        System.out.println("\t    Core | \t Busy Time  |\t Jobs Done  |\t Utilisation |");
+        System.out.println("---------------------------------------------------------");
+        double total = 0;
+        for (int c = 0; c < cores; c++) {
+            total += getUtilisation(c);
+            System.out.printf("%10d \t | %10d \t | %10d \t | %10.2f%% \t |%n", c, busyTime[c], completed[c], 100 * getUtilisation(c));
+        }
+        System.out.println("---------------------------------------------------------");
+        System.out.printf("\t Makespan: %d \t Average Utilisation: %.2f%%%n", makespan, 100 * total / cores);
+    }
+
+    /**
+     * prints the average waiting time and TAT without a line per job
+     */
+    public void printSummary() {
+        long done = 0;
+        for (int c = 0; c < cores; c++) done += completed[c];
+        System.out.printf("%s: %d jobs, Average Waiting Time: %.2f, Average TAT: %.2f, Makespan: %d%n", myQTpye,
+                done, getAverageWaitingTime(), getAverageTAT(), makespan);
+    }
+
+    /**
+     * Simulates n jobs (default 10M) on 128 cores with each policy, with and without work stealing.
+     * Jobs arrive on average once per time unit and take 1 to 250 units, so 128 cores are about 98% loaded.
+     * The jobs are kept in a JobTable, with no Job object per job.
+     * args: number of jobs, number of cores
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+        int cores = args.length > 1 ? Integer.parseInt(args[1]) : 128;
+        JobTable jobs = new JobTable(n);
+        Random random = new Random(42);
+        int arrival = 0;
+        for (int i = 0; i < n; i++) {
+            arrival += random.nextInt(3);
+            jobs.add(i + 1, arrival, 1 + random.nextInt(250));
+        }
+        //PRIORITY example: jobs of up to 100 time units before longer ones
+        Comparator<Job> shortFirst = Comparator.comparingInt(j -> j.getProcessingTime() <= 100 ? 0 : 1);
+        for (Policy policy : Policy.values()) {
+            for (boolean stealing : new boolean[]{false, true}) {
+                MultiCoreScheduler scheduler = new MultiCoreScheduler(jobs, cores, policy, 20, shortFirst, stealing);
+                long start = System.nanoTime();
+                scheduler.computeSchedule();
+                long elapsed = (System.nanoTime() - start) / 1000000;
+                double total = 0;
+                for (int c = 0; c < cores; c++) total += scheduler.getUtilisation(c);
+                System.out.printf("%-45s %6d ms  utilisation %.1f%%  ", scheduler.getMyQTpye(), elapsed, 100 * total / cores);
+                scheduler.printSummary();
+            }
+        }
+    }
+}
@@ -0,0 +1,447 @@
+/*  Minimum priority queue of (long priority, long payload) pairs kept outside the Java heap
+ *  MinPQ keeps its keys in a Key[] on the Java heap and doubles the array when it fills up, so a queue of hundreds
+ *  of millions of entries means one object per entry for the garbage collector to trace and a copy of the whole
+ *  array (with both copies live) every time it grows. This queue stores each entry as 16 bytes in fixed-size
+ *  chunks of direct or memory-mapped memory:
+ *    - growing adds one more chunk, nothing is ever copied or reallocated
+ *    - the Java heap only holds the array of chunk references, so the GC has almost nothing to trace
+ *    - with a file, the chunks are mapped from the file and the heap survives a restart: open(file) maps the chunks
+ *      again and carries on from where the queue was, without rebuilding it
+ *  It is the same binary heap as MinPQ (heap position k at slot k, children at 2k and 2k+1) with the entries moved
+ *  into a hole instead of exchanged, so swim and sink write each entry they move once.
+ *
+ *  File layout: a HEADER_BYTES header (magic, version, chunk size, size, clean flag and a journal) followed by the
+ *  chunks, each holding 2^chunkShift slots of (priority, payload) longs in the platform's byte order. The clean flag
+ *  is cleared by the first change after open/flush and set again by flush() and close().
+ *  Before an insert or delMin moves anything it writes a journal to the header: the entry being placed, the size after
+ *  the operation and the hole the entry is heading for, which is updated after every move. If the process is killed in
+ *  the middle of a swim or sink, open(file) finishes it from the recorded hole: every move is repeated the same way, so
+ *  no entry is lost or duplicated. This relies on the writes to the mapping reaching the file in order, which holds
+ *  when the process dies but not when the machine does: after a power failure or OS crash only a file that was not
+ *  changed since its last flush is sure to be intact.
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+public class OffHeapMinPQ implements AutoCloseable {
+
+    private static final long MAGIC = 0x4f4648504d494e51L;     // "OFHPMINQ"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 4096;               // one page, so the chunks stay page aligned
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 8;
+    private static final int CHUNK_SHIFT_OFFSET = 12;
+    private static final int SIZE_OFFSET = 16;
+    private static final int CLEAN_OFFSET = 24;
+    private static final int OP_OFFSET = 28;                    // operation in progress, the journal's commit flag
+    private static final int HOLE_OFFSET = 32;                  // slot the journaled entry is moving through
+    private static final int JOURNAL_SIZE_OFFSET = 40;          // size after the operation
+    private static final int JOURNAL_PRIORITY_OFFSET = 48;      // entry being placed
+    private static final int JOURNAL_PAYLOAD_OFFSET = 56;
+    private static final int OP_NONE = 0;
+    private static final int OP_SWIM = 1;                       // insert
+    private static final int OP_SINK = 2;                       // delMin
+    private static final int ENTRY_BYTES = 16;                  // priority, payload
+    private static final int DEFAULT_CHUNK_SHIFT = 20;          // 1M entries, 16 MB per chunk
+    private static final int MAX_CHUNK_SHIFT = 26;              // 1 GB per chunk, below the 2 GB limit of one mapping
+
+    private final FileChannel channel;      // null for a queue in direct memory
+    private final ByteBuffer header;
+    private final int chunkShift;           // each chunk holds 2^chunkShift slots
+    private final long chunkMask;
+    private ByteBuffer[] chunks = new ByteBuffer[4];
+    private int chunkCount;
+    private long n;                         // number of entries, stored at slots 1 to n
+    private boolean clean;                  // mirrors the clean flag in the header
+    private boolean closed;
+
+    /**
+     * Initializes an empty priority queue in direct (off-heap) memory with the default chunk size.
+     */
+    public OffHeapMinPQ() {
+        this(1 << DEFAULT_CHUNK_SHIFT);
+    }
+
+    /**
+     * Initializes an empty priority queue in direct (off-heap) memory.
+     *
+     * @param chunkEntries the number of entries the queue grows by, a power of 2
+     */
+    public OffHeapMinPQ(int chunkEntries) {
+        channel = null;
+        chunkShift = chunkShift(chunkEntries);
+        chunkMask = (1L << chunkShift) - 1;
+        header = ByteBuffer.allocateDirect(HEADER_BYTES).order(ByteOrder.nativeOrder());
+        writeHeader();
+    }
+
+    //file backed queue: header is the mapped first page of channel
+    private OffHeapMinPQ(FileChannel channel, ByteBuffer header, int chunkShift, long n) {
+        this.channel = channel;
+        this.header = header;
+        this.chunkShift = chunkShift;
+        this.chunkMask = (1L << chunkShift) - 1;
+        this.n = n;
+    }
+
+    /**
+     * Creates an empty priority queue persisted in the given file, replacing the file if it exists.
+     *
+     * @param file the file to keep the queue in
+     * @return an empty priority queue
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public static OffHeapMinPQ create(Path file) throws IOException {
+        return create(file, 1 << DEFAULT_CHUNK_SHIFT);
+    }
+
+    /**
+     * Creates an empty priority queue persisted in the given file, replacing the file if it exists.
+     *
+     * @param file the file to keep the queue in
+     * @param chunkEntries the number of entries the file grows by, a power of 2
+     * @return an empty priority queue
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public static OffHeapMinPQ create(Path file, int chunkEntries) throws IOException {
+        int shift = chunkShift(chunkEntries);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer header = mapHeader(channel);
+        OffHeapMinPQ pq = new OffHeapMinPQ(channel, header, shift, 0);
+        pq.writeHeader();
+        header.force();
+        return pq;
+    }
+
+    /**
+     * Reopens a priority queue persisted with create(file). The entries stay where they are in the file and
+     * the heap is used as it is; an insert or delMin that was interrupted is finished from the journal first.
+     *
+     * @param file a file written by create(file)
+     * @return the priority queue stored in the file
+     * @throws IOException if the file cannot be mapped or is not a priority queue file
+     */
+    public static OffHeapMinPQ open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_BYTES) throw new IOException(file + " is too short to be a priority queue file");
+            MappedByteBuffer header = mapHeader(channel);
+            if (header.getLong(MAGIC_OFFSET) != MAGIC)
+                throw new IOException(file + " is not a priority queue file or was written with a different byte order");
+            if (header.getInt(VERSION_OFFSET) != VERSION)
+                throw new IOException(file + " has unsupported version " + header.getInt(VERSION_OFFSET));
+            int shift = header.getInt(CHUNK_SHIFT_OFFSET);
+            int op = header.getInt(OP_OFFSET);
+            long size = op == OP_NONE ? header.getLong(SIZE_OFFSET) : header.getLong(JOURNAL_SIZE_OFFSET);
+            long hole = header.getLong(HOLE_OFFSET);
+            long slots = (channel.size() - HEADER_BYTES) / ENTRY_BYTES;
+            if (shift < 0 || shift > MAX_CHUNK_SHIFT || size < 0 || (size > 0 && size >= slots)
+                    || op < OP_NONE || op > OP_SINK || (op != OP_NONE && (hole < 1 || hole > size)))
+                throw new IOException(file + " has a corrupt header");
+
+            OffHeapMinPQ pq = new OffHeapMinPQ(channel, header, shift, size);
+            pq.ensureCapacity(size);
+            pq.clean = header.getInt(CLEAN_OFFSET) == 1;
+            if (op != OP_NONE) {
+                //finish the interrupted operation: the moves before the recorded hole are done
+                long priority = header.getLong(JOURNAL_PRIORITY_OFFSET);
+                long payload = header.getLong(JOURNAL_PAYLOAD_OFFSET);
+                if (op == OP_SWIM) pq.swim(hole, priority, payload);
+                else               pq.sink(hole, priority, payload);
+                pq.commit();
+                pq.flush();
+            }
+            return pq;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static MappedByteBuffer mapHeader(FileChannel channel) throws IOException {
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        header.order(ByteOrder.nativeOrder());
+        return header;
+    }
+
+    private static int chunkShift(int chunkEntries) {
+        if (chunkEntries < 1 || Integer.bitCount(chunkEntries) != 1)
+            throw new IllegalArgumentException("Chunk size must be a power of 2: " + chunkEntries);
+        int shift = Integer.numberOfTrailingZeros(chunkEntries);
+        if (shift > MAX_CHUNK_SHIFT) throw new IllegalArgumentException("Chunk size too large: " + chunkEntries);
+        return shift;
+    }
+
+    private void writeHeader() {
+        header.putLong(MAGIC_OFFSET, MAGIC);
+        header.putInt(VERSION_OFFSET, VERSION);
+        header.putInt(CHUNK_SHIFT_OFFSET, chunkShift);
+        header.putLong(SIZE_OFFSET, n);
+        header.putInt(CLEAN_OFFSET, 1);
+        header.putInt(OP_OFFSET, OP_NONE);
+        clean = true;
+    }
+
+    /**
+     * Returns true if this priority queue is empty.
+     *
+     * @return {@code true} if this priority queue is empty;
+     *         {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    /**
+     * Returns the number of entries on this priority queue.
+     *
+     * @return the number of entries on this priority queue
+     */
+    public long size() {
+        return n;
+    }
+
+    /**
+     * Returns a smallest priority on this priority queue.
+     *
+     * @return a smallest priority on this priority queue
+     * @throws NoSuchElementException if this priority queue is empty
+     */
+    public long minPriority() {
+        if (isEmpty()) throw new NoSuchElementException("Priority queue underflow");
+        return priority(1);
+    }
+
+    /**
+     * Returns the payload of an entry with the smallest priority.
+     *
+     * @return the payload stored with minPriority()
+     * @throws NoSuchElementException if this priority queue is empty
+     */
+    public long minPayload() {
+        if (isEmpty()) throw new NoSuchElementException("Priority queue underflow");
+        return payload(1);
+    }
+
+    /**
+     * Adds a new entry to this priority queue.
+     *
+     * @param priority the priority of the entry, smallest first
+     * @param payload the value stored with it
+     */
+    public void insert(long priority, long payload) {
+        modify();
+        ensureCapacity(n + 1);
+        n++;
+        journal(OP_SWIM, n, priority, payload);
+        swim(n, priority, payload);
+        commit();
+    }
+
+    /**
+     * Removes an entry with the smallest priority and returns its payload.
+     * Read minPriority() first if the priority is needed too.
+     *
+     * @return the payload of an entry with the smallest priority
+     * @throws NoSuchElementException if this priority queue is empty
+     */
+    public long delMin() {
+        if (isEmpty()) throw new NoSuchElementException("Priority queue underflow");
+        modify();
+        long min = payload(1);
+        long lastPriority = priority(n);
+        long lastPayload = payload(n);
+        n--;
+        if (n > 0) {
+            journal(OP_SINK, 1, lastPriority, lastPayload);
+            sink(1, lastPriority, lastPayload);
+        }
+        commit();
+        return min;
+    }
+
+    /**
+     * Writes the queue back to its file so that it can be reopened from this state. Does nothing for a queue in
+     * direct memory.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void flush() throws IOException {
+        ensureOpen();
+        if (channel == null) return;
+        for (int c = 0; c < chunkCount; c++) {
+            ((MappedByteBuffer) chunks[c]).force();
+        }
+        header.putInt(CLEAN_OFFSET, 1);
+        ((MappedByteBuffer) header).force();
+        clean = true;
+    }
+
+    /**
+     * Flushes a file backed queue and closes its file. The queue cannot be used afterwards.
+     * The mapped memory itself is released when the queue is garbage collected.
+     *
+     * @throws IOException if the file cannot be written or closed
+     */
+    public void close() throws IOException {
+        if (closed) return;
+        flush();
+        closed = true;
+        chunks = null;
+        if (channel != null) channel.close();
+    }
+
+    /***************************************************************************
+     * Helper functions to restore the heap invariant. Both record the hole after every move, so that an
+     * interrupted call can be finished by calling it again with the recorded hole.
+     ***************************************************************************/
+
+    //bottom-up reheapify: put (priority, payload) into the hole at k, moving larger parents down
+    private void swim(long k, long priority, long payload) {
+        while (k > 1 && priority(k / 2) > priority) {
+            move(k / 2, k);
+            k = k / 2;
+            header.putLong(HOLE_OFFSET, k);
+        }
+        put(k, priority, payload);
+    }
+
+    //top-down reheapify: put (priority, payload) into the hole at k, moving smaller children up
+    private void sink(long k, long priority, long payload) {
+        while (2 * k <= n) {
+            long j = 2 * k;
+            if (j < n && priority(j + 1) < priority(j)) j++;
+            if (priority(j) >= priority) break;
+            move(j, k);
+            k = j;
+            header.putLong(HOLE_OFFSET, k);
+        }
+        put(k, priority, payload);
+    }
+
+    //records the operation about to start; writing op last makes the journal valid
+    private void journal(int op, long hole, long priority, long payload) {
+        header.putLong(JOURNAL_PRIORITY_OFFSET, priority);
+        header.putLong(JOURNAL_PAYLOAD_OFFSET, payload);
+        header.putLong(HOLE_OFFSET, hole);
+        header.putLong(JOURNAL_SIZE_OFFSET, n);
+        header.putInt(OP_OFFSET, op);
+    }
+
+    //stores the new size and ends the operation
+    private void commit() {
+        header.putLong(SIZE_OFFSET, n);
+        header.putInt(OP_OFFSET, OP_NONE);
+    }
+
+    /***************************************************************************
+     * Slot access: slot k is entry (k & chunkMask) of chunk k >>> chunkShift
+     ***************************************************************************/
+
+    private long priority(long k) {
+        return chunks[(int) (k >>> chunkShift)].getLong((int) (k & chunkMask) * ENTRY_BYTES);
+    }
+
+    private long payload(long k) {
+        return chunks[(int) (k >>> chunkShift)].getLong((int) (k & chunkMask) * ENTRY_BYTES + Long.BYTES);
+    }
+
+    private void put(long k, long priority, long payload) {
+        ByteBuffer chunk = chunks[(int) (k >>> chunkShift)];
+        int offset = (int) (k & chunkMask) * ENTRY_BYTES;
+        chunk.putLong(offset, priority);
+        chunk.putLong(offset + Long.BYTES, payload);
+    }
+
+    //copies the entry at slot from into slot to
+    private void move(long from, long to) {
+        put(to, priority(from), payload(from));
+    }
+
+    //maps or allocates chunks until slot k exists
+    private void ensureCapacity(long k) {
+        int needed = (int) (k >>> chunkShift) + 1;
+        while (chunkCount < needed) {
+            if (chunkCount == chunks.length) {
+                ByteBuffer[] temp = new ByteBuffer[2 * chunks.length];
+                System.arraycopy(chunks, 0, temp, 0, chunkCount);
+                chunks = temp;
+            }
+            chunks[chunkCount] = newChunk(chunkCount);
+            chunkCount++;
+        }
+    }
+
+    private ByteBuffer newChunk(int c) {
+        long bytes = (1L << chunkShift) * ENTRY_BYTES;
+        if (channel == null) {
+            return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+        }
+        try {
+            //mapping past the end of the file grows the file
+            return channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + c * bytes, bytes).order(ByteOrder.nativeOrder());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot grow priority queue file", e);
+        }
+    }
+
+    //marks the file as being changed before the first change after open/flush
+    private void modify() {
+        ensureOpen();
+        if (clean) {
+            header.putInt(CLEAN_OFFSET, 0);
+            clean = false;
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) throw new IllegalStateException("Priority queue is closed");
+    }
+
+    /**
+     * Inserts random priorities into a file backed queue, closes and reopens it, then deletes all entries and
+     * checks that they come out in order.
+     * args: number of entries (default 10M)
+     */
+    public static void main(String[] args) throws IOException {
+        long count = args.length > 0 ? Long.parseLong(args[0]) : 10000000L;
+        Path file = Files.createTempFile("offheappq", ".bin");
+        java.util.Random random = new java.util.Random(42);
+
+        long start = System.nanoTime();
+        try (OffHeapMinPQ pq = OffHeapMinPQ.create(file)) {
+            for (long i = 0; i < count; i++) {
+                pq.insert(random.nextLong(), i);
+            }
+        }
+        long inserted = System.nanoTime();
+
+        boolean ordered = true;
+        long deleted = 0;
+        try (OffHeapMinPQ pq = OffHeapMinPQ.open(file)) {
+            System.out.println("Reopened " + file + " with " + pq.size() + " entries");
+            long prev = Long.MIN_VALUE;
+            while (!pq.isEmpty()) {
+                long priority = pq.minPriority();
+                pq.delMin();
+                if (priority < prev) ordered = false;
+                prev = priority;
+                deleted++;
+            }
+        }
+        long end = System.nanoTime();
+        System.out.printf("n = %d: insert + close %.1f ms, reopen + delMin all %.1f ms, in order = %b, count ok = %b%n",
+                count, (inserted - start) / 1e6, (end - inserted) / 1e6, ordered, deleted == count);
+        Files.deleteIfExists(file);
+    }
+}
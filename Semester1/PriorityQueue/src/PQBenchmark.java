@@ -0,0 +1,207 @@
+/*  Compares MinPQ, PairingHeap and RadixHeap on three workloads:
+ *    random    insert n random keys, then delMin them all; no structure for any of the heaps to exploit
+ *    hold      the classic "hold" model of an event queue: a queue of n events where each step deletes the next
+ *              event and schedules a new one a random time later, so priorities are monotone
+ *    dijkstra  shortest paths on a random graph with integer weights. MinPQ and RadixHeap insert a new entry for
+ *              every relaxed edge and skip stale ones (lazy deletion), PairingHeap uses decreaseKey
+ *  The keys are Longs for all three. Each workload is run a few times and the fastest time is printed.
+ *  args: scale factor for the sizes (default 1)
+ */
+
+import java.util.Random;
+
+public class PQBenchmark {
+
+    private static final int RUNS = 3;
+
+    public static void main(String[] args) {
+        int scale = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+        System.out.println("workload\tMinPQ ms\tPairingHeap ms\tRadixHeap ms");
+        random(1000000 * scale);
+        hold(100000 * scale, 5000000 * scale);
+        dijkstra(200000 * scale, 8);
+    }
+
+    private static void random(int n) {
+        long[] keys = new long[n];
+        Random random = new Random(42);
+        for (int i = 0; i < n; i++) keys[i] = random.nextInt(Integer.MAX_VALUE);
+        long[] sums = new long[3];
+        long[] times = best(
+            () -> {
+                MinPQ<Long> pq = new MinPQ<Long>();
+                for (long k : keys) pq.insert(k);
+                long sum = 0;
+                while (!pq.isEmpty()) sum = sum * 31 + pq.delMin();
+                sums[0] = sum;
+            },
+            () -> {
+                PairingHeap<Long> pq = new PairingHeap<Long>();
+                for (long k : keys) pq.insert(k);
+                long sum = 0;
+                while (!pq.isEmpty()) sum = sum * 31 + pq.delMin();
+                sums[1] = sum;
+            },
+            () -> {
+                RadixHeap<Long> pq = RadixHeap.ofLongs();
+                for (long k : keys) pq.insert(k);
+                long sum = 0;
+                while (!pq.isEmpty()) sum = sum * 31 + pq.delMin();
+                sums[2] = sum;
+            });
+        print("random n=" + n, times, sums);
+    }
+
+    private static void hold(int n, int steps) {
+        long[] start = new long[n];
+        int[] delays = new int[steps];
+        Random random = new Random(42);
+        for (int i = 0; i < n; i++) start[i] = random.nextInt(1000000);
+        for (int i = 0; i < steps; i++) delays[i] = random.nextInt(1000000);
+        long[] sums = new long[3];
+        long[] times = best(
+            () -> {
+                MinPQ<Long> pq = new MinPQ<Long>();
+                for (long t : start) pq.insert(t);
+                long sum = 0;
+                for (int delay : delays) {
+                    long t = pq.delMin();
+                    sum += t;
+                    pq.insert(t + delay);
+                }
+                sums[0] = sum;
+            },
+            () -> {
+                PairingHeap<Long> pq = new PairingHeap<Long>();
+                for (long t : start) pq.insert(t);
+                long sum = 0;
+                for (int delay : delays) {
+                    long t = pq.delMin();
+                    sum += t;
+                    pq.insert(t + delay);
+                }
+                sums[1] = sum;
+            },
+            () -> {
+                RadixHeap<Long> pq = RadixHeap.ofLongs();
+                for (long t : start) pq.insert(t);
+                long sum = 0;
+                for (int delay : delays) {
+                    long t = pq.delMin();
+                    sum += t;
+                    pq.insert(t + delay);
+                }
+                sums[2] = sum;
+            });
+        print("hold n=" + n, times, sums);
+    }
+
+    //random graph with v vertices and out-degree degree; entries are encoded as distance * v + vertex
+    private static void dijkstra(int v, int degree) {
+        int[][] to = new int[v][degree];
+        int[][] weight = new int[v][degree];
+        Random random = new Random(42);
+        for (int i = 0; i < v; i++) {
+            for (int j = 0; j < degree; j++) {
+                to[i][j] = random.nextInt(v);
+                weight[i][j] = random.nextInt(1000);
+            }
+        }
+        long[] sums = new long[3];
+        long[] times = best(
+            () -> {
+                long[] dist = initialDistances(v);
+                MinPQ<Long> pq = new MinPQ<Long>();
+                pq.insert(0L);
+                while (!pq.isEmpty()) {
+                    long e = pq.delMin();
+                    int u = (int) (e % v);
+                    if (e / v > dist[u]) continue;      // stale entry
+                    for (int j = 0; j < degree; j++) {
+                        int w = to[u][j];
+                        long d = dist[u] + weight[u][j];
+                        if (d < dist[w]) {
+                            dist[w] = d;
+                            pq.insert(d * v + w);
+                        }
+                    }
+                }
+                sums[0] = total(dist);
+            },
+            () -> {
+                long[] dist = initialDistances(v);
+                PairingHeap.Node<Long>[] nodes = (PairingHeap.Node<Long>[]) new PairingHeap.Node[v];
+                PairingHeap<Long> pq = new PairingHeap<Long>();
+                nodes[0] = pq.insert(0L);
+                while (!pq.isEmpty()) {
+                    int u = (int) (pq.delMin() % v);
+                    for (int j = 0; j < degree; j++) {
+                        int w = to[u][j];
+                        long d = dist[u] + weight[u][j];
+                        if (d < dist[w]) {
+                            if (nodes[w] == null) nodes[w] = pq.insert(d * v + w);
+                            else                  pq.decreaseKey(nodes[w], d * v + w);
+                            dist[w] = d;
+                        }
+                    }
+                }
+                sums[1] = total(dist);
+            },
+            () -> {
+                long[] dist = initialDistances(v);
+                //priority is the distance alone: distance * v + vertex is not monotone across vertices
+                RadixHeap<Long> pq = new RadixHeap<Long>(e -> e / v);
+                pq.insert(0L);
+                while (!pq.isEmpty()) {
+                    long e = pq.delMin();
+                    int u = (int) (e % v);
+                    if (e / v > dist[u]) continue;      // stale entry
+                    for (int j = 0; j < degree; j++) {
+                        int w = to[u][j];
+                        long d = dist[u] + weight[u][j];
+                        if (d < dist[w]) {
+                            dist[w] = d;
+                            pq.insert(d * v + w);
+                        }
+                    }
+                }
+                sums[2] = total(dist);
+            });
+        print("dijkstra V=" + v + " E=" + (long) v * degree, times, sums);
+    }
+
+    private static long[] initialDistances(int v) {
+        long[] dist = new long[v];
+        java.util.Arrays.fill(dist, Long.MAX_VALUE);
+        dist[0] = 0;
+        return dist;
+    }
+
+    private static long total(long[] dist) {
+        long sum = 0;
+        for (long d : dist)
+            if (d != Long.MAX_VALUE) sum += d;
+        return sum;
+    }
+
+    //fastest of RUNS runs of each workload, in ms
+    private static long[] best(Runnable... workloads) {
+        long[] times = new long[workloads.length];
+        java.util.Arrays.fill(times, Long.MAX_VALUE);
+        for (int run = 0; run < RUNS; run++) {
+            for (int i = 0; i < workloads.length; i++) {
+                long start = System.nanoTime();
+                workloads[i].run();
+                times[i] = Math.min(times[i], (System.nanoTime() - start) / 1000000);
+            }
+        }
+        return times;
+    }
+
+    //results must agree, otherwise one of the heaps is broken
+    private static void print(String workload, long[] times, long[] sums) {
+        if (sums[0] != sums[1] || sums[0] != sums[2])
+            throw new IllegalStateException(workload + ": results differ " + java.util.Arrays.toString(sums));
+        System.out.println(workload + "\t" + times[0] + "\t\t" + times[1] + "\t\t" + times[2]);
+    }
+}
@@ -0,0 +1,294 @@
+/*  Minimum priority queue on a pairing heap (Fredman, Sedgewick, Sleator and Tarjan, 1986)
+ *  The heap is a tree of nodes in which every node's key is no larger than its children's; each node keeps a
+ *  pointer to its leftmost child and to its next sibling. Two heaps are melded by making the root with the larger
+ *  key the leftmost child of the other, so insert and meld take constant time. delMin removes the root and pairs
+ *  its children left to right, then melds the pairs right to left (the two-pass rule): O(log n) amortized.
+ *  insert returns a Node handle, and decreaseKey(node, key) cuts the node's subtree out and melds it with the root,
+ *  in constant time (o(log n) amortized once later delMins are charged). Dijkstra and schedulers that raise the
+ *  priority of pending jobs can use it instead of inserting a duplicate into MinPQ and skipping stale entries.
+ *  The API otherwise matches MinPQ: insert, min, delMin, size, isEmpty and an iterator in ascending order.
+ */
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class PairingHeap<Key> implements Iterable<Key> {
+
+    private Node<Key> root;                     // node with the smallest key, null if empty
+    private int n;                              // number of keys on the heap
+    private final Comparator<Key> comparator;   // optional comparator
+
+    /**
+     * Handle to a key on the heap, returned by insert and used by decreaseKey and delete.
+     */
+    public static final class Node<Key> {
+        private Key key;
+        private Node<Key> child;    // leftmost child
+        private Node<Key> sibling;  // next sibling to the right
+        private Node<Key> prev;     // previous sibling, or the parent for a leftmost child; null for the root
+        private boolean removed;
+
+        private Node(Key key) {
+            this.key = key;
+        }
+
+        public Key key() {
+            return key;
+        }
+    }
+
+    /**
+     * Initializes an empty priority queue.
+     */
+    public PairingHeap() {
+        this(null);
+    }
+
+    /**
+     * Initializes an empty priority queue using the given comparator.
+     *
+     * @param comparator the order in which to compare the keys
+     */
+    public PairingHeap(Comparator<Key> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * Returns true if this priority queue is empty.
+     *
+     * @return {@code true} if this priority queue is empty;
+     *         {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    /**
+     * Returns the number of keys on this priority queue.
+     *
+     * @return the number of keys on this priority queue
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Returns a smallest key on this priority queue.
+     *
+     * @return a smallest key on this priority queue
+     * @throws NoSuchElementException if this priority queue is empty
+     */
+    public Key min() {
+        if (isEmpty()) throw new NoSuchElementException("Priority queue underflow");
+        return root.key;
+    }
+
+    /**
+     * Adds a new key to this priority queue.
+     *
+     * @param x the key to add to this priority queue
+     * @return a handle for decreaseKey and delete
+     */
+    public Node<Key> insert(Key x) {
+        if (x == null) throw new IllegalArgumentException("Key is null");
+        Node<Key> node = new Node<Key>(x);
+        root = link(root, node);
+        n++;
+        return node;
+    }
+
+    /**
+     * Removes and returns a smallest key on this priority queue.
+     *
+     * @return a smallest key on this priority queue
+     * @throws NoSuchElementException if this priority queue is empty
+     */
+    public Key delMin() {
+        if (isEmpty()) throw new NoSuchElementException("Priority queue underflow");
+        Node<Key> min = root;
+        root = combineSiblings(min.child);
+        if (root != null) root.prev = null;
+        n--;
+        min.child = null;
+        min.removed = true;
+        return min.key;
+    }
+
+    /**
+     * Decreases the key of a node on this priority queue.
+     *
+     * @param node a handle returned by insert
+     * @param key the new key, no larger than the current one
+     * @throws IllegalArgumentException if key is larger than the current key or node has been removed
+     */
+    public void decreaseKey(Node<Key> node, Key key) {
+        if (node.removed) throw new IllegalArgumentException("Node is not on the priority queue");
+        if (compare(key, node.key) > 0) throw new IllegalArgumentException("Calling decreaseKey() with a larger key");
+        node.key = key;
+        if (node == root) return;
+        cut(node);
+        root = link(root, node);
+    }
+
+    /**
+     * Removes a node from this priority queue.
+     *
+     * @param node a handle returned by insert
+     * @throws IllegalArgumentException if node has been removed
+     */
+    public void delete(Node<Key> node) {
+        if (node.removed) throw new IllegalArgumentException("Node is not on the priority queue");
+        if (node == root) {
+            delMin();
+            return;
+        }
+        //cut out the node's subtree and meld its children back in
+        cut(node);
+        Node<Key> children = combineSiblings(node.child);
+        node.child = null;
+        root = link(root, children);
+        n--;
+        node.removed = true;
+    }
+
+    /**
+     * Moves every key of the other heap into this one in constant time, leaving the other heap empty.
+     *
+     * @param other a heap ordered the same way as this one
+     */
+    public void meld(PairingHeap<Key> other) {
+        if (other == this) throw new IllegalArgumentException("Cannot meld a heap with itself");
+        root = link(root, other.root);
+        n += other.n;
+        other.root = null;
+        other.n = 0;
+    }
+
+    /***************************************************************************
+     * Helper functions to restore the heap invariant.
+     ***************************************************************************/
+
+    //melds two trees and returns the new root; the root with the larger key becomes the leftmost child
+    private Node<Key> link(Node<Key> a, Node<Key> b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (compare(b.key, a.key) < 0) {
+            Node<Key> swap = a;
+            a = b;
+            b = swap;
+        }
+        b.prev = a;
+        b.sibling = a.child;
+        if (a.child != null) a.child.prev = b;
+        a.child = b;
+        a.sibling = null;
+        a.prev = null;
+        return a;
+    }
+
+    //detaches the subtree rooted at node from its parent and siblings
+    private void cut(Node<Key> node) {
+        if (node.prev.child == node) node.prev.child = node.sibling;
+        else                         node.prev.sibling = node.sibling;
+        if (node.sibling != null) node.sibling.prev = node.prev;
+        node.sibling = null;
+        node.prev = null;
+    }
+
+    //two-pass pairing: link siblings in pairs left to right, then link the pairs right to left
+    private Node<Key> combineSiblings(Node<Key> first) {
+        if (first == null) return null;
+        //first pass: the paired trees are chained through their prev pointers, last pair first
+        Node<Key> pairs = null;
+        Node<Key> a = first;
+        while (a != null) {
+            Node<Key> b = a.sibling;
+            Node<Key> next = b == null ? null : b.sibling;
+            a.sibling = null;
+            if (b != null) b.sibling = null;
+            Node<Key> pair = link(a, b);
+            pair.prev = pairs;
+            pairs = pair;
+            a = next;
+        }
+        //second pass
+        Node<Key> result = null;
+        while (pairs != null) {
+            Node<Key> next = pairs.prev;
+            pairs.prev = null;
+            result = link(pairs, result);
+            pairs = next;
+        }
+        return result;
+    }
+
+    /***************************************************************************
+     * Helper functions for compares.
+     ***************************************************************************/
+    private int compare(Key v, Key w) {
+        if (comparator == null) return ((Comparable<Key>) v).compareTo(w);
+        return comparator.compare(v, w);
+    }
+
+    /**
+     * Returns an iterator that iterates over the keys on this priority queue in ascending order without changing it.
+     * The nodes still to visit are kept in a MinPQ frontier, which holds the children of every key returned so far
+     * that have not been returned yet. Its size is bounded only by the number of keys left: a root with n - 1 children
+     * puts all of them on the frontier at the first call to next().
+     *
+     * @return an iterator that iterates over the keys in ascending order
+     */
+    public Iterator<Key> iterator() {
+        return new HeapIterator();
+    }
+
+    private class HeapIterator implements Iterator<Key> {
+        private final MinPQ<Node<Key>> frontier = new MinPQ<Node<Key>>((v, w) -> compare(v.key, w.key));
+
+        public HeapIterator() {
+            if (root != null) frontier.insert(root);
+        }
+
+        public boolean hasNext()  { return !frontier.isEmpty();                 }
+        public void remove()      { throw new UnsupportedOperationException();  }
+
+        public Key next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Node<Key> node = frontier.delMin();
+            for (Node<Key> c = node.child; c != null; c = c.sibling)
+                frontier.insert(c);
+            return node.key;
+        }
+    }
+
+    /**
+     * Simple test for PairingHeap with an array of string data types
+     */
+    public static void main(String[] args) {
+
+        String[] strings = { "it", "was", "the", "best", "of", "times", "it", "was", "the", "worst", "of", "times" };
+
+        PairingHeap<String> pq = new PairingHeap<>();
+        PairingHeap.Node<String>[] nodes = (PairingHeap.Node<String>[]) new PairingHeap.Node[strings.length];
+        for (int i = 0; i < strings.length; i++) {
+            nodes[i] = pq.insert(strings[i]);
+        }
+
+        // print each key using the iterator
+        for (String s : pq) {
+            System.out.print(s + " ");
+        }
+        System.out.println();
+
+        // decrease "worst" to "a", delete "best"
+        pq.decreaseKey(nodes[9], "a");
+        pq.delete(nodes[3]);
+
+        // delete and print each key
+        while (!pq.isEmpty()) {
+            System.out.print(pq.delMin() + " ");
+        }
+        System.out.println();
+    }
+}
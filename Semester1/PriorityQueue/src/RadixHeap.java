@@ -0,0 +1,243 @@
+/*  Monotone minimum priority queue on a radix heap (Ahuja, Mehlhorn, Orlin and Tarjan, 1990)
+ *  Each key has a long priority given by a function of the key, and priorities must be monotone: a key inserted
+ *  after a delMin must not have a smaller priority than the one deleted. That holds for Dijkstra with non-negative
+ *  weights and for event simulations where time only moves forward.
+ *  The keys sit in 65 unsorted buckets. Bucket b holds the keys whose priority first differs from last (the
+ *  priority of the last key deleted) in bit b-1, so bucket 0 holds keys equal to last and every bucket covers
+ *  larger priorities than the one before it. insert is one XOR and an append: O(1). When bucket 0 is empty, delMin
+ *  finds the first non-empty bucket, makes its smallest priority the new last and redistributes that bucket into
+ *  lower buckets. Every key only moves down, so each one is moved at most 64 times: O(log C) amortized per delMin,
+ *  where C is the largest difference between priorities, with no compares between keys at all.
+ *  The API matches MinPQ: insert, min, delMin, size, isEmpty and an iterator in ascending order.
+ */
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.ToLongFunction;
+
+public class RadixHeap<Key> implements Iterable<Key> {
+
+    private static final int BUCKETS = 65;
+
+    private final ToLongFunction<Key> priority;     // priority of each key
+    private final long[][] priorities;              // priorities[b][0 .. size[b]-1] are the priorities in bucket b
+    private final Object[][] keys;                  // keys[b][i] has priority priorities[b][i]
+    private final int[] size;                       // number of keys in each bucket
+    private long last = Long.MIN_VALUE;             // priority of the last key deleted, lower bound for all keys
+    private int n;                                  // number of keys on the priority queue
+    private int minBucket = -1;                     // bucket and index of a smallest key found by min(), -1 if
+    private int minIndex;                           // none has been looked up since the last delMin
+
+    /**
+     * Initializes an empty priority queue.
+     *
+     * @param priority the priority of each key; smaller priorities come out first
+     */
+    public RadixHeap(ToLongFunction<Key> priority) {
+        this.priority = priority;
+        priorities = new long[BUCKETS][];
+        keys = new Object[BUCKETS][];
+        size = new int[BUCKETS];
+        for (int b = 0; b < BUCKETS; b++) {
+            priorities[b] = new long[4];
+            keys[b] = new Object[4];
+        }
+    }
+
+    /**
+     * Initializes an empty priority queue of Long keys, ordered by their value.
+     *
+     * @return an empty priority queue
+     */
+    public static RadixHeap<Long> ofLongs() {
+        return new RadixHeap<Long>(Long::longValue);
+    }
+
+    /**
+     * Returns true if this priority queue is empty.
+     *
+     * @return {@code true} if this priority queue is empty;
+     *         {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    /**
+     * Returns the number of keys on this priority queue.
+     *
+     * @return the number of keys on this priority queue
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Adds a new key to this priority queue.
+     *
+     * @param x the key to add to this priority queue
+     * @throws IllegalArgumentException if the priority of x is smaller than the priority of the last key deleted
+     */
+    public void insert(Key x) {
+        if (x == null) throw new IllegalArgumentException("Key is null");
+        long p = priority.applyAsLong(x);
+        if (p < last) throw new IllegalArgumentException("Priority " + p + " is smaller than the last deleted " + last);
+        int b = bucket(p);
+        add(b, p, x);
+        n++;
+        if (minBucket >= 0 && p < priorities[minBucket][minIndex]) {
+            minBucket = b;
+            minIndex = size[b] - 1;
+        }
+    }
+
+    /**
+     * Returns a smallest key on this priority queue. The first non-empty bucket is scanned rather than
+     * redistributed, so last stays the priority of the last key deleted and a key inserted after a peek only has to
+     * be no smaller than that. The position found is kept until the next delMin (an insert of a smaller key updates
+     * it), so the scan costs at most what that delMin spends redistributing the same bucket.
+     *
+     * @return a smallest key on this priority queue
+     * @throws NoSuchElementException if this priority queue is empty
+     */
+    public Key min() {
+        if (isEmpty()) throw new NoSuchElementException("Priority queue underflow");
+        if (minBucket < 0) {
+            int b = 0;
+            while (size[b] == 0) b++;
+            //every key of bucket 0 has priority last
+            int m = b == 0 ? size[0] - 1 : 0;
+            for (int i = 1; b > 0 && i < size[b]; i++)
+                if (priorities[b][i] < priorities[b][m]) m = i;
+            minBucket = b;
+            minIndex = m;
+        }
+        return (Key) keys[minBucket][minIndex];
+    }
+
+    /**
+     * Removes and returns a smallest key on this priority queue.
+     *
+     * @return a smallest key on this priority queue
+     * @throws NoSuchElementException if this priority queue is empty
+     */
+    public Key delMin() {
+        if (isEmpty()) throw new NoSuchElementException("Priority queue underflow");
+        pull();
+        int i = --size[0];
+        Key min = (Key) keys[0][i];
+        keys[0][i] = null;     // to avoid loitering and help with garbage collection
+        n--;
+        minBucket = -1;
+        return min;
+    }
+
+    /***************************************************************************
+     * Helper functions for the buckets.
+     ***************************************************************************/
+
+    //bucket of priority p: 0 if p == last, otherwise one more than the highest bit in which p and last differ
+    private int bucket(long p) {
+        return 64 - Long.numberOfLeadingZeros(p ^ last);
+    }
+
+    private void add(int b, long p, Object x) {
+        if (size[b] == keys[b].length) {
+            priorities[b] = Arrays.copyOf(priorities[b], 2 * size[b]);
+            keys[b] = Arrays.copyOf(keys[b], 2 * size[b]);
+        }
+        priorities[b][size[b]] = p;
+        keys[b][size[b]++] = x;
+    }
+
+    //makes bucket 0 non-empty by redistributing the first non-empty bucket around its smallest priority
+    private void pull() {
+        if (size[0] > 0) return;
+        int b = 1;
+        while (size[b] == 0) b++;
+        long[] ps = priorities[b];
+        Object[] xs = keys[b];
+        int m = size[b];
+        long min = ps[0];
+        for (int i = 1; i < m; i++)
+            if (ps[i] < min) min = ps[i];
+        last = min;
+        //every key of bucket b now lands in a lower bucket, so b's arrays are read in place and then cleared
+        size[b] = 0;
+        for (int i = 0; i < m; i++) {
+            add(bucket(ps[i]), ps[i], xs[i]);
+            xs[i] = null;
+        }
+    }
+
+    /**
+     * Returns an iterator that iterates over the keys on this priority queue in ascending order of priority.
+     * It works on a copy: the keys are copied and sorted by priority up front, O(n log n) even if only the first few
+     * keys are read. Unlike MinPQ, whose iterator is lazy, the buckets have no heap order to walk.
+     *
+     * @return an iterator that iterates over the keys in ascending order
+     */
+    public Iterator<Key> iterator() {
+        long[] ps = new long[n];
+        Object[] xs = new Object[n];
+        int i = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            for (int j = 0; j < size[b]; j++) {
+                ps[i] = priorities[b][j];
+                xs[i] = keys[b][j];
+                i++;
+            }
+        }
+        Integer[] order = new Integer[n];
+        for (int j = 0; j < n; j++) order[j] = j;
+        Arrays.sort(order, (v, w) -> Long.compare(ps[v], ps[w]));
+        return new Iterator<Key>() {
+            private int next = 0;
+
+            public boolean hasNext()  { return next < order.length;                 }
+            public void remove()      { throw new UnsupportedOperationException();  }
+
+            public Key next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return (Key) xs[order[next++]];
+            }
+        };
+    }
+
+    /**
+     * Simple test for RadixHeap: an event queue where each delMin schedules a later event
+     */
+    public static void main(String[] args) {
+        RadixHeap<Long> pq = RadixHeap.ofLongs();
+        long[] times = { 17, 3, 42, 3, 8, 1000000000000L, 25, 0 };
+        for (long t : times)
+            pq.insert(t);
+
+        // print each key using the iterator
+        for (long t : pq)
+            System.out.print(t + " ");
+        System.out.println();
+
+        // delete the keys in order, scheduling a follow-up event 5 time units later for the first four
+        int followUps = 4;
+        while (!pq.isEmpty()) {
+            long t = pq.delMin();
+            System.out.print(t + " ");
+            if (followUps-- > 0) pq.insert(t + 5);
+        }
+        System.out.println();
+
+        // peeking does not delete: after delMin() returns 50, a key of 60 may still be inserted after min() sees 100
+        RadixHeap<Long> peek = RadixHeap.ofLongs();
+        peek.insert(50L);
+        peek.delMin();
+        peek.insert(100L);
+        System.out.print(peek.min() + " ");
+        peek.insert(60L);
+        System.out.print(peek.min() + " ");
+        while (!peek.isEmpty())
+            System.out.print(peek.delMin() + " ");
+        System.out.println();
+    }
+}
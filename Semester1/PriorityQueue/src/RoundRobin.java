@@ -6,18 +6,19 @@
  *  readyQueue and then added to the end of the readyQueue and to be processed for the remaining time.
  *  This process continues until the queue is empty.
  *  Implementation details:
- * 1. A clock timer variable is initialized to zero and used to advance time
- * 2. A temporary copy of all the values of processing times for all the jobs is used and initialized to zero
- * 3. A boolean array is used to keep track of whether each job is completed or not.
- * 4. The readyQueue maintains an array of indices of the jobs that are in the queue awaiting further processing
- * 5. Clock timer counts up until 1st process arrives and then we add its index to the readyQueue array.
- * 6. The first process is executed until the specified time slice and we check whether any other process have arrived
- *    during this period. If any job arrivals exist, the indices of those jobs are added to readyQueue using the updateReadyQueue method
- * 7. After above steps if a job is complete, we update the endTime and TAT and calculate its wait time using (TAT - processingTime)
- * 8. Then the next job from the readyQueue array is executed, otherwise, we move the currently executed process to end of readyQueue
- *   (called preemption) when the time slice expires.
- * 9. We repeat steps 5-8 until all the jobs have been completely executed. in a scenario where there are some processes left but
- *    they have not arrived yet, then we just advance the clock until those jobs arrive as during this idle period no jobs can be processed
+ * 1. The schedule is computed by the event-driven core in JobSchedulerModel.simulate(): the clock jumps from one event
+ *    (a job arrival or the end of a time slice) to the next instead of counting up one time unit at a time
+ * 2. The readyQueue is a deque of the jobs that have arrived and are not finished. The job at its head runs for
+ *    min(slice, remaining time); if it is not finished it is added to the tail again, after any jobs that arrived
+ *    up to and including the moment its slice ended
+ * 3. Whole rotations of the readyQueue in which no job finishes and no job arrives change nothing but the clock and
+ *    the remaining times, so fastForward serves them all in one step. This keeps the number of simulated slices
+ *    independent of the time scale: long jobs with a small slice cost no more than short ones. It does not make RR
+ *    O(n log n): the rotation before each arrival or completion is still simulated slice by slice, and fastForward
+ *    scans the queue once per rotation, so with k jobs in the readyQueue each arrival or completion costs O(k).
+ *    That is O(n k) in all, up to O(n^2) when most jobs are long and wait together
+ * 4. When a job finishes, its end time, TAT (end time - arrival time) and wait time (TAT - processing time) are set
+ *    and it is added to finishedJobs
  *
  *  @author: Vishak Srikanth
  *  @version: 11/01/2021
@@ -27,216 +28,89 @@ import java.util.ArrayList;
 
 public class RoundRobin extends JobSchedulerModel{
 
-    private ArrayList<Job> inProcessJobs = new ArrayList<Job>();
+    //rows of the jobs that have arrived and are not finished, in the order they will be served
+    private final JobTable.RowDeque readyQueue = new JobTable.RowDeque();
     private int timeSlice = 0;
+    //dispatches left before fastForward next looks for whole rotations to skip
+    private int rotationCountdown;
 
     public RoundRobin(ArrayList<Job> jobList, int s) {
         super(jobList);
+        if (s < 1) throw new IllegalArgumentException("Time slice must be positive: " + s);
+        timeSlice = s;
+    }
+
+    public RoundRobin(JobTable jobs, int s) {
+        super(jobs);
+        if (s < 1) throw new IllegalArgumentException("Time slice must be positive: " + s);
         timeSlice = s;
     }
 
     //Main method which computes the Round Robin Schedule
     public void computeSchedule() {
-
-        //Initialize local variables for slice, clock Timer, Total # of jobs, and index of max process in readyQueue
-        int numJobs, slice, clockTimer = 0, maxProccessIndex = 0;
-        //Initialize
-        float avgWaitTime = 0, avgTAT = 0;
-
-        slice = timeSlice;
-
-        numJobs = jobList.size();
-
-        //We use arrays indexed by the order in which the jobs are originally created
-        int arrivalTime[] = new int[numJobs];
-        int processingTime[] = new int[numJobs];
-        int waitTime[] = new int[numJobs];
-        int TAT[] = new int[numJobs];
-        int readyQueue[] = new int[numJobs];
-        int originalProcessingTimeCopy[] = new int[numJobs];
-        int jobId[] = new int[numJobs];
-        boolean jobCompleteFlag[] = new boolean[numJobs];
-
-        //Counter to read job list
-        int id = 0;
-
-        //Get the relevant arrays populated from the Job objects in the jobs list
-        for(Job j: jobList) {
-            arrivalTime[id] = j.getArrivalTime();
-            processingTime[id] = j.getProcessingTime();
-            originalProcessingTimeCopy[id] = processingTime[id];
-            jobId[id]= j.getId();
-            //Initialize the ready readyQueue and jobCompleteFlag job ids array
-            readyQueue[id] = 0;
-            jobCompleteFlag[id] = false;
-            id++;
-        }
-
-        Object[] currJobList = jobList.toArray();
         System.out.println();
         System.out.println("******************* BEST ROUND ROBIN JOB SCHEDULE FOR TIMESLICE = " + timeSlice + " * *****************************************");
-        //Run the clock timer until 1st process arrives
-        while(clockTimer < arrivalTime[0])
-            clockTimer++;
-
-        //Set the ready queue to 1st job
-        readyQueue[0] = 1;
-
-        //
-        while(true){
-            //First set the all Jobs processed flag to true
-            boolean allJobsProcessedFlag = true;
-
-            //loop thru' all jobs to check any of the jobs have not been processed
-            for(int i = 0; i < numJobs; i++){
-                if(originalProcessingTimeCopy[i] != 0){
-                    allJobsProcessedFlag = false;
-                    break;
-                }
-            }
-
-            //break out of master while loop if all jobs have been processed
-            if(allJobsProcessedFlag)
-                break;
-
-            //Loop over all job indices when it is already in readyQueue (indicated by readyQueue[i] == 1)
-            for(int i = 0; (i < numJobs) && (readyQueue[i] != 0); i++){
-                //time counter
-                int ctr = 0;
-
-                //Advance to 1st job's arrival time and build readyQueue until all jobs have arrived
-                //Execute the first job for time slice and during that slice, we check
-                //whether any other process has arrived or not and if it has then we add the index in the queue
-                //and update the readyQueue
-                while((ctr < slice) && (originalProcessingTimeCopy[readyQueue[0]-1] > 0)){
-                    originalProcessingTimeCopy[readyQueue[0]-1] -= 1;
-                    clockTimer += 1;
-                    ctr++;
-
-                    //Updating the readyQueue until all the jobs have arrived
-                    checkNewArrival(clockTimer, arrivalTime, numJobs, maxProccessIndex, readyQueue);
-                }
-
-
-                // Set the current job's index (currIdx), check it has been processed
-                int currIdx = readyQueue[0]-1;
-                if((originalProcessingTimeCopy[currIdx] == 0) && (jobCompleteFlag[currIdx] == false)){
-                    Job currJob = (Job) currJobList[currIdx];
-                    currJob.setEndTime(clockTimer);
-                    currJob.setbCompleted(true);
-                    finishedJobs.add(currJob);
-                    //TAT currently stores exit times
-//                    System.out.println("JobId: " + currIdx + " Completed at time = " + clockTimer + "with TAT = " + TAT[currIdx] );
-                    TAT[currIdx] = clockTimer;
-//                    System.out.println("JobId: " + jobId[currIdx] + " Completed at time = " + clockTimer + "with TAT = " + TAT[currIdx] );
-                    jobCompleteFlag[currIdx] = true;
-                }
-
-                //Checks there are any jobs being processed
-                boolean idle = true;
-                //If last job in readyQueue is being processed
-                if(readyQueue[numJobs -1] == 0){
-                    for(int k = 0; k < numJobs && readyQueue[k] != 0; k++){
-                        //Check job complete status for all prior jobs
-                        if(jobCompleteFlag[readyQueue[k]-1] == false){
-                            idle = false;
-                        }
-                    }
-                }
-                //If none of the jobs are being processed, means we are in idle state
-                else
-                    idle = false;
-
-                //If we are in idle state check for new jobs arriving
-                if(idle){
-                    clockTimer++;
-                    checkNewArrival(clockTimer, arrivalTime, numJobs, maxProccessIndex, readyQueue);
-                }
-
-                //Maintaining the entries of processes after each premption in the ready Queue
-                queueUpdateAfterPreemption(readyQueue, numJobs);
-            }
-        }
-        //We need to subtract arrival time from the current value of TAT which holds the end time of job
-        //then compute wait time from TAT and processing time
-        for(int i = 0; i < numJobs; i++){
-            TAT[i] = TAT[i] - arrivalTime[i];
-            waitTime[i] = TAT[i] - processingTime[i];
-        }
+        simulate();
 
+        float avgWaitTime = 0, avgTAT = 0;
+        int numJobs = jobs.size();
         System.out.print("\nJob Id |\tArrival Time |\tProcessing Time |\tWait Time |\tTurnAround Time |"
                 + "\n");
         for(int i = 0; i < numJobs; i++){
-            System.out.printf("%8d \t | %8d \t | %8d \t | %8d \t | %8d \t | \n", (i+1), arrivalTime[i], processingTime[i], waitTime[i],  TAT[i]);
-        }
-        for(int i = 0; i< numJobs; i++){
-            avgWaitTime += waitTime[i];
-            avgTAT += TAT[i];
+            System.out.printf("%8d \t | %8d \t | %8d \t | %8d \t | %8d \t | \n", (i+1), jobs.arrival(i), jobs.processing(i), jobs.waitingTime(i), jobs.tat(i));
+            avgWaitTime += jobs.waitingTime(i);
+            avgTAT += jobs.tat(i);
         }
         System.out.print("\nAverage waitTime time : "+(avgWaitTime / numJobs)
                 +"\nAverage Turn Around Time : "+(avgTAT / numJobs));
     }
 
+    protected void resetReadyQueue() {
+        readyQueue.clear();
+        rotationCountdown = 0;
+    }
 
-    /** Updates the readyQueue with next job
-     * @param queue current readyQueue
-     * @param timer current clock time
-     * @param arrival Array of arrival times indexed by job index as in original list
-     * @param n number of jobs
-     * @param maxProccessIndex Highest process index being processed
-     */
-    public static void updateReadyQueue(int queue[], int timer, int arrival[], int n, int maxProccessIndex){
-        int zeroIndex = -1;
-        for(int i = 0; i < n; i++){
-            if(queue[i] == 0){
-                zeroIndex = i;
-                break;
-            }
-        }
-        if(zeroIndex == -1)
-            return;
-        queue[zeroIndex] = maxProccessIndex + 1;
+    protected void addReady(int row) {
+        readyQueue.addLast(row);
     }
 
+    protected int nextReady() {
+        return readyQueue.pollFirst();
+    }
 
-    /** This function checks and adds any new jobs that have arrived when another job is being processed
-     * @param timer currentClocktime
-     * @param arrival: array of jobs arrival times
-     * @param n number of job
-     * @param maxProccessIndex: highest job index being processed
-     * @param queue : readyQueue
-     */
-    public static void checkNewArrival(int timer, int arrival[], int n, int maxProccessIndex,int queue[]){
-        //check if current time is smaller than previous job's arrival time => set new arrival to false
-        if(timer <= arrival[n-1]){
-            boolean newJobArrived = false;
-            //then check from the last job to check if its arrival time is less than current time
-            for(int j = (maxProccessIndex+1); j < n; j++){
-                if(arrival[j] <= timer){
-                    //When this max job index < current index then we have a new job Arrival!!
-                    if(maxProccessIndex < j){
-                        maxProccessIndex = j;
-                        newJobArrived = true;
-                    }
-                }
-            }
-            //If a new job arrived when this is being processed add the index of the arriving process to readyQueue
-            if(newJobArrived)
-                updateReadyQueue(queue,timer,arrival,n, maxProccessIndex);
-        }
+    protected boolean hasReady() {
+        return !readyQueue.isEmpty();
     }
 
-    /** Maintains the readyQueue properly after every job slice preemption.
-     * @param queue readyQueue that holds the job indices
-     * @param n : ready queue limit until preemption
-     */
-    public static void queueUpdateAfterPreemption(int queue[], int n){
+    protected int quantum() {
+        return timeSlice;
+    }
 
-        for(int i = 0; (i < n-1) && (queue[i+1] != 0) ; i++){
-            int temp = queue[i];
-            queue[i] = queue[i+1];
-            queue[i+1] = temp;
+    /**
+     * Serves as many whole rotations of the readyQueue as possible in one step: r rotations where every job still
+     * has time left afterwards and the next arrival comes after the last of them ends. Each job then gets r slices,
+     * the queue order is unchanged and the clock advances by r * (jobs in queue) * slice.
+     * Only tried once per rotation, so the O(k) scan of the queue costs O(1) per dispatch.
+     *
+     * @param until time of the next arrival, Integer.MAX_VALUE if none
+     */
+    protected void fastForward(int until) {
+        if (--rotationCountdown > 0) return;
+        int k = readyQueue.size();
+        rotationCountdown = k;
+        long minRemaining = Long.MAX_VALUE;
+        for (int i = 0; i < k; i++)
+            minRemaining = Math.min(minRemaining, jobs.remaining(readyQueue.get(i)));
+        long rotation = (long) k * timeSlice;
+        //an arrival exactly at the end of a rotation would queue ahead of the job preempted then, so stop before it
+        long rounds = Math.min((minRemaining - 1) / timeSlice, (until - 1L - clock) / rotation);
+        if (rounds <= 0) return;
+        for (int i = 0; i < k; i++) {
+            int row = readyQueue.get(i);
+            if (jobs.start(row) < 0) jobs.setStart(row, clock + i * timeSlice);
+            jobs.setRemaining(row, jobs.remaining(row) - (int) (rounds * timeSlice));
         }
+        clock += (int) (rounds * rotation);
     }
 
 
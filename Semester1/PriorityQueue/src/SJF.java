@@ -4,6 +4,9 @@ import java.util.Comparator;
 
 public class SJF extends JobSchedulerModel {
 
+    //rows of the jobs that have arrived and are waiting to run, shortest first
+    private MinPQ<Integer> readyQueue;
+
     public void multi_criteria_sort() {
 
         Comparator<Job> sjfComparator = Comparator.comparing(Job::getProcessingTime)
@@ -21,15 +24,17 @@ public class SJF extends JobSchedulerModel {
 //        multi_criteria_sort();
     }
 
+    public SJF(JobTable jobs) {
+        super(jobs);
+        myQTpye = "SJF";
+    }
+
 
     public void createQueue() {
 
-        jobPendingQ = new MinPQ(jobList.size(), new Job.SortbyProcessingTime());
-        for (Job j : jobList) {
-            int myId = j.getId();
-            int myProcTime = j.getProcessingTime();
-            jobPendingQ.insert(j);
-        }
+        jobPendingQ = new MinPQ<Job>(jobList.size(), new Job.SortbyProcessingTime());
+        //one pass over the jobs: appended, then heapified
+        jobPendingQ.insertAll(jobList);
 
     }
 
@@ -45,38 +50,33 @@ public class SJF extends JobSchedulerModel {
 //        return priorJobs;
 //    }
 //
+    //Non-preemptive: whenever the processor is free, the shortest job that has arrived runs to completion
+    //(ties by arrival time, then id)
     public void computeSchedule() {
-        int elapsedTime = 0;
-        int prevEndTime = 0;
-        int jobCount = 0;
-
-
-        for (Job currJob : jobPendingQ) {
-            if (currJob.getId() == 0) continue;
-            int currArrTime = currJob.getArrivalTime();
-            int currProcTime = currJob.getProcessingTime();
-            //if either prior job is done before current job arrives or it is 1st job no wait time, can start immediately
-            if (currArrTime < prevEndTime) {
-                currJob.setStartTime(prevEndTime);
-                currJob.setWaitingTime(prevEndTime - currArrTime);
+        simulate();
+    }
 
-            }
-            //otherwise
-            else {
-                currJob.setStartTime(currArrTime);
-                currJob.setWaitingTime(0);
+    protected void resetReadyQueue() {
+        readyQueue = new MinPQ<Integer>(this::shorter);
+    }
 
-            }
-            currJob.setEndTime(currJob.getStartTime() + currJob.getProcessingTime());
-            elapsedTime = currJob.getEndTime();
+    //compares two rows by processing time, then arrival time, then id
+    private int shorter(int a, int b) {
+        if (jobs.processing(a) != jobs.processing(b)) return Integer.compare(jobs.processing(a), jobs.processing(b));
+        if (jobs.arrival(a) != jobs.arrival(b))       return Integer.compare(jobs.arrival(a), jobs.arrival(b));
+        return Integer.compare(jobs.id(a), jobs.id(b));
+    }
 
-            prevEndTime = elapsedTime;
+    protected void addReady(int row) {
+        readyQueue.insert(row);
+    }
 
-            jobCount++;
-            finishedJobs.add(currJob);
+    protected int nextReady() {
+        return readyQueue.delMin();
+    }
 
-        }
-        if (jobList.size() == jobCount) bJobsProcessed = true;
+    protected boolean hasReady() {
+        return !readyQueue.isEmpty();
     }
 
 
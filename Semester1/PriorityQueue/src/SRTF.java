@@ -0,0 +1,63 @@
+/*  Shortest-Remaining-Time-First (SRTF) scheduler, the preemptive version of SJF
+ *  Whenever the processor is free, the job with the least remaining time runs. When a job arrives that needs less time
+ *  than the running job has left, the running job is preempted and goes back to the ready queue with its remaining time.
+ *  The ready queue is an indexed min heap (IndexMinPQ_dAry) of job rows, keyed by remaining time with ties broken by
+ *  order of arrival (arrival time, then id), so both picking the next job and checking an arrival for preemption take
+ *  O(log n). The heap grows with the job table, so it also works in streaming mode, where rows are reused as jobs
+ *  finish, and gives the same schedule there as on the whole list.
+ *  The schedule is computed by the event-driven core in JobSchedulerModel.simulate().
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class SRTF extends JobSchedulerModel {
+
+    //rows of the jobs that are waiting to run, keyed by (remaining time, order of arrival)
+    private IndexMinPQ_dAry<Long> readyQueue;
+    private int[] arrivalOrder;     // order in which each job arrived, unsigned: ties are in order for 2^32 arrivals
+    private int arrivals;           // counter giving that order
+
+    public SRTF(ArrayList<Job> jobList) {
+        super(jobList);
+        myQTpye = "SRTF";
+    }
+
+    public SRTF(JobTable jobs) {
+        super(jobs);
+        myQTpye = "SRTF";
+    }
+
+    public void computeSchedule() {
+        simulate();
+    }
+
+    protected void resetReadyQueue() {
+        readyQueue = new IndexMinPQ_dAry<Long>(jobs.size());
+        arrivalOrder = new int[jobs.size()];
+        arrivals = 0;
+    }
+
+    protected void addReady(int row) {
+        //rows grow with the table, and are reused in streaming mode
+        if (row >= arrivalOrder.length)
+            arrivalOrder = Arrays.copyOf(arrivalOrder, Math.max(row + 1, 2 * arrivalOrder.length));
+        readyQueue.ensureCapacity(arrivalOrder.length);
+        //a job that has not started yet has just arrived; a preempted job keeps its place among equal remaining times
+        if (jobs.start(row) < 0) arrivalOrder[row] = arrivals++;
+        readyQueue.insert(row, ((long) jobs.remaining(row) << 32) | Integer.toUnsignedLong(arrivalOrder[row]));
+    }
+
+    protected int nextReady() {
+        return readyQueue.delMin();
+    }
+
+    protected boolean hasReady() {
+        return !readyQueue.isEmpty();
+    }
+
+    //an arriving job preempts only if it needs strictly less time than the running job has left
+    protected boolean preempts(int arrived, int running, int runningLeft) {
+        return jobs.remaining(arrived) < runningLeft;
+    }
+}
@@ -104,6 +104,25 @@ public class ScheduleTester {
 //            roundRobin.printFinishedSchedule();
 ////        }
 
+        //Preemptive schedulers
+        SRTF mySRTF = new SRTF(jobList);
+        mySRTF.computeSchedule();
+        System.out.println();
+        mySRTF.printFinishedSchedule();
+        System.out.println();
+
+        MLFQ myMLFQ = new MLFQ(jobList, new int[]{1, 2, 4}, 10);
+        myMLFQ.computeSchedule();
+        myMLFQ.printFinishedSchedule();
+        System.out.println();
+
+        //Two processors, each with its own SJF run queue, idle cores stealing waiting jobs
+        MultiCoreScheduler twoCores = new MultiCoreScheduler(jobList, 2, MultiCoreScheduler.Policy.SJF, true);
+        twoCores.computeSchedule();
+        twoCores.printFinishedSchedule();
+        System.out.println();
+        twoCores.printCoreStats();
+
 //            SJF_Example mySJF2 = new SJF_Example(jobList); // new Job.SortbyProcTime;
 //            mySJF2.calculateSJFSchedule();
 //            mySJF2.printBestQ();
@@ -0,0 +1,242 @@
+/*  Bounded top-K selector for a stream of keys
+ *  Keeps the K largest keys seen so far in a fixed-size min heap (pq[1..k], 1-based like MinPQ), so the smallest
+ *  of the kept keys is always on top. A new key that is not larger than the top is rejected with one compare;
+ *  otherwise it replaces the top and is sunk into place, which is O(log K). Memory stays O(K) however long the
+ *  stream is, and nothing is allocated after construction.
+ *  Parallel workers can each fill their own TopK and then merge them: the top K of the union is the top K of the
+ *  partial results.
+ */
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+public class TopK<Key> implements Iterable<Key> {
+
+    private final Key[] pq;                    // min heap of the kept keys at indices 1 to n
+    private final int k;                       // maximum number of keys kept
+    private int n;                             // number of keys kept
+    private final Comparator<Key> comparator;  // optional comparator
+
+    /**
+     * Initializes an empty selector for the k largest keys in their natural order.
+     *
+     * @param k the number of keys to keep
+     * @throws IllegalArgumentException if k < 1
+     */
+    public TopK(int k) {
+        this(k, null);
+    }
+
+    /**
+     * Initializes an empty selector for the k largest keys using the given comparator.
+     *
+     * @param k the number of keys to keep
+     * @param comparator the order in which to compare the keys, or null for their natural order
+     * @throws IllegalArgumentException if k < 1
+     */
+    public TopK(int k, Comparator<Key> comparator) {
+        if (k < 1) throw new IllegalArgumentException("k must be positive: " + k);
+        this.k = k;
+        this.comparator = comparator;
+        pq = (Key[]) new Object[k + 1];
+    }
+
+    /**
+     * Offers a key from the stream.
+     *
+     * @param x the key
+     * @return true if x is now one of the k largest keys, false if it was rejected
+     */
+    public boolean offer(Key x) {
+        if (x == null) throw new IllegalArgumentException("Key is null");
+        if (n < k) {
+            pq[++n] = x;
+            swim(n);
+            return true;
+        }
+        //O(1) rejection: not larger than the smallest kept key
+        if (compare(x, pq[1]) <= 0) return false;
+        pq[1] = x;
+        sink(1);
+        return true;
+    }
+
+    /**
+     * Offers every key of the array.
+     *
+     * @param keys the keys
+     */
+    public void offerAll(Key[] keys) {
+        for (Key x : keys)
+            offer(x);
+    }
+
+    /**
+     * Merges the keys kept by another selector into this one, leaving the other unchanged.
+     * Afterwards this selector holds the k largest keys of both streams.
+     *
+     * @param other a partial result, for example from another worker
+     * @throws IllegalArgumentException if other is this selector
+     */
+    public void merge(TopK<Key> other) {
+        if (other == this) throw new IllegalArgumentException("Cannot merge a selector with itself");
+        for (int i = 1; i <= other.n; i++)
+            offer(other.pq[i]);
+    }
+
+    /**
+     * Returns the k largest keys of several partial results.
+     *
+     * @param k the number of keys to keep
+     * @param comparator the order in which to compare the keys, or null for their natural order
+     * @param parts the partial results
+     * @return a new selector holding the merged result
+     */
+    public static <Key> TopK<Key> merge(int k, Comparator<Key> comparator, Iterable<TopK<Key>> parts) {
+        TopK<Key> result = new TopK<Key>(k, comparator);
+        for (TopK<Key> part : parts)
+            result.merge(part);
+        return result;
+    }
+
+    /**
+     * Returns the smallest of the kept keys: the k-th largest key seen once the selector is full.
+     *
+     * @return the smallest kept key
+     * @throws NoSuchElementException if no key has been offered
+     */
+    public Key min() {
+        if (n == 0) throw new NoSuchElementException("No keys offered");
+        return pq[1];
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    public boolean isFull() {
+        return n == k;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Returns the kept keys from largest to smallest.
+     *
+     * @return a new list of the kept keys in descending order
+     */
+    public List<Key> toSortedList() {
+        List<Key> list = new ArrayList<Key>(n);
+        for (int i = 1; i <= n; i++)
+            list.add(pq[i]);
+        list.sort(comparator == null ? (v, w) -> ((Comparable<Key>) w).compareTo(v) : comparator.reversed());
+        return list;
+    }
+
+    /**
+     * Returns an iterator over the kept keys in heap order (not sorted), without copying them.
+     *
+     * @return an iterator over the kept keys
+     */
+    public Iterator<Key> iterator() {
+        return new Iterator<Key>() {
+            private int i = 1;
+
+            public boolean hasNext() { return i <= n; }
+
+            public Key next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return pq[i++];
+            }
+        };
+    }
+
+    /***************************************************************************
+     * Helper functions to restore the heap invariant.
+     ***************************************************************************/
+
+    private void swim(int k) {
+        while (k > 1 && greater(k/2, k)) {
+            exch(k, k/2);
+            k = k/2;
+        }
+    }
+
+    private void sink(int k) {
+        while (2*k <= n) {
+            int j = 2*k;
+            if (j < n && greater(j, j+1)) j++;
+            if (!greater(k, j)) break;
+            exch(k, j);
+            k = j;
+        }
+    }
+
+    /***************************************************************************
+     * Helper functions for compares and swaps.
+     ***************************************************************************/
+    private boolean greater(int i, int j) {
+        return compare(pq[i], pq[j]) > 0;
+    }
+
+    private int compare(Key v, Key w) {
+        if (comparator == null) return ((Comparable<Key>) v).compareTo(w);
+        return comparator.compare(v, w);
+    }
+
+    private void exch(int i, int j) {
+        Key swap = pq[i];
+        pq[i] = pq[j];
+        pq[j] = swap;
+    }
+
+    /**
+     * Selects the 10 largest of 10M random integers with 4 workers that each keep a partial TopK,
+     * merges the partial results and checks them against sorting all the keys
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int k = 10;
+        int n = 10000000;
+        int workers = 4;
+        Integer[] stream = new Integer[n];
+        java.util.Random random = new java.util.Random(42);
+        for (int i = 0; i < n; i++)
+            stream[i] = random.nextInt();
+
+        List<TopK<Integer>> parts = new ArrayList<TopK<Integer>>();
+        Thread[] threads = new Thread[workers];
+        long start = System.nanoTime();
+        for (int w = 0; w < workers; w++) {
+            TopK<Integer> part = new TopK<Integer>(k);
+            parts.add(part);
+            int from = (int) ((long) n * w / workers);
+            int to = (int) ((long) n * (w + 1) / workers);
+            threads[w] = new Thread(() -> {
+                for (int i = from; i < to; i++)
+                    part.offer(stream[i]);
+            });
+            threads[w].start();
+        }
+        for (Thread t : threads) t.join();
+        TopK<Integer> top = TopK.merge(k, null, parts);
+        long elapsed = System.nanoTime() - start;
+        System.out.println("Top " + k + " of " + n + " keys with " + workers + " workers in " + elapsed / 1000000 + " ms:");
+        System.out.println(top.toSortedList());
+
+        start = System.nanoTime();
+        Integer[] sorted = stream.clone();
+        java.util.Arrays.sort(sorted, Comparator.reverseOrder());
+        elapsed = System.nanoTime() - start;
+        List<Integer> expected = java.util.Arrays.asList(sorted).subList(0, k);
+        System.out.println("Sorting all keys: " + elapsed / 1000000 + " ms, same result: " + expected.equals(top.toSortedList()));
+    }
+}
@@ -18,14 +18,64 @@ public class BubbleSort extends Sorting {
 //                    exchanges++;
 //                }
 
-            System.out.print(i + "\t");
-            show(a);
-            System.out.println();
+            if (listener != null) listener.passComplete(a, i + "\t");
 
 //            if (exchanges == 0) break;
         }
     }
 
+    //unlike sort(Comparable[]), stop after the first pass without an exchange
+    public static void sort(int[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(int[] a, int from, int to){
+        rangeCheck(a.length, from, to);
+        for (int end = to - 1; end > from; end--) {
+            boolean exchanged = false;
+            for (int j = from; j < end; j++) {
+                if (less(a[j+1], a[j])) {
+                    exchange(a, j, j + 1);
+                    exchanged = true;
+                }
+            }
+            if (!exchanged) break;
+        }
+    }
+
+    public static void sort(long[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(long[] a, int from, int to){
+        rangeCheck(a.length, from, to);
+        for (int end = to - 1; end > from; end--) {
+            boolean exchanged = false;
+            for (int j = from; j < end; j++) {
+                if (less(a[j+1], a[j])) {
+                    exchange(a, j, j + 1);
+                    exchanged = true;
+                }
+            }
+            if (!exchanged) break;
+        }
+    }
+
+    public static void sort(double[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(double[] a, int from, int to){
+        rangeCheck(a.length, from, to);
+        for (int end = to - 1; end > from; end--) {
+            boolean exchanged = false;
+            for (int j = from; j < end; j++) {
+                if (less(a[j+1], a[j])) {
+                    exchange(a, j, j + 1);
+                    exchanged = true;
+                }
+            }
+            if (!exchanged) break;
+        }
+    }
+
     public static void main(String[] args) {
 
         String myString = "ILOVEALGORITHMS";
@@ -37,7 +87,9 @@ public class BubbleSort extends Sorting {
         System.out.println();
         System.out.print("\t\t");
         show(a);
+        setListener(new TraceListener());
         sort(a);
+        setListener(null);
         assert isSorted(a);
         System.out.print("\t\t");
         show(a);
@@ -0,0 +1,350 @@
+/*  External mergesort for files of long keys that are too big to sort in memory.
+ *  The input is a binary file of 8-byte big-endian longs (as written by DataOutputStream.writeLong).
+ *  1. Run formation: the input is read one memory budget's worth of keys at a time, each chunk is sorted in place
+ *     with IntroSort and written out to a temporary run file.
+ *  2. Merging: up to fanIn runs at a time are merged into a longer run by a k-way merge. A binary min heap holds one
+ *     reader per run ordered by its current key; the top reader moves to its next key and is sunk back into place, so
+ *     each output key costs one sink on a heap of k readers.
+ *     Passes repeat until one run is left, which is written to the output file.
+ *  Every file is read and written with positional FileChannel reads and writes through one direct buffer per reader
+ *  or writer, refilled in place, so no pass copies the data through the Java heap except for the chunk being sorted.
+ *  (Mapping a new window each time instead leaves the old mappings to the garbage collector, which a merge that
+ *  allocates almost nothing never runs, until the process runs out of memory maps.) File positions are longs, so
+ *  inputs of tens of GB only need enough disk for one extra copy of the data.
+ */
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+public class ExternalSort extends Sorting {
+
+    private static final long DEFAULT_MEMORY_BUDGET = 256L << 20;   // bytes of keys sorted in memory at once
+    private static final int DEFAULT_FAN_IN = 64;                   // runs merged per pass
+    private static final int MAX_CHUNK_LONGS = Integer.MAX_VALUE / Long.BYTES;     // largest long[] / buffer we use
+    private static final int IO_BUFFER_LONGS = 1 << 16;             // buffer of each file read or written in run formation
+
+    /** Sorts the longs in input into output using the default memory budget and fan-in, with temp files next to output
+     * @param input file of big-endian longs
+     * @param output file to write the sorted longs to (replaced if it exists)
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void sort(Path input, Path output) throws IOException {
+        Path dir = output.toAbsolutePath().getParent();
+        sort(input, output, DEFAULT_MEMORY_BUDGET, DEFAULT_FAN_IN, dir);
+    }
+
+    /** Sorts the longs in input into output
+     * @param input file of big-endian longs
+     * @param output file to write the sorted longs to (replaced if it exists)
+     * @param memoryBudget bytes of keys to sort in memory per run; the merge windows share the same budget
+     * @param fanIn number of runs merged in one pass (at least 2)
+     * @param tempDir directory for the run files
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void sort(Path input, Path output, long memoryBudget, int fanIn, Path tempDir) throws IOException {
+        if (memoryBudget < Long.BYTES) throw new IllegalArgumentException("Memory budget too small: " + memoryBudget);
+        if (fanIn < 2) throw new IllegalArgumentException("Fan-in must be at least 2: " + fanIn);
+        long bytes = Files.size(input);
+        if (bytes % Long.BYTES != 0) throw new IllegalArgumentException(input + " is not a whole number of longs: " + bytes + " bytes");
+
+        ArrayList<Path> runs = createRuns(input, bytes / Long.BYTES, memoryBudget, tempDir);
+        //every run file created, including those of a pass that fails partway; the ones merged away or moved to
+        //output no longer exist and are skipped by deleteIfExists
+        ArrayList<Path> created = new ArrayList<>(runs);
+        try {
+            //each merge reader and the writer get an equal share of the budget as their buffer
+            int windowLongs = (int) Math.max(1, Math.min(MAX_CHUNK_LONGS, memoryBudget / Long.BYTES / (fanIn + 1)));
+            while (runs.size() > 1) {
+                ArrayList<Path> merged = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += fanIn) {
+                    java.util.List<Path> group = runs.subList(i, Math.min(i + fanIn, runs.size()));
+                    if (group.size() == 1) {
+                        merged.add(group.get(0));
+                        continue;
+                    }
+                    Path run = Files.createTempFile(tempDir, "run", ".bin");
+                    created.add(run);
+                    merge(group, run, windowLongs);
+                    for (Path p : group) Files.deleteIfExists(p);
+                    merged.add(run);
+                }
+                runs = merged;
+            }
+            if (runs.isEmpty()) {
+                Files.deleteIfExists(output);
+                Files.createFile(output);
+            }
+            else {
+                Files.move(runs.get(0), output, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        finally {
+            for (Path p : created) Files.deleteIfExists(p);
+        }
+    }
+
+    //Sorts the input one memory budget at a time and writes each chunk to its own run file
+    private static ArrayList<Path> createRuns(Path input, long n, long memoryBudget, Path tempDir) throws IOException {
+        ArrayList<Path> runs = new ArrayList<>();
+        int chunkLongs = (int) Math.min(Math.min(MAX_CHUNK_LONGS, memoryBudget / Long.BYTES), Math.max(n, 1));
+        long[] chunk = new long[chunkLongs];
+        try (RunReader in = new RunReader(input, Math.min(IO_BUFFER_LONGS, chunkLongs))) {
+            for (long start = 0; start < n; start += chunkLongs) {
+                int len = (int) Math.min(chunkLongs, n - start);
+                in.read(chunk, len);
+                IntroSort.sort(chunk, 0, len);
+                Path run = Files.createTempFile(tempDir, "run", ".bin");
+                runs.add(run);
+                try (RunWriter out = new RunWriter(run, Math.min(IO_BUFFER_LONGS, len))) {
+                    out.write(chunk, len);
+                }
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            for (Path p : runs) Files.deleteIfExists(p);
+            throw e;
+        }
+        return runs;
+    }
+
+    //k-way merge of the sorted run files into output
+    private static void merge(java.util.List<Path> group, Path output, int windowLongs) throws IOException {
+        ArrayList<RunReader> readers = new ArrayList<>();
+        try {
+            ReaderHeap heap = new ReaderHeap(group.size());
+            for (Path p : group) {
+                RunReader r = new RunReader(p, windowLongs);
+                readers.add(r);
+                if (r.advance()) heap.insert(r);
+            }
+            try (RunWriter out = new RunWriter(output, windowLongs)) {
+                while (!heap.isEmpty()) {
+                    RunReader r = heap.min();
+                    out.write(r.head);
+                    if (r.advance()) heap.sinkMin();
+                    else             heap.delMin();
+                }
+            }
+        }
+        finally {
+            for (RunReader r : readers) r.close();
+        }
+    }
+
+    /**
+     * Binary min heap of the readers of one merge, ordered by their current key (pq[1..n])
+     */
+    private static class ReaderHeap {
+        private final RunReader[] pq;
+        private int n;
+
+        ReaderHeap(int capacity) {
+            pq = new RunReader[capacity + 1];
+        }
+
+        boolean isEmpty() {
+            return n == 0;
+        }
+
+        RunReader min() {
+            return pq[1];
+        }
+
+        void insert(RunReader r) {
+            pq[++n] = r;
+            int k = n;
+            while (k > 1 && greater(k / 2, k)) {
+                exch(k, k / 2);
+                k = k / 2;
+            }
+        }
+
+        //removes the reader on top, once its run is exhausted
+        void delMin() {
+            exch(1, n);
+            pq[n--] = null;
+            sink(1);
+        }
+
+        //restores the heap after the reader on top has moved to a larger key
+        void sinkMin() {
+            sink(1);
+        }
+
+        private void sink(int k) {
+            while (2 * k <= n) {
+                int j = 2 * k;
+                if (j < n && greater(j, j + 1)) j++;
+                if (!greater(k, j)) break;
+                exch(k, j);
+                k = j;
+            }
+        }
+
+        private boolean greater(int i, int j) {
+            return pq[i].head > pq[j].head;
+        }
+
+        private void exch(int i, int j) {
+            RunReader swap = pq[i];
+            pq[i] = pq[j];
+            pq[j] = swap;
+        }
+    }
+
+    /**
+     * Reads a file of longs in order through one direct buffer of at most windowLongs keys, refilled with positional
+     * reads; head is the key it is currently positioned on
+     */
+    private static class RunReader implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final long end;         // number of longs in the file
+        private long next = 0;          // index of the first long not yet read into the buffer
+        private long head;              // current key
+
+        RunReader(Path path, int windowLongs) throws IOException {
+            end = Files.size(path) / Long.BYTES;
+            buffer = ByteBuffer.allocateDirect((int) Math.max(1, Math.min(windowLongs, end)) * Long.BYTES);
+            buffer.limit(0);
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        }
+
+        //reads the next keys into the buffer, returns false when the file is exhausted
+        private boolean fill() throws IOException {
+            if (next >= end) return false;
+            int len = (int) Math.min(buffer.capacity() / Long.BYTES, end - next);
+            buffer.clear().limit(len * Long.BYTES);
+            long position = next * Long.BYTES;
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) throw new EOFException("File shorter than " + end + " longs");
+            }
+            buffer.flip();
+            next += len;
+            return true;
+        }
+
+        //moves to the next key, returns false when the run is exhausted
+        boolean advance() throws IOException {
+            if (!buffer.hasRemaining() && !fill()) return false;
+            head = buffer.getLong();
+            return true;
+        }
+
+        //reads the next n keys into a[0..n)
+        void read(long[] a, int n) throws IOException {
+            int i = 0;
+            while (i < n) {
+                if (!buffer.hasRemaining() && !fill()) throw new EOFException("File shorter than " + end + " longs");
+                int len = Math.min(buffer.remaining() / Long.BYTES, n - i);
+                buffer.asLongBuffer().get(a, i, len);
+                buffer.position(buffer.position() + len * Long.BYTES);
+                i += len;
+            }
+        }
+
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes a file of longs through one direct buffer of windowLongs keys, written out with positional writes each
+     * time it fills up and on close
+     */
+    private static class RunWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private long position = 0;      // bytes written to the file so far
+
+        RunWriter(Path path, int windowLongs) throws IOException {
+            buffer = ByteBuffer.allocateDirect(Math.max(1, windowLongs) * Long.BYTES);
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining())
+                position += channel.write(buffer, position);
+            buffer.clear();
+        }
+
+        void write(long v) throws IOException {
+            if (!buffer.hasRemaining()) flush();
+            buffer.putLong(v);
+        }
+
+        void write(long[] a, int n) throws IOException {
+            int i = 0;
+            while (i < n) {
+                if (!buffer.hasRemaining()) flush();
+                int len = Math.min(buffer.remaining() / Long.BYTES, n - i);
+                buffer.asLongBuffer().put(a, i, len);
+                buffer.position(buffer.position() + len * Long.BYTES);
+                i += len;
+            }
+        }
+
+        public void close() throws IOException {
+            try {
+                flush();
+            }
+            finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Writes random longs to a temporary file, sorts it with a small memory budget and checks the result. Then sorts
+     * 123,457 keys with a budget of 8 keys and fan-in 3: about 15,000 runs and 9 passes, with a new reader or writer
+     * for every run file, which would run out of memory maps if windows were mapped instead of read into buffers.
+     * args: number of keys (default 10M), memory budget in MB (default 16), fan-in (default 8)
+     */
+    public static void main(String[] args) throws IOException {
+        long n = args.length > 0 ? Long.parseLong(args[0]) : 10000000L;
+        long budget = (args.length > 1 ? Long.parseLong(args[1]) : 16) << 20;
+        int fanIn = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        check(n, budget, fanIn);
+        check(123457, 8 * Long.BYTES, 3);
+    }
+
+    //sorts n random keys with the given budget (in bytes) and fan-in, and prints whether the output is right
+    private static void check(long n, long budget, int fanIn) throws IOException {
+        Path dir = Files.createTempDirectory("extsort");
+        Path input = dir.resolve("input.bin");
+        Path output = dir.resolve("output.bin");
+        java.util.Random random = new java.util.Random();
+        try (RunWriter out = new RunWriter(input, 1 << 16)) {
+            for (long i = 0; i < n; i++) out.write(random.nextLong());
+        }
+
+        long start = System.nanoTime();
+        sort(input, output, budget, fanIn, dir);
+        long elapsed = System.nanoTime() - start;
+
+        long count = 0;
+        boolean sorted = true;
+        try (RunReader r = new RunReader(output, 1 << 16)) {
+            long prev = Long.MIN_VALUE;
+            while (r.advance()) {
+                if (r.head < prev) sorted = false;
+                prev = r.head;
+                count++;
+            }
+        }
+        System.out.printf("n = %d, budget = %d bytes, fan-in = %d: %.1f ms, sorted = %b, count ok = %b%n",
+                n, budget, fanIn, elapsed / 1e6, sorted, count == n);
+        Files.deleteIfExists(input);
+        Files.deleteIfExists(output);
+        Files.deleteIfExists(dir);
+    }
+}
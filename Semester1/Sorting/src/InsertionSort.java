@@ -7,9 +7,86 @@ public class InsertionSort extends Sorting {
                 exchange(a, j, j - 1);
                 lastExch = j - 1;
             }
-            System.out.print(i + "\t" + lastExch + "\t");
-            show(a);
-            System.out.println();
+            if (listener != null) listener.passComplete(a, i + "\t" + lastExch + "\t");
+        }
+    }
+
+    //Sorts a[from..to-1] without reporting passes; used as the small-range cutoff by the other sorts
+    public static void sort(Comparable[] a, int from, int to){
+        rangeCheck(a.length, from, to);
+        for (int i = from + 1; i < to; i++) {
+            for (int j = i; j > from && less(a[j], a[j-1]); j--) {
+                exchange(a, j, j - 1);
+            }
+        }
+    }
+
+    //Sorts a[from..to-1] for keys that are known to agree on their first d characters; used as the cutoff by the string sorts
+    public static void sort(String[] a, int from, int to, int d){
+        rangeCheck(a.length, from, to);
+        for (int i = from + 1; i < to; i++) {
+            String v = a[i];
+            int j = i;
+            for (; j > from && less(v, a[j-1], d); j--) {
+                a[j] = a[j-1];
+            }
+            a[j] = v;
+        }
+    }
+
+    //is v less than w, comparing from character d on
+    private static boolean less(String v, String w, int d){
+        int n = Math.min(v.length(), w.length());
+        for (int i = d; i < n; i++) {
+            if (v.charAt(i) < w.charAt(i)) return true;
+            if (v.charAt(i) > w.charAt(i)) return false;
+        }
+        return v.length() < w.length();
+    }
+
+    //shift the larger keys right and write v once, instead of an exchange per step
+    public static void sort(int[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(int[] a, int from, int to){
+        rangeCheck(a.length, from, to);
+        for (int i = from + 1; i < to; i++) {
+            int v = a[i];
+            int j = i;
+            for (; j > from && less(v, a[j-1]); j--) {
+                a[j] = a[j-1];
+            }
+            a[j] = v;
+        }
+    }
+
+    public static void sort(long[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(long[] a, int from, int to){
+        rangeCheck(a.length, from, to);
+        for (int i = from + 1; i < to; i++) {
+            long v = a[i];
+            int j = i;
+            for (; j > from && less(v, a[j-1]); j--) {
+                a[j] = a[j-1];
+            }
+            a[j] = v;
+        }
+    }
+
+    public static void sort(double[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(double[] a, int from, int to){
+        rangeCheck(a.length, from, to);
+        for (int i = from + 1; i < to; i++) {
+            double v = a[i];
+            int j = i;
+            for (; j > from && less(v, a[j-1]); j--) {
+                a[j] = a[j-1];
+            }
+            a[j] = v;
         }
     }
 
@@ -23,7 +100,9 @@ public class InsertionSort extends Sorting {
         System.out.println();
         System.out.print("\t\t");
         show(a);
+        setListener(new TraceListener());
         sort(a);
+        setListener(null);
         assert isSorted(a);
         System.out.print("\t\t");
         show(a);
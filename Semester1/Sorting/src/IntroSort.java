@@ -0,0 +1,470 @@
+/*  Introsort built on dual-pivot quicksort.
+ *  Each partitioning step sorts five evenly spaced samples. If they are all distinct, the 2nd and 4th become the
+ *  two pivots of a dual-pivot partition into three parts. If any two are equal the keys are likely to have many
+ *  duplicates, so the middle sample is used for a 3-way (Dijkstra) partition instead and the keys equal to it are done.
+ *  Subarrays smaller than the cutoff are finished with insertion sort, and once the recursion is more than
+ *  2 log n partitions deep the subarray is heapsorted by heapSort below, a local 4-ary copy of the d-ary heapsort
+ *  in the Heapsort module's HeapSort_dAry (which is not on this module's path), so the worst case is O(n log n) even
+ *  on adversarial input. The sort is in place and not stable.
+ */
+
+public class IntroSort extends Sorting {
+
+    private static final int INSERTION_CUTOFF = 27;     // subarrays smaller than this go to InsertionSort
+    private static final int HEAP_ARITY = 4;            // d of the fallback d-ary heapsort
+
+    //floor(log2(n)) for n >= 1
+    private static int log2(int n){
+        return 31 - Integer.numberOfLeadingZeros(n);
+    }
+
+    public static void sort(Comparable[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(Comparable[] a, int from, int to){
+        rangeCheck(a.length, from, to);
+        if (to - from < 2) return;
+        sort(a, from, to - 1, 2 * log2(to - from));
+    }
+
+    //sort a[lo..hi], switching to heapsort once depthLimit partitions have been made on this path
+    private static void sort(Comparable[] a, int lo, int hi, int depthLimit){
+        int len = hi - lo + 1;
+        if (len < INSERTION_CUTOFF) {
+            InsertionSort.sort(a, lo, hi + 1);
+            return;
+        }
+        if (depthLimit == 0) {
+            heapSort(a, lo, hi);
+            return;
+        }
+        depthLimit--;
+
+        //Five evenly spaced samples around the middle, sorted in place with compare-exchanges
+        int seventh = (len >> 3) + (len >> 6) + 1;
+        int e3 = (lo + hi) >>> 1;
+        int e2 = e3 - seventh;
+        int e1 = e2 - seventh;
+        int e4 = e3 + seventh;
+        int e5 = e4 + seventh;
+        compareExchange(a, e1, e2);
+        compareExchange(a, e2, e3);
+        compareExchange(a, e1, e2);
+        compareExchange(a, e3, e4);
+        compareExchange(a, e2, e3);
+        compareExchange(a, e1, e2);
+        compareExchange(a, e4, e5);
+        compareExchange(a, e3, e4);
+        compareExchange(a, e2, e3);
+        compareExchange(a, e1, e2);
+
+        if (less(a[e1], a[e2]) && less(a[e2], a[e3]) && less(a[e3], a[e4]) && less(a[e4], a[e5])) {
+            //Distinct samples: dual-pivot partition on p1 = a[e2] < p2 = a[e4] into
+            //a[lo+1..lt-1] < p1 <= a[lt..gt] <= p2 < a[gt+1..hi-1]
+            exchange(a, lo, e2);
+            exchange(a, hi, e4);
+            Comparable p1 = a[lo];
+            Comparable p2 = a[hi];
+            int lt = lo + 1;
+            int gt = hi - 1;
+            int i = lo + 1;
+            while (i <= gt) {
+                if (less(a[i], p1)) exchange(a, lt++, i++);
+                else if (less(p2, a[i])) exchange(a, i, gt--);
+                else i++;
+            }
+            exchange(a, lo, --lt);
+            exchange(a, hi, ++gt);
+            sort(a, lo, lt - 1, depthLimit);
+            if (less(a[lt], a[gt])) sort(a, lt + 1, gt - 1, depthLimit);
+            sort(a, gt + 1, hi, depthLimit);
+        }
+        else {
+            //Repeated samples suggest many equal keys: 3-way partition on a[e3] into
+            //a[lo..lt-1] < v = a[lt..gt] < a[gt+1..hi], the equal keys are then never looked at again
+            exchange(a, lo, e3);
+            Comparable v = a[lo];
+            int lt = lo;
+            int gt = hi;
+            int i = lo + 1;
+            while (i <= gt) {
+                if (less(a[i], v)) exchange(a, lt++, i++);
+                else if (less(v, a[i])) exchange(a, i, gt--);
+                else i++;
+            }
+            sort(a, lo, lt - 1, depthLimit);
+            sort(a, gt + 1, hi, depthLimit);
+        }
+    }
+
+    private static void compareExchange(Comparable[] a, int i, int j){
+        if (less(a[j], a[i])) exchange(a, i, j);
+    }
+
+    //d-ary heapsort of a[lo..hi] as in HeapSort_dAry, with the root at a[lo] and children of k at D*k+1..D*k+D
+    private static void heapSort(Comparable[] a, int lo, int hi){
+        int n = hi - lo + 1;
+        for (int k = (n - 2) / HEAP_ARITY; k >= 0; k--)
+            sink(a, lo, k, n);
+        while (n > 1) {
+            exchange(a, lo, lo + --n);
+            sink(a, lo, 0, n);
+        }
+    }
+
+    //Top-down reheapify of node k in a heap of n keys starting at a[lo], moving the key into a hole
+    private static void sink(Comparable[] a, int lo, int k, int n){
+        Comparable v = a[lo + k];
+        while (true) {
+            int child = HEAP_ARITY * k + 1;
+            if (child >= n) break;
+            int largest = child;
+            int last = Math.min(child + HEAP_ARITY, n);
+            for (int j = child + 1; j < last; j++) {
+                if (less(a[lo + largest], a[lo + j])) largest = j;
+            }
+            if (!less(v, a[lo + largest])) break;
+            a[lo + k] = a[lo + largest];
+            k = largest;
+        }
+        a[lo + k] = v;
+    }
+
+    public static void sort(int[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(int[] a, int from, int to){
+        rangeCheck(a.length, from, to);
+        if (to - from < 2) return;
+        sort(a, from, to - 1, 2 * log2(to - from));
+    }
+
+    private static void sort(int[] a, int lo, int hi, int depthLimit){
+        int len = hi - lo + 1;
+        if (len < INSERTION_CUTOFF) {
+            InsertionSort.sort(a, lo, hi + 1);
+            return;
+        }
+        if (depthLimit == 0) {
+            heapSort(a, lo, hi);
+            return;
+        }
+        depthLimit--;
+
+        int seventh = (len >> 3) + (len >> 6) + 1;
+        int e3 = (lo + hi) >>> 1;
+        int e2 = e3 - seventh;
+        int e1 = e2 - seventh;
+        int e4 = e3 + seventh;
+        int e5 = e4 + seventh;
+        compareExchange(a, e1, e2);
+        compareExchange(a, e2, e3);
+        compareExchange(a, e1, e2);
+        compareExchange(a, e3, e4);
+        compareExchange(a, e2, e3);
+        compareExchange(a, e1, e2);
+        compareExchange(a, e4, e5);
+        compareExchange(a, e3, e4);
+        compareExchange(a, e2, e3);
+        compareExchange(a, e1, e2);
+
+        if (less(a[e1], a[e2]) && less(a[e2], a[e3]) && less(a[e3], a[e4]) && less(a[e4], a[e5])) {
+            exchange(a, lo, e2);
+            exchange(a, hi, e4);
+            int p1 = a[lo];
+            int p2 = a[hi];
+            int lt = lo + 1;
+            int gt = hi - 1;
+            int i = lo + 1;
+            while (i <= gt) {
+                if (less(a[i], p1)) exchange(a, lt++, i++);
+                else if (less(p2, a[i])) exchange(a, i, gt--);
+                else i++;
+            }
+            exchange(a, lo, --lt);
+            exchange(a, hi, ++gt);
+            sort(a, lo, lt - 1, depthLimit);
+            if (less(a[lt], a[gt])) sort(a, lt + 1, gt - 1, depthLimit);
+            sort(a, gt + 1, hi, depthLimit);
+        }
+        else {
+            exchange(a, lo, e3);
+            int v = a[lo];
+            int lt = lo;
+            int gt = hi;
+            int i = lo + 1;
+            while (i <= gt) {
+                if (less(a[i], v)) exchange(a, lt++, i++);
+                else if (less(v, a[i])) exchange(a, i, gt--);
+                else i++;
+            }
+            sort(a, lo, lt - 1, depthLimit);
+            sort(a, gt + 1, hi, depthLimit);
+        }
+    }
+
+    private static void compareExchange(int[] a, int i, int j){
+        if (less(a[j], a[i])) exchange(a, i, j);
+    }
+
+    private static void heapSort(int[] a, int lo, int hi){
+        int n = hi - lo + 1;
+        for (int k = (n - 2) / HEAP_ARITY; k >= 0; k--)
+            sink(a, lo, k, n);
+        while (n > 1) {
+            exchange(a, lo, lo + --n);
+            sink(a, lo, 0, n);
+        }
+    }
+
+    private static void sink(int[] a, int lo, int k, int n){
+        int v = a[lo + k];
+        while (true) {
+            int child = HEAP_ARITY * k + 1;
+            if (child >= n) break;
+            int largest = child;
+            int last = Math.min(child + HEAP_ARITY, n);
+            for (int j = child + 1; j < last; j++) {
+                if (less(a[lo + largest], a[lo + j])) largest = j;
+            }
+            if (!less(v, a[lo + largest])) break;
+            a[lo + k] = a[lo + largest];
+            k = largest;
+        }
+        a[lo + k] = v;
+    }
+
+    public static void sort(long[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(long[] a, int from, int to){
+        rangeCheck(a.length, from, to);
+        if (to - from < 2) return;
+        sort(a, from, to - 1, 2 * log2(to - from));
+    }
+
+    private static void sort(long[] a, int lo, int hi, int depthLimit){
+        int len = hi - lo + 1;
+        if (len < INSERTION_CUTOFF) {
+            InsertionSort.sort(a, lo, hi + 1);
+            return;
+        }
+        if (depthLimit == 0) {
+            heapSort(a, lo, hi);
+            return;
+        }
+        depthLimit--;
+
+        int seventh = (len >> 3) + (len >> 6) + 1;
+        int e3 = (lo + hi) >>> 1;
+        int e2 = e3 - seventh;
+        int e1 = e2 - seventh;
+        int e4 = e3 + seventh;
+        int e5 = e4 + seventh;
+        compareExchange(a, e1, e2);
+        compareExchange(a, e2, e3);
+        compareExchange(a, e1, e2);
+        compareExchange(a, e3, e4);
+        compareExchange(a, e2, e3);
+        compareExchange(a, e1, e2);
+        compareExchange(a, e4, e5);
+        compareExchange(a, e3, e4);
+        compareExchange(a, e2, e3);
+        compareExchange(a, e1, e2);
+
+        if (less(a[e1], a[e2]) && less(a[e2], a[e3]) && less(a[e3], a[e4]) && less(a[e4], a[e5])) {
+            exchange(a, lo, e2);
+            exchange(a, hi, e4);
+            long p1 = a[lo];
+            long p2 = a[hi];
+            int lt = lo + 1;
+            int gt = hi - 1;
+            int i = lo + 1;
+            while (i <= gt) {
+                if (less(a[i], p1)) exchange(a, lt++, i++);
+                else if (less(p2, a[i])) exchange(a, i, gt--);
+                else i++;
+            }
+            exchange(a, lo, --lt);
+            exchange(a, hi, ++gt);
+            sort(a, lo, lt - 1, depthLimit);
+            if (less(a[lt], a[gt])) sort(a, lt + 1, gt - 1, depthLimit);
+            sort(a, gt + 1, hi, depthLimit);
+        }
+        else {
+            exchange(a, lo, e3);
+            long v = a[lo];
+            int lt = lo;
+            int gt = hi;
+            int i = lo + 1;
+            while (i <= gt) {
+                if (less(a[i], v)) exchange(a, lt++, i++);
+                else if (less(v, a[i])) exchange(a, i, gt--);
+                else i++;
+            }
+            sort(a, lo, lt - 1, depthLimit);
+            sort(a, gt + 1, hi, depthLimit);
+        }
+    }
+
+    private static void compareExchange(long[] a, int i, int j){
+        if (less(a[j], a[i])) exchange(a, i, j);
+    }
+
+    private static void heapSort(long[] a, int lo, int hi){
+        int n = hi - lo + 1;
+        for (int k = (n - 2) / HEAP_ARITY; k >= 0; k--)
+            sink(a, lo, k, n);
+        while (n > 1) {
+            exchange(a, lo, lo + --n);
+            sink(a, lo, 0, n);
+        }
+    }
+
+    private static void sink(long[] a, int lo, int k, int n){
+        long v = a[lo + k];
+        while (true) {
+            int child = HEAP_ARITY * k + 1;
+            if (child >= n) break;
+            int largest = child;
+            int last = Math.min(child + HEAP_ARITY, n);
+            for (int j = child + 1; j < last; j++) {
+                if (less(a[lo + largest], a[lo + j])) largest = j;
+            }
+            if (!less(v, a[lo + largest])) break;
+            a[lo + k] = a[lo + largest];
+            k = largest;
+        }
+        a[lo + k] = v;
+    }
+
+    public static void sort(double[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(double[] a, int from, int to){
+        rangeCheck(a.length, from, to);
+        if (to - from < 2) return;
+        sort(a, from, to - 1, 2 * log2(to - from));
+    }
+
+    private static void sort(double[] a, int lo, int hi, int depthLimit){
+        int len = hi - lo + 1;
+        if (len < INSERTION_CUTOFF) {
+            InsertionSort.sort(a, lo, hi + 1);
+            return;
+        }
+        if (depthLimit == 0) {
+            heapSort(a, lo, hi);
+            return;
+        }
+        depthLimit--;
+
+        int seventh = (len >> 3) + (len >> 6) + 1;
+        int e3 = (lo + hi) >>> 1;
+        int e2 = e3 - seventh;
+        int e1 = e2 - seventh;
+        int e4 = e3 + seventh;
+        int e5 = e4 + seventh;
+        compareExchange(a, e1, e2);
+        compareExchange(a, e2, e3);
+        compareExchange(a, e1, e2);
+        compareExchange(a, e3, e4);
+        compareExchange(a, e2, e3);
+        compareExchange(a, e1, e2);
+        compareExchange(a, e4, e5);
+        compareExchange(a, e3, e4);
+        compareExchange(a, e2, e3);
+        compareExchange(a, e1, e2);
+
+        if (less(a[e1], a[e2]) && less(a[e2], a[e3]) && less(a[e3], a[e4]) && less(a[e4], a[e5])) {
+            exchange(a, lo, e2);
+            exchange(a, hi, e4);
+            double p1 = a[lo];
+            double p2 = a[hi];
+            int lt = lo + 1;
+            int gt = hi - 1;
+            int i = lo + 1;
+            while (i <= gt) {
+                if (less(a[i], p1)) exchange(a, lt++, i++);
+                else if (less(p2, a[i])) exchange(a, i, gt--);
+                else i++;
+            }
+            exchange(a, lo, --lt);
+            exchange(a, hi, ++gt);
+            sort(a, lo, lt - 1, depthLimit);
+            if (less(a[lt], a[gt])) sort(a, lt + 1, gt - 1, depthLimit);
+            sort(a, gt + 1, hi, depthLimit);
+        }
+        else {
+            exchange(a, lo, e3);
+            double v = a[lo];
+            int lt = lo;
+            int gt = hi;
+            int i = lo + 1;
+            while (i <= gt) {
+                if (less(a[i], v)) exchange(a, lt++, i++);
+                else if (less(v, a[i])) exchange(a, i, gt--);
+                else i++;
+            }
+            sort(a, lo, lt - 1, depthLimit);
+            sort(a, gt + 1, hi, depthLimit);
+        }
+    }
+
+    private static void compareExchange(double[] a, int i, int j){
+        if (less(a[j], a[i])) exchange(a, i, j);
+    }
+
+    private static void heapSort(double[] a, int lo, int hi){
+        int n = hi - lo + 1;
+        for (int k = (n - 2) / HEAP_ARITY; k >= 0; k--)
+            sink(a, lo, k, n);
+        while (n > 1) {
+            exchange(a, lo, lo + --n);
+            sink(a, lo, 0, n);
+        }
+    }
+
+    private static void sink(double[] a, int lo, int k, int n){
+        double v = a[lo + k];
+        while (true) {
+            int child = HEAP_ARITY * k + 1;
+            if (child >= n) break;
+            int largest = child;
+            int last = Math.min(child + HEAP_ARITY, n);
+            for (int j = child + 1; j < last; j++) {
+                if (less(a[lo + largest], a[lo + j])) largest = j;
+            }
+            if (!less(v, a[lo + largest])) break;
+            a[lo + k] = a[lo + largest];
+            k = largest;
+        }
+        a[lo + k] = v;
+    }
+
+    public static void main(String[] args) {
+        String myString = "ILOVEALGORITHMS";
+        String[] s = myString.split("(?!^)");
+        show(s);
+        sort(s);
+        assert isSorted(s);
+        show(s);
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        java.util.Random random = new java.util.Random();
+        int[] distinct = random.ints(n).toArray();
+        int[] fewUnique = random.ints(n, 0, 10).toArray();
+        for (int[] a : new int[][] { distinct, fewUnique }) {
+            int[] b = a.clone();
+            long start = System.nanoTime();
+            MergeSortTopDown.sort(a);
+            long merge = System.nanoTime() - start;
+            start = System.nanoTime();
+            sort(b);
+            long intro = System.nanoTime() - start;
+            assert isSorted(b);
+            System.out.printf("%s n = %d: MergeSortTopDown %8.1f ms  IntroSort %8.1f ms%n",
+                    a == distinct ? "random     " : "few unique ", n, merge / 1e6, intro / 1e6);
+        }
+    }
+}
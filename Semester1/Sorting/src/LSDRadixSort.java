@@ -0,0 +1,152 @@
+/*  LSD (least-significant-digit first) radix sort adapted from Sedgewick's Algorithms 4th Ed. textbook (pp 707)
+ *  Keys are sorted one digit at a time starting from the rightmost digit using key-indexed counting. Key-indexed
+ *  counting is stable, so after the pass on the leftmost digit the keys are in order. No keys are ever compared
+ *  and the running time is proportional to W(N + R) for N keys of W digits over an alphabet of R.
+ *  int and long keys are sorted one byte at a time (4 and 8 passes) with the sign bit of the top byte flipped so
+ *  negative keys come first; a pass is skipped when every key has the same byte in that position.
+ *  Fixed-width strings use one pass per character, or two passes (low byte then high byte) when some character
+ *  is outside extended ASCII.
+ */
+
+public class LSDRadixSort extends Sorting {
+
+    private static final int BITS = 8;              // bits per digit
+    private static final int R = 1 << BITS;         // radix: one byte per pass
+    private static final int MASK = R - 1;
+
+    /** Sorts an array of strings that all have at least w characters on their first w characters
+     * @param a array of strings
+     * @param w number of characters to sort on
+     */
+    public static void sort(String[] a, int w) {
+        for (String s : a) {
+            if (s.length() < w) throw new IllegalArgumentException("Key \"" + s + "\" is shorter than width " + w);
+        }
+        int n = a.length;
+        boolean wide = !isExtendedAscii(a);
+        String[] aux = new String[n];
+        for (int d = w - 1; d >= 0; d--) {
+            sortOnByte(a, aux, d, 0);
+            if (wide) sortOnByte(a, aux, d, BITS);
+        }
+    }
+
+    //Stable key-indexed counting on the byte of character d selected by shift
+    private static void sortOnByte(String[] a, String[] aux, int d, int shift) {
+        int n = a.length;
+        int[] count = new int[R + 1];
+        for (int i = 0; i < n; i++)
+            count[((a[i].charAt(d) >> shift) & MASK) + 1]++;
+        for (int r = 0; r < R; r++)
+            count[r + 1] += count[r];
+        for (int i = 0; i < n; i++)
+            aux[count[(a[i].charAt(d) >> shift) & MASK]++] = a[i];
+        System.arraycopy(aux, 0, a, 0, n);
+    }
+
+    public static void sort(int[] a) {
+        sort(a, 0, a.length);
+    }
+
+    //Sorts a[from..to-1]; the passes alternate between a and one aux array instead of copying back each time
+    public static void sort(int[] a, int from, int to) {
+        rangeCheck(a.length, from, to);
+        int n = to - from;
+        if (n < 2) return;
+        //the range starts at from in a and at 0 in aux
+        int[] src = a, dst = new int[n];
+        int srcFrom = from, dstFrom = 0;
+        for (int pass = 0; pass < Integer.SIZE / BITS; pass++) {
+            int shift = pass * BITS;
+            //flipping the sign bit in the top byte puts negative keys first
+            int flip = (pass == Integer.SIZE / BITS - 1) ? R / 2 : 0;
+            int[] count = new int[R + 1];
+            for (int i = srcFrom; i < srcFrom + n; i++)
+                count[(((src[i] >>> shift) & MASK) ^ flip) + 1]++;
+            if (count[(((src[srcFrom] >>> shift) & MASK) ^ flip) + 1] == n) continue;
+            for (int r = 0; r < R; r++)
+                count[r + 1] += count[r];
+            for (int i = srcFrom; i < srcFrom + n; i++)
+                dst[dstFrom + count[((src[i] >>> shift) & MASK) ^ flip]++] = src[i];
+            int[] t = src;
+            src = dst;
+            dst = t;
+            int f = srcFrom;
+            srcFrom = dstFrom;
+            dstFrom = f;
+        }
+        if (src != a) System.arraycopy(src, 0, a, from, n);
+    }
+
+    public static void sort(long[] a) {
+        sort(a, 0, a.length);
+    }
+
+    public static void sort(long[] a, int from, int to) {
+        rangeCheck(a.length, from, to);
+        int n = to - from;
+        if (n < 2) return;
+        //the range starts at from in a and at 0 in aux
+        long[] src = a, dst = new long[n];
+        int srcFrom = from, dstFrom = 0;
+        for (int pass = 0; pass < Long.SIZE / BITS; pass++) {
+            int shift = pass * BITS;
+            int flip = (pass == Long.SIZE / BITS - 1) ? R / 2 : 0;
+            int[] count = new int[R + 1];
+            for (int i = srcFrom; i < srcFrom + n; i++)
+                count[(((int) (src[i] >>> shift) & MASK) ^ flip) + 1]++;
+            if (count[(((int) (src[srcFrom] >>> shift) & MASK) ^ flip) + 1] == n) continue;
+            for (int r = 0; r < R; r++)
+                count[r + 1] += count[r];
+            for (int i = srcFrom; i < srcFrom + n; i++)
+                dst[dstFrom + count[((int) (src[i] >>> shift) & MASK) ^ flip]++] = src[i];
+            long[] t = src;
+            src = dst;
+            dst = t;
+            int f = srcFrom;
+            srcFrom = dstFrom;
+            dstFrom = f;
+        }
+        if (src != a) System.arraycopy(src, 0, a, from, n);
+    }
+
+    public static void main(String[] args) {
+        //License plates from the textbook trace
+        String[] plates = { "4PGC938", "2IYE230", "3CIO720", "1ICK750", "1OHV845", "4JZY524", "1ICK750", "3CIO720",
+                "1OHV845", "1OHV845", "2RLA629", "2RLA629", "3ATW723" };
+        show(plates);
+        sort(plates, 7);
+        assert isSorted(plates);
+        show(plates);
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        java.util.Random random = new java.util.Random();
+        String[] keys = new String[n];
+        Integer[] boxed = new Integer[n];
+        int[] ints = new int[n];
+        for (int i = 0; i < n; i++) {
+            ints[i] = random.nextInt();
+            boxed[i] = ints[i];
+            keys[i] = String.format("%08X", ints[i]);
+        }
+        String[] keysCopy = keys.clone();
+
+        long start = System.nanoTime();
+        MergeSortTopDown.sort(keysCopy);
+        long mergeStrings = System.nanoTime() - start;
+        start = System.nanoTime();
+        sort(keys, 8);
+        long lsdStrings = System.nanoTime() - start;
+        start = System.nanoTime();
+        MergeSortTopDown.sort(boxed);
+        long mergeInts = System.nanoTime() - start;
+        start = System.nanoTime();
+        sort(ints);
+        long lsdInts = System.nanoTime() - start;
+
+        assert isSorted(keys) && isSorted(ints);
+        System.out.printf("n = %d%n", n);
+        System.out.printf("8-char keys: MergeSortTopDown %8.1f ms  LSDRadixSort %8.1f ms%n", mergeStrings / 1e6, lsdStrings / 1e6);
+        System.out.printf("int keys:    MergeSortTopDown %8.1f ms  LSDRadixSort %8.1f ms%n", mergeInts / 1e6, lsdInts / 1e6);
+    }
+}
@@ -0,0 +1,92 @@
+/*  MSD (most-significant-digit first) string sort adapted from Sedgewick's Algorithms 4th Ed. textbook (pp 712)
+ *  Key-indexed counting on the first character partitions the keys into R subarrays, one per character value, with
+ *  the keys that end before that character first. Each subarray is then sorted recursively on the next character.
+ *  Strings may have different lengths. Small subarrays are finished with insertion sort since the count array
+ *  costs R per call no matter how few keys there are.
+ *  The radix is one byte: if every character fits in extended ASCII each character is one digit, otherwise each
+ *  character is split into its high and low byte so the order is the same as String.compareTo.
+ */
+
+public class MSDRadixSort extends Sorting {
+
+    private static final int R = 256;       // radix: one byte
+    private static final int CUTOFF = 15;   // cutoff to insertion sort
+
+    /** Rearranges the array of strings in ascending order
+     * @param a array to be sorted
+     */
+    public static void sort(String[] a) {
+        int n = a.length;
+        String[] aux = new String[n];
+        int shift = isExtendedAscii(a) ? 0 : 1;     // log2 of the digits per character
+        sort(a, 0, n - 1, 0, aux, shift);
+    }
+
+    //digit d of s, or -1 past the end of the string
+    private static int digit(String s, int d, int shift) {
+        int c = d >> shift;
+        if (c >= s.length()) return -1;
+        char ch = s.charAt(c);
+        if (shift == 0) return ch;
+        return ((d & 1) == 0) ? ch >>> 8 : ch & 0xFF;
+    }
+
+    //sort a[lo..hi] starting at digit d
+    private static void sort(String[] a, int lo, int hi, int d, String[] aux, int shift) {
+        //all keys in a[lo..hi] share their first d digits, hence their first d >> shift characters
+        if (hi <= lo + CUTOFF) {
+            InsertionSort.sort(a, lo, hi + 1, d >> shift);
+            return;
+        }
+
+        //count[r+2] counts digit r; strings that have ended (digit -1) go in count[1]
+        int[] count = new int[R + 2];
+        for (int i = lo; i <= hi; i++)
+            count[digit(a[i], d, shift) + 2]++;
+        for (int r = 0; r < R + 1; r++)
+            count[r + 1] += count[r];
+        for (int i = lo; i <= hi; i++)
+            aux[count[digit(a[i], d, shift) + 1]++] = a[i];
+        System.arraycopy(aux, 0, a, lo, hi - lo + 1);
+
+        //recursively sort each digit value; the ended strings in a[lo..lo+count[0]-1] are already in place
+        for (int r = 0; r < R; r++)
+            sort(a, lo + count[r], lo + count[r + 1] - 1, d + 1, aux, shift);
+    }
+
+    public static void main(String[] args) {
+        String[] a = "she sells seashells by the sea shore the shells she sells are surely seashells".split(" ");
+        show(a);
+        sort(a);
+        assert isSorted(a);
+        show(a);
+
+        //random variable-length lowercase keys
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        java.util.Random random = new java.util.Random();
+        String[] keys = new String[n];
+        for (int i = 0; i < n; i++) {
+            char[] c = new char[5 + random.nextInt(20)];
+            for (int j = 0; j < c.length; j++) c[j] = (char) ('a' + random.nextInt(26));
+            keys[i] = new String(c);
+        }
+        String[] merged = keys.clone();
+        String[] quick = keys.clone();
+
+        long start = System.nanoTime();
+        MergeSortTopDown.sort(merged);
+        long merge = System.nanoTime() - start;
+        start = System.nanoTime();
+        sort(keys);
+        long msd = System.nanoTime() - start;
+        start = System.nanoTime();
+        Quick3String.sort(quick);
+        long q3 = System.nanoTime() - start;
+
+        assert isSorted(keys) && isSorted(quick);
+        System.out.printf("n = %d strings%n", n);
+        System.out.printf("MergeSortTopDown: %8.1f ms%n", merge / 1e6);
+        System.out.printf("MSDRadixSort:     %8.1f ms%n", msd / 1e6);
+        System.out.printf("Quick3String:     %8.1f ms%n", q3 / 1e6);
+    }
+}
@@ -4,13 +4,259 @@ public class MergeSortBottomUp extends Sorting{
         int n = a.length;
         aux = new Comparable[n];
         for (int len = 1; len < n; len *= 2) {
-            System.out.println("len = " + len);
             for (int lo = 0; lo < n - len ; lo += len+ len) {
                 merge(a, lo, lo+len-1, Math.min(lo+len+len-1, n-1));
             }
+            if (listener != null) listener.passComplete(a, "len = " + len + "\t\t\t\t\t");
         }
 
     }
+    //sorted by the ping-pong passes below, with a buffer the length of the range
+    public static void sort(int[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(int[] a, int from, int to){
+        rangeCheck(a.length, from, to);
+        sort(a, from, to, new int[to - from]);
+    }
+
+    public static void sort(long[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(long[] a, int from, int to){
+        rangeCheck(a.length, from, to);
+        sort(a, from, to, new long[to - from]);
+    }
+
+    public static void sort(double[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(double[] a, int from, int to){
+        rangeCheck(a.length, from, to);
+        sort(a, from, to, new double[to - from]);
+    }
+
+    /***************************************************************************
+     * Bottom-up mergesort with ping-pong buffers. sort(Comparable[]) above
+     * copies each range into aux and merges it back, so every pass moves each
+     * key twice. These versions merge each pass from one array into the other
+     * and swap the roles of a and buffer between passes, so each pass moves
+     * each key once. Pairs of runs that are already in order are copied over
+     * without comparing. The caller can pass the same buffer to every sort
+     * (it must be at least as long as the range, to - from), and then sorting
+     * allocates nothing.
+     ***************************************************************************/
+    public static void sort(Comparable[] a, Comparable[] buffer){
+        sort(a, 0, a.length, buffer);
+    }
+    public static void sort(Comparable[] a, int from, int to, Comparable[] buffer){
+        rangeCheck(a.length, from, to);
+        checkBuffer(buffer.length, to - from);
+        int n = to - from;
+        if (n < 2) return;
+        int len = 1;
+        //an odd number of passes would leave the result in buffer, so do the first pass in place instead
+        if (passes(n) % 2 == 1) {
+            for (int i = from; i + 1 < to; i += 2) {
+                if (less(a[i+1], a[i])) exchange(a, i, i+1);
+            }
+            if (listener != null) listener.passComplete(a, "len = 1\t\t\t\t\t");
+            len = 2;
+        }
+        //the range starts at from in a and at 0 in buffer
+        Comparable[] src = a;
+        Comparable[] dst = buffer;
+        int srcFrom = from, dstFrom = 0;
+        for (; len < n; len *= 2) {
+            int end = srcFrom + n;
+            for (int lo = srcFrom; lo < end; lo += len + len) {
+                mergeInto(src, dst, dstFrom - srcFrom, lo, Math.min(lo+len-1, end-1), Math.min(lo+len+len-1, end-1));
+            }
+            if (listener != null) listener.passComplete(dst, "len = " + len + "\t\t\t\t\t");
+            Comparable[] t = src;
+            src = dst;
+            dst = t;
+            int f = srcFrom;
+            srcFrom = dstFrom;
+            dstFrom = f;
+        }
+    }
+    //Merge src[lo..mid] with src[mid+1..hi] into dst[lo+shift..hi+shift]
+    private static void mergeInto(Comparable[] src, Comparable[] dst, int shift, int lo, int mid, int hi){
+        //a lone run at the end of the pass, or two halves already in order: a straight copy
+        if (mid >= hi || !less(src[mid+1], src[mid])) {
+            System.arraycopy(src, lo, dst, lo + shift, hi - lo + 1);
+            return;
+        }
+        int i = lo;
+        int j = mid+1;
+        for (int k = lo; k <= hi; k++) {
+            if(i>mid) dst[k + shift] = src[j++];
+            else if(j > hi) dst[k + shift] = src[i++];
+            else if(less(src[j], src[i])) dst[k + shift] = src[j++];
+            else dst[k + shift] = src[i++];
+        }
+    }
+
+    public static void sort(int[] a, int[] buffer){
+        sort(a, 0, a.length, buffer);
+    }
+    public static void sort(int[] a, int from, int to, int[] buffer){
+        rangeCheck(a.length, from, to);
+        checkBuffer(buffer.length, to - from);
+        int n = to - from;
+        if (n < 2) return;
+        int len = 1;
+        //an odd number of passes would leave the result in buffer, so do the first pass in place instead
+        if (passes(n) % 2 == 1) {
+            for (int i = from; i + 1 < to; i += 2) {
+                if (less(a[i+1], a[i])) exchange(a, i, i+1);
+            }
+            len = 2;
+        }
+        //the range starts at from in a and at 0 in buffer
+        int[] src = a;
+        int[] dst = buffer;
+        int srcFrom = from, dstFrom = 0;
+        for (; len < n; len *= 2) {
+            int end = srcFrom + n;
+            for (int lo = srcFrom; lo < end; lo += len + len) {
+                mergeInto(src, dst, dstFrom - srcFrom, lo, Math.min(lo+len-1, end-1), Math.min(lo+len+len-1, end-1));
+            }
+            int[] t = src;
+            src = dst;
+            dst = t;
+            int f = srcFrom;
+            srcFrom = dstFrom;
+            dstFrom = f;
+        }
+    }
+    //Merge src[lo..mid] with src[mid+1..hi] into dst[lo+shift..hi+shift]
+    private static void mergeInto(int[] src, int[] dst, int shift, int lo, int mid, int hi){
+        //a lone run at the end of the pass, or two halves already in order: a straight copy
+        if (mid >= hi || !less(src[mid+1], src[mid])) {
+            System.arraycopy(src, lo, dst, lo + shift, hi - lo + 1);
+            return;
+        }
+        int i = lo;
+        int j = mid+1;
+        for (int k = lo; k <= hi; k++) {
+            if(i>mid) dst[k + shift] = src[j++];
+            else if(j > hi) dst[k + shift] = src[i++];
+            else if(less(src[j], src[i])) dst[k + shift] = src[j++];
+            else dst[k + shift] = src[i++];
+        }
+    }
+
+    public static void sort(long[] a, long[] buffer){
+        sort(a, 0, a.length, buffer);
+    }
+    public static void sort(long[] a, int from, int to, long[] buffer){
+        rangeCheck(a.length, from, to);
+        checkBuffer(buffer.length, to - from);
+        int n = to - from;
+        if (n < 2) return;
+        int len = 1;
+        //an odd number of passes would leave the result in buffer, so do the first pass in place instead
+        if (passes(n) % 2 == 1) {
+            for (int i = from; i + 1 < to; i += 2) {
+                if (less(a[i+1], a[i])) exchange(a, i, i+1);
+            }
+            len = 2;
+        }
+        //the range starts at from in a and at 0 in buffer
+        long[] src = a;
+        long[] dst = buffer;
+        int srcFrom = from, dstFrom = 0;
+        for (; len < n; len *= 2) {
+            int end = srcFrom + n;
+            for (int lo = srcFrom; lo < end; lo += len + len) {
+                mergeInto(src, dst, dstFrom - srcFrom, lo, Math.min(lo+len-1, end-1), Math.min(lo+len+len-1, end-1));
+            }
+            long[] t = src;
+            src = dst;
+            dst = t;
+            int f = srcFrom;
+            srcFrom = dstFrom;
+            dstFrom = f;
+        }
+    }
+    //Merge src[lo..mid] with src[mid+1..hi] into dst[lo+shift..hi+shift]
+    private static void mergeInto(long[] src, long[] dst, int shift, int lo, int mid, int hi){
+        //a lone run at the end of the pass, or two halves already in order: a straight copy
+        if (mid >= hi || !less(src[mid+1], src[mid])) {
+            System.arraycopy(src, lo, dst, lo + shift, hi - lo + 1);
+            return;
+        }
+        int i = lo;
+        int j = mid+1;
+        for (int k = lo; k <= hi; k++) {
+            if(i>mid) dst[k + shift] = src[j++];
+            else if(j > hi) dst[k + shift] = src[i++];
+            else if(less(src[j], src[i])) dst[k + shift] = src[j++];
+            else dst[k + shift] = src[i++];
+        }
+    }
+
+    public static void sort(double[] a, double[] buffer){
+        sort(a, 0, a.length, buffer);
+    }
+    public static void sort(double[] a, int from, int to, double[] buffer){
+        rangeCheck(a.length, from, to);
+        checkBuffer(buffer.length, to - from);
+        int n = to - from;
+        if (n < 2) return;
+        int len = 1;
+        //an odd number of passes would leave the result in buffer, so do the first pass in place instead
+        if (passes(n) % 2 == 1) {
+            for (int i = from; i + 1 < to; i += 2) {
+                if (less(a[i+1], a[i])) exchange(a, i, i+1);
+            }
+            len = 2;
+        }
+        //the range starts at from in a and at 0 in buffer
+        double[] src = a;
+        double[] dst = buffer;
+        int srcFrom = from, dstFrom = 0;
+        for (; len < n; len *= 2) {
+            int end = srcFrom + n;
+            for (int lo = srcFrom; lo < end; lo += len + len) {
+                mergeInto(src, dst, dstFrom - srcFrom, lo, Math.min(lo+len-1, end-1), Math.min(lo+len+len-1, end-1));
+            }
+            double[] t = src;
+            src = dst;
+            dst = t;
+            int f = srcFrom;
+            srcFrom = dstFrom;
+            dstFrom = f;
+        }
+    }
+    //Merge src[lo..mid] with src[mid+1..hi] into dst[lo+shift..hi+shift]
+    private static void mergeInto(double[] src, double[] dst, int shift, int lo, int mid, int hi){
+        //a lone run at the end of the pass, or two halves already in order: a straight copy
+        if (mid >= hi || !less(src[mid+1], src[mid])) {
+            System.arraycopy(src, lo, dst, lo + shift, hi - lo + 1);
+            return;
+        }
+        int i = lo;
+        int j = mid+1;
+        for (int k = lo; k <= hi; k++) {
+            if(i>mid) dst[k + shift] = src[j++];
+            else if(j > hi) dst[k + shift] = src[i++];
+            else if(less(src[j], src[i])) dst[k + shift] = src[j++];
+            else dst[k + shift] = src[i++];
+        }
+    }
+
+    //Number of merge passes for n keys: the smallest p with 2^p >= n
+    private static int passes(int n){
+        return 32 - Integer.numberOfLeadingZeros(n - 1);
+    }
+    private static void checkBuffer(int bufferLength, int n){
+        if (bufferLength < n)
+            throw new IllegalArgumentException("buffer length " + bufferLength + " < to - from (" + n + ")");
+    }
+
     public static void main(String[] args) {
         String myString = "ILOVEALGORITHMS";
         String[] a = myString.split("(?!^)");
@@ -23,7 +269,9 @@ public class MergeSortBottomUp extends Sorting{
         System.out.print("Input:");
         System.out.print("\t\t\t\t\t");
         show(a);
+        setListener(new TraceListener());
         sort(a);
+        setListener(null);
         assert isSorted(a);
         System.out.print("Output:");
         System.out.print("\t\t\t\t\t");
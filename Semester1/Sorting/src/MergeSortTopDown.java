@@ -10,6 +10,56 @@ public class MergeSortTopDown extends Sorting{
         aux = new Comparable[a.length];
         sort(a, 0, a.length-1);
     }
+    //same recursion as sort(Comparable[]), with an aux array the length of the range
+    public static void sort(int[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(int[] a, int from, int to){
+        rangeCheck(a.length, from, to);
+        int[] aux = new int[to - from];
+        sort(a, aux, from, from, to - 1);
+    }
+    //aux[k - off] holds a[k] while merging
+    private static void sort(int[] a, int[] aux, int off, int lo, int hi){
+        if(hi <= lo) return;
+        int mid = lo + (hi-lo)/2;
+        sort(a, aux, off, lo, mid);
+        sort(a, aux, off, mid+1, hi);
+        merge(a, aux, off, lo, mid, hi);
+    }
+
+    public static void sort(long[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(long[] a, int from, int to){
+        rangeCheck(a.length, from, to);
+        long[] aux = new long[to - from];
+        sort(a, aux, from, from, to - 1);
+    }
+    private static void sort(long[] a, long[] aux, int off, int lo, int hi){
+        if(hi <= lo) return;
+        int mid = lo + (hi-lo)/2;
+        sort(a, aux, off, lo, mid);
+        sort(a, aux, off, mid+1, hi);
+        merge(a, aux, off, lo, mid, hi);
+    }
+
+    public static void sort(double[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(double[] a, int from, int to){
+        rangeCheck(a.length, from, to);
+        double[] aux = new double[to - from];
+        sort(a, aux, from, from, to - 1);
+    }
+    private static void sort(double[] a, double[] aux, int off, int lo, int hi){
+        if(hi <= lo) return;
+        int mid = lo + (hi-lo)/2;
+        sort(a, aux, off, lo, mid);
+        sort(a, aux, off, mid+1, hi);
+        merge(a, aux, off, lo, mid, hi);
+    }
+
     public static void main(String[] args) {
         String myString = "OHSMIDTERMEXAM";
         String[] a = myString.split("(?!^)");
@@ -22,7 +72,9 @@ public class MergeSortTopDown extends Sorting{
         System.out.println();
         System.out.print("\t\t\t\t\t\t");
         show(a);
+        setListener(new TraceListener());
         sort(a);
+        setListener(null);
         assert isSorted(a);
         System.out.print("Output:");
         System.out.print("\t\t\t\t\t");
@@ -0,0 +1,612 @@
+/*  Parallel top-down mergesort on a ForkJoinPool.
+ *  The two halves of each range are sorted as separate fork/join tasks that all share one auxiliary array
+ *  allocated up front. Below the sequential threshold a task sorts its range on its own thread with the
+ *  usual recursive mergesort over Sorting.merge, switching to InsertionSort below the insertion cutoff.
+ *  At the top levels a single merge would be one long sequential pass, so the merge itself is split:
+ *  the middle key of the larger run is located in the other run by binary search and the two sides are
+ *  merged in parallel.
+ *  Runs silently; a SortListener attached to Sorting receives compare callbacks from several threads at once.
+ */
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class ParallelMergeSort extends Sorting {
+
+    private static int insertionCutoff = 32;            // ranges smaller than this go to InsertionSort
+    private static int sequentialThreshold = 1 << 13;   // ranges smaller than this are sorted and merged on one thread
+
+    public static int getInsertionCutoff() {
+        return insertionCutoff;
+    }
+
+    public static void setInsertionCutoff(int cutoff) {
+        if (cutoff < 1) throw new IllegalArgumentException("Insertion cutoff must be positive: " + cutoff);
+        insertionCutoff = cutoff;
+    }
+
+    public static int getSequentialThreshold() {
+        return sequentialThreshold;
+    }
+
+    public static void setSequentialThreshold(int threshold) {
+        if (threshold < 2) throw new IllegalArgumentException("Sequential threshold must be at least 2: " + threshold);
+        sequentialThreshold = threshold;
+    }
+
+    public static void sort(Comparable[] a){
+        sort(a, ForkJoinPool.commonPool());
+    }
+    public static void sort(Comparable[] a, ForkJoinPool pool){
+        if (a.length < 2) return;
+        Comparable[] buffer = new Comparable[a.length];
+        pool.invoke(new SortTask(a, buffer, 0, a.length - 1));
+    }
+    private static void sequentialSort(Comparable[] a, Comparable[] aux, int lo, int hi){
+        if (hi - lo < insertionCutoff) {
+            InsertionSort.sort(a, lo, hi + 1);
+            return;
+        }
+        int mid = lo + (hi - lo)/2;
+        sequentialSort(a, aux, lo, mid);
+        sequentialSort(a, aux, mid + 1, hi);
+        if (!less(a[mid+1], a[mid])) return;
+        merge(a, aux, lo, mid, hi);
+    }
+    //first index in src[lo..hi] whose key is >= x, hi+1 if there is none
+    private static int lowerBound(Comparable[] src, int lo, int hi, Comparable x){
+        while (lo <= hi) {
+            int mid = lo + (hi - lo)/2;
+            if (less(src[mid], x)) lo = mid + 1;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+    //first index in src[lo..hi] whose key is > x, hi+1 if there is none
+    private static int upperBound(Comparable[] src, int lo, int hi, Comparable x){
+        while (lo <= hi) {
+            int mid = lo + (hi - lo)/2;
+            if (less(x, src[mid])) hi = mid - 1;
+            else lo = mid + 1;
+        }
+        return lo;
+    }
+    //Merges src[lo1..hi1] and src[lo2..hi2] into dst starting at k, taking the left key on ties
+    private static void mergeRuns(Comparable[] src, int lo1, int hi1, int lo2, int hi2, Comparable[] dst, int k){
+        int i = lo1;
+        int j = lo2;
+        while (i <= hi1 && j <= hi2) {
+            if (less(src[j], src[i])) dst[k++] = src[j++];
+            else dst[k++] = src[i++];
+        }
+        if (i <= hi1) System.arraycopy(src, i, dst, k, hi1 - i + 1);
+        else if (j <= hi2) System.arraycopy(src, j, dst, k, hi2 - j + 1);
+    }
+
+    @SuppressWarnings("serial")
+    private static class SortTask extends RecursiveAction {
+        private final Comparable[] a;
+        private final Comparable[] aux;
+        private final int lo, hi;
+
+        SortTask(Comparable[] a, Comparable[] aux, int lo, int hi) {
+            this.a = a;
+            this.aux = aux;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (hi - lo < sequentialThreshold) {
+                sequentialSort(a, aux, lo, hi);
+                return;
+            }
+            int mid = lo + (hi - lo)/2;
+            invokeAll(new SortTask(a, aux, lo, mid), new SortTask(a, aux, mid + 1, hi));
+            if (!less(a[mid+1], a[mid])) return;
+            new CopyTask(a, aux, lo, hi).invoke();
+            new MergeTask(aux, lo, mid, mid + 1, hi, a, lo).invoke();
+        }
+    }
+
+    //Copies a[lo..hi] into aux[lo..hi] in parallel chunks
+    @SuppressWarnings("serial")
+    private static class CopyTask extends RecursiveAction {
+        private final Comparable[] a;
+        private final Comparable[] aux;
+        private final int lo, hi;
+
+        CopyTask(Comparable[] a, Comparable[] aux, int lo, int hi) {
+            this.a = a;
+            this.aux = aux;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (hi - lo < sequentialThreshold) {
+                System.arraycopy(a, lo, aux, lo, hi - lo + 1);
+                return;
+            }
+            int mid = lo + (hi - lo)/2;
+            invokeAll(new CopyTask(a, aux, lo, mid), new CopyTask(a, aux, mid + 1, hi));
+        }
+    }
+
+    //Merges the sorted runs src[lo1..hi1] and src[lo2..hi2] into dst starting at k
+    @SuppressWarnings("serial")
+    private static class MergeTask extends RecursiveAction {
+        private final Comparable[] src;
+        private final Comparable[] dst;
+        private final int lo1, hi1, lo2, hi2, k;
+
+        MergeTask(Comparable[] src, int lo1, int hi1, int lo2, int hi2, Comparable[] dst, int k) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.k = k;
+        }
+
+        protected void compute() {
+            int n1 = hi1 - lo1 + 1;
+            int n2 = hi2 - lo2 + 1;
+            if (n1 + n2 < sequentialThreshold) {
+                mergeRuns(src, lo1, hi1, lo2, hi2, dst, k);
+                return;
+            }
+            //Split the larger run at its middle key and find where that key goes in the other run.
+            //Equal keys from the left run stay ahead of equal keys from the right run, so the merge is stable.
+            if (n1 >= n2) {
+                int m1 = lo1 + (hi1 - lo1)/2;
+                int m2 = lowerBound(src, lo2, hi2, src[m1]);
+                int km = k + (m1 - lo1) + (m2 - lo2);
+                dst[km] = src[m1];
+                invokeAll(new MergeTask(src, lo1, m1 - 1, lo2, m2 - 1, dst, k),
+                          new MergeTask(src, m1 + 1, hi1, m2, hi2, dst, km + 1));
+            }
+            else {
+                int m2 = lo2 + (hi2 - lo2)/2;
+                int m1 = upperBound(src, lo1, hi1, src[m2]);
+                int km = k + (m1 - lo1) + (m2 - lo2);
+                dst[km] = src[m2];
+                invokeAll(new MergeTask(src, lo1, m1 - 1, lo2, m2 - 1, dst, k),
+                          new MergeTask(src, m1, hi1, m2 + 1, hi2, dst, km + 1));
+            }
+        }
+    }
+
+    public static void sort(int[] a){
+        sort(a, ForkJoinPool.commonPool());
+    }
+    public static void sort(int[] a, ForkJoinPool pool){
+        if (a.length < 2) return;
+        int[] buffer = new int[a.length];
+        pool.invoke(new IntSortTask(a, buffer, 0, a.length - 1));
+    }
+    private static void sequentialSort(int[] a, int[] aux, int lo, int hi){
+        if (hi - lo < insertionCutoff) {
+            InsertionSort.sort(a, lo, hi + 1);
+            return;
+        }
+        int mid = lo + (hi - lo)/2;
+        sequentialSort(a, aux, lo, mid);
+        sequentialSort(a, aux, mid + 1, hi);
+        if (!less(a[mid+1], a[mid])) return;
+        merge(a, aux, lo, mid, hi);
+    }
+    private static int lowerBound(int[] src, int lo, int hi, int x){
+        while (lo <= hi) {
+            int mid = lo + (hi - lo)/2;
+            if (less(src[mid], x)) lo = mid + 1;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+    private static int upperBound(int[] src, int lo, int hi, int x){
+        while (lo <= hi) {
+            int mid = lo + (hi - lo)/2;
+            if (less(x, src[mid])) hi = mid - 1;
+            else lo = mid + 1;
+        }
+        return lo;
+    }
+    private static void mergeRuns(int[] src, int lo1, int hi1, int lo2, int hi2, int[] dst, int k){
+        int i = lo1;
+        int j = lo2;
+        while (i <= hi1 && j <= hi2) {
+            if (less(src[j], src[i])) dst[k++] = src[j++];
+            else dst[k++] = src[i++];
+        }
+        if (i <= hi1) System.arraycopy(src, i, dst, k, hi1 - i + 1);
+        else if (j <= hi2) System.arraycopy(src, j, dst, k, hi2 - j + 1);
+    }
+
+    @SuppressWarnings("serial")
+    private static class IntSortTask extends RecursiveAction {
+        private final int[] a;
+        private final int[] aux;
+        private final int lo, hi;
+
+        IntSortTask(int[] a, int[] aux, int lo, int hi) {
+            this.a = a;
+            this.aux = aux;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (hi - lo < sequentialThreshold) {
+                sequentialSort(a, aux, lo, hi);
+                return;
+            }
+            int mid = lo + (hi - lo)/2;
+            invokeAll(new IntSortTask(a, aux, lo, mid), new IntSortTask(a, aux, mid + 1, hi));
+            if (!less(a[mid+1], a[mid])) return;
+            new IntCopyTask(a, aux, lo, hi).invoke();
+            new IntMergeTask(aux, lo, mid, mid + 1, hi, a, lo).invoke();
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class IntCopyTask extends RecursiveAction {
+        private final int[] a;
+        private final int[] aux;
+        private final int lo, hi;
+
+        IntCopyTask(int[] a, int[] aux, int lo, int hi) {
+            this.a = a;
+            this.aux = aux;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (hi - lo < sequentialThreshold) {
+                System.arraycopy(a, lo, aux, lo, hi - lo + 1);
+                return;
+            }
+            int mid = lo + (hi - lo)/2;
+            invokeAll(new IntCopyTask(a, aux, lo, mid), new IntCopyTask(a, aux, mid + 1, hi));
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class IntMergeTask extends RecursiveAction {
+        private final int[] src;
+        private final int[] dst;
+        private final int lo1, hi1, lo2, hi2, k;
+
+        IntMergeTask(int[] src, int lo1, int hi1, int lo2, int hi2, int[] dst, int k) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.k = k;
+        }
+
+        protected void compute() {
+            int n1 = hi1 - lo1 + 1;
+            int n2 = hi2 - lo2 + 1;
+            if (n1 + n2 < sequentialThreshold) {
+                mergeRuns(src, lo1, hi1, lo2, hi2, dst, k);
+                return;
+            }
+            if (n1 >= n2) {
+                int m1 = lo1 + (hi1 - lo1)/2;
+                int m2 = lowerBound(src, lo2, hi2, src[m1]);
+                int km = k + (m1 - lo1) + (m2 - lo2);
+                dst[km] = src[m1];
+                invokeAll(new IntMergeTask(src, lo1, m1 - 1, lo2, m2 - 1, dst, k),
+                          new IntMergeTask(src, m1 + 1, hi1, m2, hi2, dst, km + 1));
+            }
+            else {
+                int m2 = lo2 + (hi2 - lo2)/2;
+                int m1 = upperBound(src, lo1, hi1, src[m2]);
+                int km = k + (m1 - lo1) + (m2 - lo2);
+                dst[km] = src[m2];
+                invokeAll(new IntMergeTask(src, lo1, m1 - 1, lo2, m2 - 1, dst, k),
+                          new IntMergeTask(src, m1, hi1, m2 + 1, hi2, dst, km + 1));
+            }
+        }
+    }
+
+    public static void sort(long[] a){
+        sort(a, ForkJoinPool.commonPool());
+    }
+    public static void sort(long[] a, ForkJoinPool pool){
+        if (a.length < 2) return;
+        long[] buffer = new long[a.length];
+        pool.invoke(new LongSortTask(a, buffer, 0, a.length - 1));
+    }
+    private static void sequentialSort(long[] a, long[] aux, int lo, int hi){
+        if (hi - lo < insertionCutoff) {
+            InsertionSort.sort(a, lo, hi + 1);
+            return;
+        }
+        int mid = lo + (hi - lo)/2;
+        sequentialSort(a, aux, lo, mid);
+        sequentialSort(a, aux, mid + 1, hi);
+        if (!less(a[mid+1], a[mid])) return;
+        merge(a, aux, lo, mid, hi);
+    }
+    private static int lowerBound(long[] src, int lo, int hi, long x){
+        while (lo <= hi) {
+            int mid = lo + (hi - lo)/2;
+            if (less(src[mid], x)) lo = mid + 1;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+    private static int upperBound(long[] src, int lo, int hi, long x){
+        while (lo <= hi) {
+            int mid = lo + (hi - lo)/2;
+            if (less(x, src[mid])) hi = mid - 1;
+            else lo = mid + 1;
+        }
+        return lo;
+    }
+    private static void mergeRuns(long[] src, int lo1, int hi1, int lo2, int hi2, long[] dst, int k){
+        int i = lo1;
+        int j = lo2;
+        while (i <= hi1 && j <= hi2) {
+            if (less(src[j], src[i])) dst[k++] = src[j++];
+            else dst[k++] = src[i++];
+        }
+        if (i <= hi1) System.arraycopy(src, i, dst, k, hi1 - i + 1);
+        else if (j <= hi2) System.arraycopy(src, j, dst, k, hi2 - j + 1);
+    }
+
+    @SuppressWarnings("serial")
+    private static class LongSortTask extends RecursiveAction {
+        private final long[] a;
+        private final long[] aux;
+        private final int lo, hi;
+
+        LongSortTask(long[] a, long[] aux, int lo, int hi) {
+            this.a = a;
+            this.aux = aux;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (hi - lo < sequentialThreshold) {
+                sequentialSort(a, aux, lo, hi);
+                return;
+            }
+            int mid = lo + (hi - lo)/2;
+            invokeAll(new LongSortTask(a, aux, lo, mid), new LongSortTask(a, aux, mid + 1, hi));
+            if (!less(a[mid+1], a[mid])) return;
+            new LongCopyTask(a, aux, lo, hi).invoke();
+            new LongMergeTask(aux, lo, mid, mid + 1, hi, a, lo).invoke();
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class LongCopyTask extends RecursiveAction {
+        private final long[] a;
+        private final long[] aux;
+        private final int lo, hi;
+
+        LongCopyTask(long[] a, long[] aux, int lo, int hi) {
+            this.a = a;
+            this.aux = aux;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (hi - lo < sequentialThreshold) {
+                System.arraycopy(a, lo, aux, lo, hi - lo + 1);
+                return;
+            }
+            int mid = lo + (hi - lo)/2;
+            invokeAll(new LongCopyTask(a, aux, lo, mid), new LongCopyTask(a, aux, mid + 1, hi));
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class LongMergeTask extends RecursiveAction {
+        private final long[] src;
+        private final long[] dst;
+        private final int lo1, hi1, lo2, hi2, k;
+
+        LongMergeTask(long[] src, int lo1, int hi1, int lo2, int hi2, long[] dst, int k) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.k = k;
+        }
+
+        protected void compute() {
+            int n1 = hi1 - lo1 + 1;
+            int n2 = hi2 - lo2 + 1;
+            if (n1 + n2 < sequentialThreshold) {
+                mergeRuns(src, lo1, hi1, lo2, hi2, dst, k);
+                return;
+            }
+            if (n1 >= n2) {
+                int m1 = lo1 + (hi1 - lo1)/2;
+                int m2 = lowerBound(src, lo2, hi2, src[m1]);
+                int km = k + (m1 - lo1) + (m2 - lo2);
+                dst[km] = src[m1];
+                invokeAll(new LongMergeTask(src, lo1, m1 - 1, lo2, m2 - 1, dst, k),
+                          new LongMergeTask(src, m1 + 1, hi1, m2, hi2, dst, km + 1));
+            }
+            else {
+                int m2 = lo2 + (hi2 - lo2)/2;
+                int m1 = upperBound(src, lo1, hi1, src[m2]);
+                int km = k + (m1 - lo1) + (m2 - lo2);
+                dst[km] = src[m2];
+                invokeAll(new LongMergeTask(src, lo1, m1 - 1, lo2, m2 - 1, dst, k),
+                          new LongMergeTask(src, m1, hi1, m2 + 1, hi2, dst, km + 1));
+            }
+        }
+    }
+
+    public static void sort(double[] a){
+        sort(a, ForkJoinPool.commonPool());
+    }
+    public static void sort(double[] a, ForkJoinPool pool){
+        if (a.length < 2) return;
+        double[] buffer = new double[a.length];
+        pool.invoke(new DoubleSortTask(a, buffer, 0, a.length - 1));
+    }
+    private static void sequentialSort(double[] a, double[] aux, int lo, int hi){
+        if (hi - lo < insertionCutoff) {
+            InsertionSort.sort(a, lo, hi + 1);
+            return;
+        }
+        int mid = lo + (hi - lo)/2;
+        sequentialSort(a, aux, lo, mid);
+        sequentialSort(a, aux, mid + 1, hi);
+        if (!less(a[mid+1], a[mid])) return;
+        merge(a, aux, lo, mid, hi);
+    }
+    private static int lowerBound(double[] src, int lo, int hi, double x){
+        while (lo <= hi) {
+            int mid = lo + (hi - lo)/2;
+            if (less(src[mid], x)) lo = mid + 1;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+    private static int upperBound(double[] src, int lo, int hi, double x){
+        while (lo <= hi) {
+            int mid = lo + (hi - lo)/2;
+            if (less(x, src[mid])) hi = mid - 1;
+            else lo = mid + 1;
+        }
+        return lo;
+    }
+    private static void mergeRuns(double[] src, int lo1, int hi1, int lo2, int hi2, double[] dst, int k){
+        int i = lo1;
+        int j = lo2;
+        while (i <= hi1 && j <= hi2) {
+            if (less(src[j], src[i])) dst[k++] = src[j++];
+            else dst[k++] = src[i++];
+        }
+        if (i <= hi1) System.arraycopy(src, i, dst, k, hi1 - i + 1);
+        else if (j <= hi2) System.arraycopy(src, j, dst, k, hi2 - j + 1);
+    }
+
+    @SuppressWarnings("serial")
+    private static class DoubleSortTask extends RecursiveAction {
+        private final double[] a;
+        private final double[] aux;
+        private final int lo, hi;
+
+        DoubleSortTask(double[] a, double[] aux, int lo, int hi) {
+            this.a = a;
+            this.aux = aux;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (hi - lo < sequentialThreshold) {
+                sequentialSort(a, aux, lo, hi);
+                return;
+            }
+            int mid = lo + (hi - lo)/2;
+            invokeAll(new DoubleSortTask(a, aux, lo, mid), new DoubleSortTask(a, aux, mid + 1, hi));
+            if (!less(a[mid+1], a[mid])) return;
+            new DoubleCopyTask(a, aux, lo, hi).invoke();
+            new DoubleMergeTask(aux, lo, mid, mid + 1, hi, a, lo).invoke();
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class DoubleCopyTask extends RecursiveAction {
+        private final double[] a;
+        private final double[] aux;
+        private final int lo, hi;
+
+        DoubleCopyTask(double[] a, double[] aux, int lo, int hi) {
+            this.a = a;
+            this.aux = aux;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (hi - lo < sequentialThreshold) {
+                System.arraycopy(a, lo, aux, lo, hi - lo + 1);
+                return;
+            }
+            int mid = lo + (hi - lo)/2;
+            invokeAll(new DoubleCopyTask(a, aux, lo, mid), new DoubleCopyTask(a, aux, mid + 1, hi));
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class DoubleMergeTask extends RecursiveAction {
+        private final double[] src;
+        private final double[] dst;
+        private final int lo1, hi1, lo2, hi2, k;
+
+        DoubleMergeTask(double[] src, int lo1, int hi1, int lo2, int hi2, double[] dst, int k) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.k = k;
+        }
+
+        protected void compute() {
+            int n1 = hi1 - lo1 + 1;
+            int n2 = hi2 - lo2 + 1;
+            if (n1 + n2 < sequentialThreshold) {
+                mergeRuns(src, lo1, hi1, lo2, hi2, dst, k);
+                return;
+            }
+            if (n1 >= n2) {
+                int m1 = lo1 + (hi1 - lo1)/2;
+                int m2 = lowerBound(src, lo2, hi2, src[m1]);
+                int km = k + (m1 - lo1) + (m2 - lo2);
+                dst[km] = src[m1];
+                invokeAll(new DoubleMergeTask(src, lo1, m1 - 1, lo2, m2 - 1, dst, k),
+                          new DoubleMergeTask(src, m1 + 1, hi1, m2, hi2, dst, km + 1));
+            }
+            else {
+                int m2 = lo2 + (hi2 - lo2)/2;
+                int m1 = upperBound(src, lo1, hi1, src[m2]);
+                int km = k + (m1 - lo1) + (m2 - lo2);
+                dst[km] = src[m2];
+                invokeAll(new DoubleMergeTask(src, lo1, m1 - 1, lo2, m2 - 1, dst, k),
+                          new DoubleMergeTask(src, m1, hi1, m2 + 1, hi2, dst, km + 1));
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+        java.util.Random random = new java.util.Random();
+        int[] a = new int[n];
+        for (int i = 0; i < n; i++) a[i] = random.nextInt();
+        int[] b = a.clone();
+
+        long start = System.nanoTime();
+        MergeSortTopDown.sort(a);
+        long sequential = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        sort(b);
+        long parallel = System.nanoTime() - start;
+
+        assert isSorted(b);
+        System.out.printf("n = %d, threads = %d%n", n, ForkJoinPool.commonPool().getParallelism());
+        System.out.printf("MergeSortTopDown:  %8.1f ms%n", sequential / 1e6);
+        System.out.printf("ParallelMergeSort: %8.1f ms%n", parallel / 1e6);
+    }
+}
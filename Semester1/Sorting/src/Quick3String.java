@@ -0,0 +1,57 @@
+/*  Three-way string quicksort adapted from Sedgewick's Algorithms 4th Ed. textbook (pp 720)
+ *  Partitions the keys on the character at position d of a pivot key into those whose character is less,
+ *  equal and greater, then sorts the less and greater parts on the same character and the equal part on
+ *  the next character. Unlike MSD it has no count array per call, so it handles long common prefixes and any
+ *  alphabet well, and keys with equal characters are never compared again.
+ *  The pivot is a random key of the subarray, which stands in for the textbook's initial shuffle.
+ */
+
+import java.util.concurrent.ThreadLocalRandom;
+
+public class Quick3String extends Sorting {
+
+    private static final int CUTOFF = 15;   // cutoff to insertion sort
+
+    /** Rearranges the array of strings in ascending order
+     * @param a array to be sorted
+     */
+    public static void sort(String[] a) {
+        sort(a, 0, a.length - 1, 0);
+    }
+
+    //character d of s, or -1 past the end of the string
+    private static int charAt(String s, int d) {
+        if (d < s.length()) return s.charAt(d);
+        return -1;
+    }
+
+    //3-way partition a[lo..hi] on character d
+    private static void sort(String[] a, int lo, int hi, int d) {
+        if (hi <= lo + CUTOFF) {
+            InsertionSort.sort(a, lo, hi + 1, d);
+            return;
+        }
+        exchange(a, lo, lo + ThreadLocalRandom.current().nextInt(hi - lo + 1));
+        int lt = lo, gt = hi;
+        int v = charAt(a[lo], d);
+        int i = lo + 1;
+        while (i <= gt) {
+            int t = charAt(a[i], d);
+            if      (t < v) exchange(a, lt++, i++);
+            else if (t > v) exchange(a, i, gt--);
+            else            i++;
+        }
+        //a[lo..lt-1] < v = a[lt..gt] < a[gt+1..hi]
+        sort(a, lo, lt - 1, d);
+        if (v >= 0) sort(a, lt, gt, d + 1);
+        sort(a, gt + 1, hi, d);
+    }
+
+    public static void main(String[] args) {
+        String[] a = "edu.princeton.cs com.apple edu.princeton.cs com.cnn com.google edu.uva.cs edu.princeton.cs edu.princeton.cs.www edu.uva.cs edu.uva.cs edu.uva.cs com.adobe edu.princeton.ee".split(" ");
+        show(a);
+        sort(a);
+        assert isSorted(a);
+        show(a);
+    }
+}
@@ -7,12 +7,52 @@ public class SelectionSort extends Sorting{
                 if(less(a[j], a[min])) min = j;
 
             }
-            System.out.print(i + "\t" + min + "\t");
-            show(a);
-            System.out.println();
+            if (listener != null) listener.passComplete(a, i + "\t" + min + "\t");
             exchange(a, i, min);
         }
     }
+    public static void sort(int[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(int[] a, int from, int to){
+        rangeCheck(a.length, from, to);
+        for (int i = from; i < to; i++) {
+            int min = i;
+            for (int j = i + 1; j < to; j++) {
+                if(less(a[j], a[min])) min = j;
+            }
+            exchange(a, i, min);
+        }
+    }
+
+    public static void sort(long[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(long[] a, int from, int to){
+        rangeCheck(a.length, from, to);
+        for (int i = from; i < to; i++) {
+            int min = i;
+            for (int j = i + 1; j < to; j++) {
+                if(less(a[j], a[min])) min = j;
+            }
+            exchange(a, i, min);
+        }
+    }
+
+    public static void sort(double[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(double[] a, int from, int to){
+        rangeCheck(a.length, from, to);
+        for (int i = from; i < to; i++) {
+            int min = i;
+            for (int j = i + 1; j < to; j++) {
+                if(less(a[j], a[min])) min = j;
+            }
+            exchange(a, i, min);
+        }
+    }
+
     public static void main(String[] args) {
         String myString = "ILOVEALGORITHMS";
         String[] a = myString.split("(?!^)");
@@ -24,7 +64,9 @@ public class SelectionSort extends Sorting{
         System.out.println();
         System.out.print("\t\t");
         show(a);
+        setListener(new TraceListener());
         sort(a);
+        setListener(null);
         assert isSorted(a);
         System.out.print("\t\t");
         show(a);
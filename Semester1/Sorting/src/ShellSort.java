@@ -13,19 +13,270 @@ public class ShellSort extends Sorting {
                 }
 
 
-                System.out.print(h + "\t");
-                System.out.print(i + "\t" + lastExch + "\t");
-                show(a);
-                System.out.println();
+                if (listener != null) listener.passComplete(a, h + "\t" + i + "\t" + lastExch + "\t");
             }
 
 
-            h = h / 3;
+            //2h+1 gaps divided by 3 can step from 2 to 0, so make sure the last pass is an insertion sort
+            h = (h == 2) ? 1 : h / 3;
         }
     }
 
 
 
+    //sorted with the Knuth gaps by the pluggable shellsort below
+    public static void sort(int[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(int[] a, int from, int to){
+        sort(a, from, to, Gaps.KNUTH, null);
+    }
+
+    public static void sort(long[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(long[] a, int from, int to){
+        sort(a, from, to, Gaps.KNUTH, null);
+    }
+
+    public static void sort(double[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(double[] a, int from, int to){
+        sort(a, from, to, Gaps.KNUTH, null);
+    }
+
+    /***************************************************************************
+     * Shellsort with a pluggable gap sequence. Unlike sort(Comparable[]) above,
+     * which keeps the 2h+1 / h/3 gaps used for the assignment trace, these use
+     * insertion with a hole (one write per shifted key instead of an exchange)
+     * and optionally count compares and array writes.
+     ***************************************************************************/
+
+    /**
+     * A Shellsort increment sequence
+     */
+    public interface GapSequence {
+        /** Gaps to use for an array of n keys
+         * @param n number of keys to sort
+         * @return gaps in decreasing order, ending with 1
+         */
+        int[] gaps(int n);
+    }
+
+    /**
+     * Commonly used gap sequences. Each returns only the gaps smaller than n.
+     */
+    public enum Gaps implements GapSequence {
+        //Knuth: 1, 4, 13, 40, 121, ... (3h+1), largest gap below n/3 as in the textbook
+        KNUTH {
+            public int[] gaps(int n) {
+                java.util.ArrayList<Long> g = new java.util.ArrayList<>();
+                for (long h = 1; h == 1 || h < n / 3; h = 3 * h + 1) g.add(h);
+                return descending(g, n);
+            }
+        },
+        //Sedgewick 1986: 1, 5, 19, 41, 109, ... from 9*4^k - 9*2^k + 1 and 4^k - 3*2^k + 1
+        SEDGEWICK {
+            public int[] gaps(int n) {
+                java.util.ArrayList<Long> g = new java.util.ArrayList<>();
+                for (int k = 0; k < 16; k++) {
+                    long p4 = 1L << (2 * k);
+                    long p2 = 1L << k;
+                    g.add(9 * p4 - 9 * p2 + 1);
+                    if (k >= 2) g.add(p4 - 3 * p2 + 1);
+                }
+                return descending(g, n);
+            }
+        },
+        //Tokuda: 1, 4, 9, 20, 46, 103, ... ceil((9 * (9/4)^k - 4) / 5)
+        TOKUDA {
+            public int[] gaps(int n) {
+                java.util.ArrayList<Long> g = new java.util.ArrayList<>();
+                for (int k = 0; ; k++) {
+                    long h = (long) Math.ceil((9 * Math.pow(2.25, k) - 4) / 5);
+                    if (h >= n && k > 0) break;
+                    g.add(h);
+                }
+                return descending(g, n);
+            }
+        },
+        //Ciura: 1, 4, 10, 23, 57, 132, 301, 701, 1750, then extended by h = floor(2.25 * h)
+        CIURA {
+            public int[] gaps(int n) {
+                java.util.ArrayList<Long> g = new java.util.ArrayList<>();
+                long[] ciura = {1, 4, 10, 23, 57, 132, 301, 701, 1750};
+                for (long h : ciura) g.add(h);
+                for (long h = ciura[ciura.length - 1]; h < n; ) {
+                    h = (long) (2.25 * h);
+                    g.add(h);
+                }
+                return descending(g, n);
+            }
+        };
+
+        //Gaps below n, always including 1, largest first
+        private static int[] descending(java.util.ArrayList<Long> g, int n) {
+            java.util.TreeSet<Long> keep = new java.util.TreeSet<>(java.util.Collections.reverseOrder());
+            for (long h : g) if (h == 1 || h < n) keep.add(h);
+            int[] gaps = new int[keep.size()];
+            int i = 0;
+            for (long h : keep) gaps[i++] = (int) h;
+            return gaps;
+        }
+    }
+
+    /**
+     * Running totals of key compares and array writes for the gap-sequence sorts
+     */
+    public static class Counter {
+        private long compares;
+        private long moves;
+
+        public long getCompares() {
+            return compares;
+        }
+
+        public long getMoves() {
+            return moves;
+        }
+
+        public void reset() {
+            compares = 0;
+            moves = 0;
+        }
+
+        void add(long compares, long moves) {
+            this.compares += compares;
+            this.moves += moves;
+        }
+
+        public String toString() {
+            return "compares: " + compares + " moves: " + moves;
+        }
+    }
+
+    public static void sort(Comparable[] a, GapSequence gaps){
+        sort(a, 0, a.length, gaps, null);
+    }
+    public static void sort(Comparable[] a, GapSequence gaps, Counter counter){
+        sort(a, 0, a.length, gaps, counter);
+    }
+    //h-sorts a[from..to-1] for each gap, holding a[i] aside and shifting larger keys right by h instead of exchanging
+    public static void sort(Comparable[] a, int from, int to, GapSequence gaps, Counter counter){
+        rangeCheck(a.length, from, to);
+        long compares = 0;
+        long moves = 0;
+        for (int h : gaps.gaps(to - from)) {
+            for (int i = from + h; i < to; i++) {
+                Comparable v = a[i];
+                int j = i;
+                while (j >= from + h) {
+                    compares++;
+                    if (!less(v, a[j - h])) break;
+                    a[j] = a[j - h];
+                    moves++;
+                    j -= h;
+                }
+                if (j != i) {
+                    a[j] = v;
+                    moves++;
+                }
+            }
+        }
+        if (counter != null) counter.add(compares, moves);
+    }
+
+    public static void sort(int[] a, GapSequence gaps){
+        sort(a, 0, a.length, gaps, null);
+    }
+    public static void sort(int[] a, GapSequence gaps, Counter counter){
+        sort(a, 0, a.length, gaps, counter);
+    }
+    public static void sort(int[] a, int from, int to, GapSequence gaps, Counter counter){
+        rangeCheck(a.length, from, to);
+        long compares = 0;
+        long moves = 0;
+        for (int h : gaps.gaps(to - from)) {
+            for (int i = from + h; i < to; i++) {
+                int v = a[i];
+                int j = i;
+                while (j >= from + h) {
+                    compares++;
+                    if (!less(v, a[j - h])) break;
+                    a[j] = a[j - h];
+                    moves++;
+                    j -= h;
+                }
+                if (j != i) {
+                    a[j] = v;
+                    moves++;
+                }
+            }
+        }
+        if (counter != null) counter.add(compares, moves);
+    }
+
+    public static void sort(long[] a, GapSequence gaps){
+        sort(a, 0, a.length, gaps, null);
+    }
+    public static void sort(long[] a, GapSequence gaps, Counter counter){
+        sort(a, 0, a.length, gaps, counter);
+    }
+    public static void sort(long[] a, int from, int to, GapSequence gaps, Counter counter){
+        rangeCheck(a.length, from, to);
+        long compares = 0;
+        long moves = 0;
+        for (int h : gaps.gaps(to - from)) {
+            for (int i = from + h; i < to; i++) {
+                long v = a[i];
+                int j = i;
+                while (j >= from + h) {
+                    compares++;
+                    if (!less(v, a[j - h])) break;
+                    a[j] = a[j - h];
+                    moves++;
+                    j -= h;
+                }
+                if (j != i) {
+                    a[j] = v;
+                    moves++;
+                }
+            }
+        }
+        if (counter != null) counter.add(compares, moves);
+    }
+
+    public static void sort(double[] a, GapSequence gaps){
+        sort(a, 0, a.length, gaps, null);
+    }
+    public static void sort(double[] a, GapSequence gaps, Counter counter){
+        sort(a, 0, a.length, gaps, counter);
+    }
+    public static void sort(double[] a, int from, int to, GapSequence gaps, Counter counter){
+        rangeCheck(a.length, from, to);
+        long compares = 0;
+        long moves = 0;
+        for (int h : gaps.gaps(to - from)) {
+            for (int i = from + h; i < to; i++) {
+                double v = a[i];
+                int j = i;
+                while (j >= from + h) {
+                    compares++;
+                    if (!less(v, a[j - h])) break;
+                    a[j] = a[j - h];
+                    moves++;
+                    j -= h;
+                }
+                if (j != i) {
+                    a[j] = v;
+                    moves++;
+                }
+            }
+        }
+        if (counter != null) counter.add(compares, moves);
+    }
+
     public static void main(String[] args) {
         String myString = "EASYSHELLSORTQUESTION";
         String[] a = myString.split("(?!^)");
@@ -37,9 +288,26 @@ public class ShellSort extends Sorting {
         System.out.println();
         System.out.print("\t \t \t \t");
         show(a);
+        setListener(new TraceListener());
         sort(a);
+        setListener(null);
         assert isSorted(a);
         System.out.print("\t\t\t");
         show(a);
+
+        //Compare the gap sequences on the same random input
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int[] data = new java.util.Random().ints(n).toArray();
+        System.out.println();
+        System.out.printf("%-10s %15s %15s %10s%n", "Gaps", "Compares", "Moves", "ms");
+        for (Gaps g : Gaps.values()) {
+            int[] b = data.clone();
+            Counter counter = new Counter();
+            long start = System.nanoTime();
+            sort(b, g, counter);
+            long elapsed = System.nanoTime() - start;
+            assert isSorted(b);
+            System.out.printf("%-10s %15d %15d %10.1f%n", g, counter.getCompares(), counter.getMoves(), elapsed / 1e6);
+        }
     }
 }
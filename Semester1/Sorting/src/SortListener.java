@@ -0,0 +1,25 @@
+/*  Optional callbacks for watching a Comparable sort step by step.
+ *  Attach one with Sorting.setListener; with no listener attached the sorts run without any printing
+ *  and the only cost is a null check at each compare, exchange and pass.
+ */
+public interface SortListener {
+
+    /** Called for every key comparison
+     * @param v left key
+     * @param w right key
+     */
+    void compare(Comparable v, Comparable w);
+
+    /** Called before a[i] and a[j] are swapped
+     * @param a array being sorted
+     * @param i first index
+     * @param j second index
+     */
+    void exchange(Comparable[] a, int i, int j);
+
+    /** Called after each pass of the outer loop (or each merge for mergesort)
+     * @param a array being sorted
+     * @param pass label for the pass, e.g. the loop indices shown in the textbook traces
+     */
+    void passComplete(Comparable[] a, String pass);
+}
@@ -2,12 +2,27 @@ public class Sorting {
 
     protected static Comparable[] aux;
 
+    //Optional step listener for the Comparable sorts, null means run silently
+    protected static SortListener listener;
+
+    /** Attach a listener to trace the Comparable sorts, or null to run them without any printing
+     * @param l listener that receives compare/exchange/pass callbacks
+     */
+    public static void setListener(SortListener l){
+        listener = l;
+    }
+    public static SortListener getListener(){
+        return listener;
+    }
+
     public static void sort(Comparable[] a){
     }
     protected static boolean less(Comparable v, Comparable w){
+        if (listener != null) listener.compare(v, w);
         return v.compareTo(w) < 0;
     }
     protected static void exchange(Comparable[] a, int i, int j){
+        if (listener != null) listener.exchange(a, i, j);
         Comparable t = a[i];
         a[i] = a[j];
         a[j] = t;
@@ -21,7 +36,7 @@ public class Sorting {
         System.out.println();
     }
     public static boolean isSorted(Comparable[] a){
-        for (int i = 0; i < a.length; i++) {
+        for (int i = 1; i < a.length; i++) {
             if(less(a[i], a[i-1])) return false;
         }
         return true;
@@ -29,6 +44,12 @@ public class Sorting {
 
     //In place merge
     protected static void merge(Comparable[] a, int lo, int mid, int hi){
+        merge(a, aux, lo, mid, hi);
+        if (listener != null) listener.passComplete(a, "merge(a,\t" + lo + ",\t" + mid + ",\t" + hi + ")\t");
+    }
+
+    //Same merge using the caller's aux array instead of the shared static one, so concurrent sorts can each use their own buffer
+    protected static void merge(Comparable[] a, Comparable[] aux, int lo, int mid, int hi){
         int i = lo;
         int j = mid+1;
         for (int k = lo; k <= hi ; k++) {
@@ -41,10 +62,137 @@ public class Sorting {
             else a[k] = aux[i++];
 
         }
-        System.out.print("merge(a,\t" + lo + ",\t" + mid + ",\t" + hi + ")\t");
-        show(a);
-        System.out.println();
     }
 
+    //Do all characters fit in one byte? The radix sorts use one pass per character if so, else one per byte
+    protected static boolean isExtendedAscii(String[] a){
+        for (String s : a) {
+            for (int i = 0; i < s.length(); i++) {
+                if (s.charAt(i) > 0xFF) return false;
+            }
+        }
+        return true;
+    }
+
+    /***************************************************************************
+     * Primitive versions of the helpers above used by the int[], long[] and
+     * double[] sorts. They never box and never print. Each of those sorts puts
+     * the keys in the same order as its sort(Comparable[]), without tracing,
+     * and sort(a, from, to) sorts a[from..to-1] like java.util.Arrays.sort.
+     ***************************************************************************/
+    protected static boolean less(int v, int w){
+        return v < w;
+    }
+    protected static boolean less(long v, long w){
+        return v < w;
+    }
+    //Double.compare gives the same order as Double.compareTo: -0.0 before 0.0 and NaN last
+    protected static boolean less(double v, double w){
+        return Double.compare(v, w) < 0;
+    }
+    //Same contract as java.util.Arrays: sorts a[from..to-1]
+    protected static void rangeCheck(int length, int from, int to){
+        if (from > to) throw new IllegalArgumentException("from(" + from + ") > to(" + to + ")");
+        if (from < 0) throw new ArrayIndexOutOfBoundsException(from);
+        if (to > length) throw new ArrayIndexOutOfBoundsException(to);
+    }
+    protected static void exchange(int[] a, int i, int j){
+        int t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+    public static boolean isSorted(int[] a){
+        return isSorted(a, 0, a.length);
+    }
+    public static boolean isSorted(int[] a, int from, int to){
+        for (int i = from + 1; i < to; i++) {
+            if(less(a[i], a[i-1])) return false;
+        }
+        return true;
+    }
+    //Merge a[lo..mid] with a[mid+1..hi] using the caller's aux array, without printing
+    protected static void merge(int[] a, int[] aux, int lo, int mid, int hi){
+        merge(a, aux, 0, lo, mid, hi);
+    }
+    //Same merge with a[k] copied to aux[k - off], so aux only needs to cover the range being sorted
+    protected static void merge(int[] a, int[] aux, int off, int lo, int mid, int hi){
+        int i = lo - off;
+        int j = mid+1 - off;
+        for (int k = lo; k <= hi ; k++) {
+            aux[k - off] = a[k];
+        }
+        for (int k = lo; k <= hi; k++) {
+            if(i > mid - off) a[k] = aux[j++];
+            else if(j > hi - off) a[k] = aux[i++];
+            else if(less(aux[j], aux[i])) a[k] = aux[j++];
+            else a[k] = aux[i++];
+        }
+    }
+
+    protected static void exchange(long[] a, int i, int j){
+        long t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+    public static boolean isSorted(long[] a){
+        return isSorted(a, 0, a.length);
+    }
+    public static boolean isSorted(long[] a, int from, int to){
+        for (int i = from + 1; i < to; i++) {
+            if(less(a[i], a[i-1])) return false;
+        }
+        return true;
+    }
+    //Merge a[lo..mid] with a[mid+1..hi] using the caller's aux array, without printing
+    protected static void merge(long[] a, long[] aux, int lo, int mid, int hi){
+        merge(a, aux, 0, lo, mid, hi);
+    }
+    //Same merge with a[k] copied to aux[k - off], so aux only needs to cover the range being sorted
+    protected static void merge(long[] a, long[] aux, int off, int lo, int mid, int hi){
+        int i = lo - off;
+        int j = mid+1 - off;
+        for (int k = lo; k <= hi ; k++) {
+            aux[k - off] = a[k];
+        }
+        for (int k = lo; k <= hi; k++) {
+            if(i > mid - off) a[k] = aux[j++];
+            else if(j > hi - off) a[k] = aux[i++];
+            else if(less(aux[j], aux[i])) a[k] = aux[j++];
+            else a[k] = aux[i++];
+        }
+    }
+
+    protected static void exchange(double[] a, int i, int j){
+        double t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+    public static boolean isSorted(double[] a){
+        return isSorted(a, 0, a.length);
+    }
+    public static boolean isSorted(double[] a, int from, int to){
+        for (int i = from + 1; i < to; i++) {
+            if(less(a[i], a[i-1])) return false;
+        }
+        return true;
+    }
+    //Merge a[lo..mid] with a[mid+1..hi] using the caller's aux array, without printing
+    protected static void merge(double[] a, double[] aux, int lo, int mid, int hi){
+        merge(a, aux, 0, lo, mid, hi);
+    }
+    //Same merge with a[k] copied to aux[k - off], so aux only needs to cover the range being sorted
+    protected static void merge(double[] a, double[] aux, int off, int lo, int mid, int hi){
+        int i = lo - off;
+        int j = mid+1 - off;
+        for (int k = lo; k <= hi ; k++) {
+            aux[k - off] = a[k];
+        }
+        for (int k = lo; k <= hi; k++) {
+            if(i > mid - off) a[k] = aux[j++];
+            else if(j > hi - off) a[k] = aux[i++];
+            else if(less(aux[j], aux[i])) a[k] = aux[j++];
+            else a[k] = aux[i++];
+        }
+    }
 
 }
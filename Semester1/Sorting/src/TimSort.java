@@ -0,0 +1,1390 @@
+/*  Adaptive mergesort in the style of TimSort that takes advantage of runs already present in the input.
+ *  The array is scanned left to right for runs: ascending runs are kept as they are and strictly descending
+ *  runs are reversed (strictly, so that reversing never reorders equal keys). Runs shorter than minRun are
+ *  extended with binary insertion sort. Each run is pushed on a stack and merged with its neighbours whenever
+ *  the stack lengths stop growing like the Fibonacci numbers, which keeps merges balanced.
+ *  A merge copies only the shorter run into a temporary buffer, and when one run keeps winning it switches to
+ *  galloping mode, which finds whole blocks to copy by exponential search, so data with long runs
+ *  (e.g. nearly sorted timestamps) sorts in close to linear time. The sort is stable.
+ *  Same approach as NaturalMergeSort, which merges existing runs of a LinkedListDeque, but on arrays.
+ */
+
+public class TimSort extends Sorting {
+
+    private static final int MIN_MERGE = 32;              // arrays shorter than this are just binary insertion sorted
+    private static final int MIN_GALLOP = 7;              // initial number of consecutive wins before galloping
+    private static final int INITIAL_TMP_LENGTH = 256;    // initial merge buffer size, grown on demand up to n/2
+
+    //minRun is in [MIN_MERGE/2, MIN_MERGE] and n/minRun is equal to or just below a power of two, so the merges stay balanced
+    private static int minRunLength(int n){
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= (n & 1);
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    public static void sort(Comparable[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(Comparable[] a, int from, int to){
+        rangeCheck(a.length, from, to);
+        int n = to - from;
+        if (n < 2) return;
+
+        //Small arrays: one run plus binary insertion sort, no merging at all
+        if (n < MIN_MERGE) {
+            int run = countRunAndMakeAscending(a, from, to);
+            binaryInsertionSort(a, from, to, from + run);
+            return;
+        }
+
+        MergeState ms = new MergeState(a, n);
+        int minRun = minRunLength(n);
+        int lo = from;
+        int remaining = n;
+        do {
+            int run = countRunAndMakeAscending(a, lo, to);
+            //Extend a short run to minRun keys with binary insertion sort
+            if (run < minRun) {
+                int force = Math.min(remaining, minRun);
+                binaryInsertionSort(a, lo, lo + force, lo + run);
+                run = force;
+            }
+            ms.pushRun(lo, run);
+            ms.mergeCollapse();
+            lo += run;
+            remaining -= run;
+        } while (remaining != 0);
+        ms.mergeForceCollapse();
+    }
+
+    //Length of the run starting at a[lo]; a strictly descending run is reversed in place so every run is ascending
+    private static int countRunAndMakeAscending(Comparable[] a, int lo, int hi){
+        int runHi = lo + 1;
+        if (runHi == hi) return 1;
+        if (less(a[runHi++], a[lo])) {
+            while (runHi < hi && less(a[runHi], a[runHi - 1])) runHi++;
+            for (int i = lo, j = runHi - 1; i < j; i++, j--) exchange(a, i, j);
+        }
+        else {
+            while (runHi < hi && !less(a[runHi], a[runHi - 1])) runHi++;
+        }
+        return runHi - lo;
+    }
+
+    //Sorts a[lo..hi-1] given that a[lo..start-1] is already sorted, using binary search to find each insertion point
+    private static void binaryInsertionSort(Comparable[] a, int lo, int hi, int start){
+        for (; start < hi; start++) {
+            Comparable pivot = a[start];
+            int left = lo;
+            int right = start;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (less(pivot, a[mid])) right = mid;
+                else left = mid + 1;
+            }
+            System.arraycopy(a, left, a, left + 1, start - left);
+            a[left] = pivot;
+        }
+    }
+
+    //Position in a[base..base+len-1] at which key would be inserted before any equal keys, searching outward from hint
+    private static int gallopLeft(Comparable key, Comparable[] a, int base, int len, int hint){
+        int lastOfs = 0;
+        int ofs = 1;
+        if (less(a[base + hint], key)) {
+            //gallop right until a[base+hint+lastOfs] < key <= a[base+hint+ofs]
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && less(a[base + hint + ofs], key)) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            lastOfs += hint;
+            ofs += hint;
+        }
+        else {
+            //gallop left until a[base+hint-ofs] < key <= a[base+hint-lastOfs]
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && !less(a[base + hint - ofs], key)) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            int t = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - t;
+        }
+        //binary search in a[base+lastOfs+1 .. base+ofs]
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (less(a[base + m], key)) lastOfs = m + 1;
+            else ofs = m;
+        }
+        return ofs;
+    }
+
+    //Position in a[base..base+len-1] at which key would be inserted after any equal keys, searching outward from hint
+    private static int gallopRight(Comparable key, Comparable[] a, int base, int len, int hint){
+        int lastOfs = 0;
+        int ofs = 1;
+        if (less(key, a[base + hint])) {
+            //gallop left until a[base+hint-ofs] <= key < a[base+hint-lastOfs]
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && less(key, a[base + hint - ofs])) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            int t = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - t;
+        }
+        else {
+            //gallop right until a[base+hint+lastOfs] <= key < a[base+hint+ofs]
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && !less(key, a[base + hint + ofs])) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            lastOfs += hint;
+            ofs += hint;
+        }
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (less(key, a[base + m])) ofs = m;
+            else lastOfs = m + 1;
+        }
+        return ofs;
+    }
+
+    //The stack of pending runs and the merge buffer for one call to sort
+    private static class MergeState {
+        private final Comparable[] a;
+        private final int n;
+        private Comparable[] tmp;
+        private int minGallop = MIN_GALLOP;
+
+        //run i starts at runBase[i] and has runLen[i] keys; 49 entries cover any int length under the invariants below
+        private final int[] runBase = new int[49];
+        private final int[] runLen = new int[49];
+        private int stackSize = 0;
+
+        MergeState(Comparable[] a, int n) {
+            this.a = a;
+            this.n = n;
+            tmp = new Comparable[Math.min(INITIAL_TMP_LENGTH, n >>> 1)];
+        }
+
+        void pushRun(int base, int len) {
+            runBase[stackSize] = base;
+            runLen[stackSize] = len;
+            stackSize++;
+        }
+
+        //Merges runs until, for the top runs X, Y, Z, W (W deepest): Y > Z, X > Y + Z and W > X + Y
+        void mergeCollapse() {
+            while (stackSize > 1) {
+                int i = stackSize - 2;
+                if (i > 0 && runLen[i - 1] <= runLen[i] + runLen[i + 1]
+                        || i > 1 && runLen[i - 2] <= runLen[i] + runLen[i - 1]) {
+                    if (runLen[i - 1] < runLen[i + 1]) i--;
+                }
+                else if (runLen[i] > runLen[i + 1]) {
+                    break;
+                }
+                mergeAt(i);
+            }
+        }
+
+        //Merges all remaining runs once the input is exhausted
+        void mergeForceCollapse() {
+            while (stackSize > 1) {
+                int i = stackSize - 2;
+                if (i > 0 && runLen[i - 1] < runLen[i + 1]) i--;
+                mergeAt(i);
+            }
+        }
+
+        //Merges runs i and i+1 on the stack
+        private void mergeAt(int i) {
+            int base1 = runBase[i];
+            int len1 = runLen[i];
+            int base2 = runBase[i + 1];
+            int len2 = runLen[i + 1];
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+
+            //Keys at the start of run 1 that are <= the first key of run 2 are already in place
+            int k = gallopRight(a[base2], a, base1, len1, 0);
+            base1 += k;
+            len1 -= k;
+            if (len1 == 0) return;
+            //Likewise keys at the end of run 2 that are >= the last key of run 1
+            len2 = gallopLeft(a[base1 + len1 - 1], a, base2, len2, len2 - 1);
+            if (len2 == 0) return;
+
+            if (len1 <= len2) mergeLo(base1, len1, base2, len2);
+            else mergeHi(base1, len1, base2, len2);
+        }
+
+        //Merges left to right, copying the shorter first run into tmp
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            Comparable[] a = this.a;
+            Comparable[] tmp = ensureCapacity(len1);
+            System.arraycopy(a, base1, tmp, 0, len1);
+            int cursor1 = 0;
+            int cursor2 = base2;
+            int dest = base1;
+            int end1 = len1;
+            int end2 = base2 + len2;
+            int minGallop = this.minGallop;
+
+            outer:
+            while (true) {
+                int count1 = 0;     // times in a row run 1 won
+                int count2 = 0;     // times in a row run 2 won
+
+                //One key at a time until one run keeps winning
+                do {
+                    if (less(a[cursor2], tmp[cursor1])) {
+                        a[dest++] = a[cursor2++];
+                        count2++;
+                        count1 = 0;
+                        if (cursor2 == end2) break outer;
+                    }
+                    else {
+                        a[dest++] = tmp[cursor1++];
+                        count1++;
+                        count2 = 0;
+                        if (cursor1 == end1) break outer;
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                //Galloping mode: find how many keys to take from each run in one block
+                do {
+                    count1 = gallopRight(a[cursor2], tmp, cursor1, end1 - cursor1, 0);
+                    if (count1 != 0) {
+                        System.arraycopy(tmp, cursor1, a, dest, count1);
+                        dest += count1;
+                        cursor1 += count1;
+                        if (cursor1 == end1) break outer;
+                    }
+                    a[dest++] = a[cursor2++];
+                    if (cursor2 == end2) break outer;
+
+                    count2 = gallopLeft(tmp[cursor1], a, cursor2, end2 - cursor2, 0);
+                    if (count2 != 0) {
+                        System.arraycopy(a, cursor2, a, dest, count2);
+                        dest += count2;
+                        cursor2 += count2;
+                        if (cursor2 == end2) break outer;
+                    }
+                    a[dest++] = tmp[cursor1++];
+                    if (cursor1 == end1) break outer;
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP || count2 >= MIN_GALLOP);
+                //Penalize leaving galloping mode so random data stays in one-at-a-time mode
+                if (minGallop < 0) minGallop = 0;
+                minGallop += 2;
+            }
+            this.minGallop = Math.max(minGallop, 1);
+
+            //Whatever is left of run 2 is already in place
+            if (cursor1 < end1) System.arraycopy(tmp, cursor1, a, dest, end1 - cursor1);
+        }
+
+        //Merges right to left, copying the shorter second run into tmp
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            Comparable[] a = this.a;
+            Comparable[] tmp = ensureCapacity(len2);
+            System.arraycopy(a, base2, tmp, 0, len2);
+            int cursor1 = base1 + len1 - 1;
+            int cursor2 = len2 - 1;
+            int dest = base2 + len2 - 1;
+            int minGallop = this.minGallop;
+
+            outer:
+            while (true) {
+                int count1 = 0;
+                int count2 = 0;
+
+                do {
+                    if (less(tmp[cursor2], a[cursor1])) {
+                        a[dest--] = a[cursor1--];
+                        count1++;
+                        count2 = 0;
+                        if (cursor1 < base1) break outer;
+                    }
+                    else {
+                        a[dest--] = tmp[cursor2--];
+                        count2++;
+                        count1 = 0;
+                        if (cursor2 < 0) break outer;
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                do {
+                    count1 = cursor1 - base1 + 1 - gallopRight(tmp[cursor2], a, base1, cursor1 - base1 + 1, cursor1 - base1);
+                    if (count1 != 0) {
+                        dest -= count1;
+                        cursor1 -= count1;
+                        System.arraycopy(a, cursor1 + 1, a, dest + 1, count1);
+                        if (cursor1 < base1) break outer;
+                    }
+                    a[dest--] = tmp[cursor2--];
+                    if (cursor2 < 0) break outer;
+
+                    count2 = cursor2 + 1 - gallopLeft(a[cursor1], tmp, 0, cursor2 + 1, cursor2);
+                    if (count2 != 0) {
+                        dest -= count2;
+                        cursor2 -= count2;
+                        System.arraycopy(tmp, cursor2 + 1, a, dest + 1, count2);
+                        if (cursor2 < 0) break outer;
+                    }
+                    a[dest--] = a[cursor1--];
+                    if (cursor1 < base1) break outer;
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP || count2 >= MIN_GALLOP);
+                if (minGallop < 0) minGallop = 0;
+                minGallop += 2;
+            }
+            this.minGallop = Math.max(minGallop, 1);
+
+            //Whatever is left of run 1 is already in place
+            if (cursor2 >= 0) System.arraycopy(tmp, 0, a, dest - cursor2, cursor2 + 1);
+        }
+
+        private Comparable[] ensureCapacity(int minCapacity) {
+            if (tmp.length < minCapacity) {
+                int size = Math.max(minCapacity, Math.min(tmp.length * 2, n >>> 1));
+                tmp = new Comparable[size];
+            }
+            return tmp;
+        }
+    }
+
+    public static void sort(int[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(int[] a, int from, int to){
+        rangeCheck(a.length, from, to);
+        int n = to - from;
+        if (n < 2) return;
+
+        if (n < MIN_MERGE) {
+            int run = countRunAndMakeAscending(a, from, to);
+            binaryInsertionSort(a, from, to, from + run);
+            return;
+        }
+
+        IntMergeState ms = new IntMergeState(a, n);
+        int minRun = minRunLength(n);
+        int lo = from;
+        int remaining = n;
+        do {
+            int run = countRunAndMakeAscending(a, lo, to);
+            if (run < minRun) {
+                int force = Math.min(remaining, minRun);
+                binaryInsertionSort(a, lo, lo + force, lo + run);
+                run = force;
+            }
+            ms.pushRun(lo, run);
+            ms.mergeCollapse();
+            lo += run;
+            remaining -= run;
+        } while (remaining != 0);
+        ms.mergeForceCollapse();
+    }
+
+    private static int countRunAndMakeAscending(int[] a, int lo, int hi){
+        int runHi = lo + 1;
+        if (runHi == hi) return 1;
+        if (less(a[runHi++], a[lo])) {
+            while (runHi < hi && less(a[runHi], a[runHi - 1])) runHi++;
+            for (int i = lo, j = runHi - 1; i < j; i++, j--) exchange(a, i, j);
+        }
+        else {
+            while (runHi < hi && !less(a[runHi], a[runHi - 1])) runHi++;
+        }
+        return runHi - lo;
+    }
+
+    private static void binaryInsertionSort(int[] a, int lo, int hi, int start){
+        for (; start < hi; start++) {
+            int pivot = a[start];
+            int left = lo;
+            int right = start;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (less(pivot, a[mid])) right = mid;
+                else left = mid + 1;
+            }
+            System.arraycopy(a, left, a, left + 1, start - left);
+            a[left] = pivot;
+        }
+    }
+
+    private static int gallopLeft(int key, int[] a, int base, int len, int hint){
+        int lastOfs = 0;
+        int ofs = 1;
+        if (less(a[base + hint], key)) {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && less(a[base + hint + ofs], key)) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            lastOfs += hint;
+            ofs += hint;
+        }
+        else {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && !less(a[base + hint - ofs], key)) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            int t = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - t;
+        }
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (less(a[base + m], key)) lastOfs = m + 1;
+            else ofs = m;
+        }
+        return ofs;
+    }
+
+    private static int gallopRight(int key, int[] a, int base, int len, int hint){
+        int lastOfs = 0;
+        int ofs = 1;
+        if (less(key, a[base + hint])) {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && less(key, a[base + hint - ofs])) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            int t = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - t;
+        }
+        else {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && !less(key, a[base + hint + ofs])) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            lastOfs += hint;
+            ofs += hint;
+        }
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (less(key, a[base + m])) ofs = m;
+            else lastOfs = m + 1;
+        }
+        return ofs;
+    }
+
+    private static class IntMergeState {
+        private final int[] a;
+        private final int n;
+        private int[] tmp;
+        private int minGallop = MIN_GALLOP;
+
+        private final int[] runBase = new int[49];
+        private final int[] runLen = new int[49];
+        private int stackSize = 0;
+
+        IntMergeState(int[] a, int n) {
+            this.a = a;
+            this.n = n;
+            tmp = new int[Math.min(INITIAL_TMP_LENGTH, n >>> 1)];
+        }
+
+        void pushRun(int base, int len) {
+            runBase[stackSize] = base;
+            runLen[stackSize] = len;
+            stackSize++;
+        }
+
+        void mergeCollapse() {
+            while (stackSize > 1) {
+                int i = stackSize - 2;
+                if (i > 0 && runLen[i - 1] <= runLen[i] + runLen[i + 1]
+                        || i > 1 && runLen[i - 2] <= runLen[i] + runLen[i - 1]) {
+                    if (runLen[i - 1] < runLen[i + 1]) i--;
+                }
+                else if (runLen[i] > runLen[i + 1]) {
+                    break;
+                }
+                mergeAt(i);
+            }
+        }
+
+        void mergeForceCollapse() {
+            while (stackSize > 1) {
+                int i = stackSize - 2;
+                if (i > 0 && runLen[i - 1] < runLen[i + 1]) i--;
+                mergeAt(i);
+            }
+        }
+
+        private void mergeAt(int i) {
+            int base1 = runBase[i];
+            int len1 = runLen[i];
+            int base2 = runBase[i + 1];
+            int len2 = runLen[i + 1];
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+
+            int k = gallopRight(a[base2], a, base1, len1, 0);
+            base1 += k;
+            len1 -= k;
+            if (len1 == 0) return;
+            len2 = gallopLeft(a[base1 + len1 - 1], a, base2, len2, len2 - 1);
+            if (len2 == 0) return;
+
+            if (len1 <= len2) mergeLo(base1, len1, base2, len2);
+            else mergeHi(base1, len1, base2, len2);
+        }
+
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            int[] a = this.a;
+            int[] tmp = ensureCapacity(len1);
+            System.arraycopy(a, base1, tmp, 0, len1);
+            int cursor1 = 0;
+            int cursor2 = base2;
+            int dest = base1;
+            int end1 = len1;
+            int end2 = base2 + len2;
+            int minGallop = this.minGallop;
+
+            outer:
+            while (true) {
+                int count1 = 0;     // times in a row run 1 won
+                int count2 = 0;     // times in a row run 2 won
+
+                do {
+                    if (less(a[cursor2], tmp[cursor1])) {
+                        a[dest++] = a[cursor2++];
+                        count2++;
+                        count1 = 0;
+                        if (cursor2 == end2) break outer;
+                    }
+                    else {
+                        a[dest++] = tmp[cursor1++];
+                        count1++;
+                        count2 = 0;
+                        if (cursor1 == end1) break outer;
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                do {
+                    count1 = gallopRight(a[cursor2], tmp, cursor1, end1 - cursor1, 0);
+                    if (count1 != 0) {
+                        System.arraycopy(tmp, cursor1, a, dest, count1);
+                        dest += count1;
+                        cursor1 += count1;
+                        if (cursor1 == end1) break outer;
+                    }
+                    a[dest++] = a[cursor2++];
+                    if (cursor2 == end2) break outer;
+
+                    count2 = gallopLeft(tmp[cursor1], a, cursor2, end2 - cursor2, 0);
+                    if (count2 != 0) {
+                        System.arraycopy(a, cursor2, a, dest, count2);
+                        dest += count2;
+                        cursor2 += count2;
+                        if (cursor2 == end2) break outer;
+                    }
+                    a[dest++] = tmp[cursor1++];
+                    if (cursor1 == end1) break outer;
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP || count2 >= MIN_GALLOP);
+                if (minGallop < 0) minGallop = 0;
+                minGallop += 2;
+            }
+            this.minGallop = Math.max(minGallop, 1);
+
+            if (cursor1 < end1) System.arraycopy(tmp, cursor1, a, dest, end1 - cursor1);
+        }
+
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            int[] a = this.a;
+            int[] tmp = ensureCapacity(len2);
+            System.arraycopy(a, base2, tmp, 0, len2);
+            int cursor1 = base1 + len1 - 1;
+            int cursor2 = len2 - 1;
+            int dest = base2 + len2 - 1;
+            int minGallop = this.minGallop;
+
+            outer:
+            while (true) {
+                int count1 = 0;
+                int count2 = 0;
+
+                do {
+                    if (less(tmp[cursor2], a[cursor1])) {
+                        a[dest--] = a[cursor1--];
+                        count1++;
+                        count2 = 0;
+                        if (cursor1 < base1) break outer;
+                    }
+                    else {
+                        a[dest--] = tmp[cursor2--];
+                        count2++;
+                        count1 = 0;
+                        if (cursor2 < 0) break outer;
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                do {
+                    count1 = cursor1 - base1 + 1 - gallopRight(tmp[cursor2], a, base1, cursor1 - base1 + 1, cursor1 - base1);
+                    if (count1 != 0) {
+                        dest -= count1;
+                        cursor1 -= count1;
+                        System.arraycopy(a, cursor1 + 1, a, dest + 1, count1);
+                        if (cursor1 < base1) break outer;
+                    }
+                    a[dest--] = tmp[cursor2--];
+                    if (cursor2 < 0) break outer;
+
+                    count2 = cursor2 + 1 - gallopLeft(a[cursor1], tmp, 0, cursor2 + 1, cursor2);
+                    if (count2 != 0) {
+                        dest -= count2;
+                        cursor2 -= count2;
+                        System.arraycopy(tmp, cursor2 + 1, a, dest + 1, count2);
+                        if (cursor2 < 0) break outer;
+                    }
+                    a[dest--] = a[cursor1--];
+                    if (cursor1 < base1) break outer;
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP || count2 >= MIN_GALLOP);
+                if (minGallop < 0) minGallop = 0;
+                minGallop += 2;
+            }
+            this.minGallop = Math.max(minGallop, 1);
+
+            if (cursor2 >= 0) System.arraycopy(tmp, 0, a, dest - cursor2, cursor2 + 1);
+        }
+
+        private int[] ensureCapacity(int minCapacity) {
+            if (tmp.length < minCapacity) {
+                int size = Math.max(minCapacity, Math.min(tmp.length * 2, n >>> 1));
+                tmp = new int[size];
+            }
+            return tmp;
+        }
+    }
+
+    public static void sort(long[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(long[] a, int from, int to){
+        rangeCheck(a.length, from, to);
+        int n = to - from;
+        if (n < 2) return;
+
+        if (n < MIN_MERGE) {
+            int run = countRunAndMakeAscending(a, from, to);
+            binaryInsertionSort(a, from, to, from + run);
+            return;
+        }
+
+        LongMergeState ms = new LongMergeState(a, n);
+        int minRun = minRunLength(n);
+        int lo = from;
+        int remaining = n;
+        do {
+            int run = countRunAndMakeAscending(a, lo, to);
+            if (run < minRun) {
+                int force = Math.min(remaining, minRun);
+                binaryInsertionSort(a, lo, lo + force, lo + run);
+                run = force;
+            }
+            ms.pushRun(lo, run);
+            ms.mergeCollapse();
+            lo += run;
+            remaining -= run;
+        } while (remaining != 0);
+        ms.mergeForceCollapse();
+    }
+
+    private static int countRunAndMakeAscending(long[] a, int lo, int hi){
+        int runHi = lo + 1;
+        if (runHi == hi) return 1;
+        if (less(a[runHi++], a[lo])) {
+            while (runHi < hi && less(a[runHi], a[runHi - 1])) runHi++;
+            for (int i = lo, j = runHi - 1; i < j; i++, j--) exchange(a, i, j);
+        }
+        else {
+            while (runHi < hi && !less(a[runHi], a[runHi - 1])) runHi++;
+        }
+        return runHi - lo;
+    }
+
+    private static void binaryInsertionSort(long[] a, int lo, int hi, int start){
+        for (; start < hi; start++) {
+            long pivot = a[start];
+            int left = lo;
+            int right = start;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (less(pivot, a[mid])) right = mid;
+                else left = mid + 1;
+            }
+            System.arraycopy(a, left, a, left + 1, start - left);
+            a[left] = pivot;
+        }
+    }
+
+    private static int gallopLeft(long key, long[] a, int base, int len, int hint){
+        int lastOfs = 0;
+        int ofs = 1;
+        if (less(a[base + hint], key)) {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && less(a[base + hint + ofs], key)) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            lastOfs += hint;
+            ofs += hint;
+        }
+        else {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && !less(a[base + hint - ofs], key)) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            int t = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - t;
+        }
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (less(a[base + m], key)) lastOfs = m + 1;
+            else ofs = m;
+        }
+        return ofs;
+    }
+
+    private static int gallopRight(long key, long[] a, int base, int len, int hint){
+        int lastOfs = 0;
+        int ofs = 1;
+        if (less(key, a[base + hint])) {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && less(key, a[base + hint - ofs])) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            int t = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - t;
+        }
+        else {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && !less(key, a[base + hint + ofs])) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            lastOfs += hint;
+            ofs += hint;
+        }
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (less(key, a[base + m])) ofs = m;
+            else lastOfs = m + 1;
+        }
+        return ofs;
+    }
+
+    private static class LongMergeState {
+        private final long[] a;
+        private final int n;
+        private long[] tmp;
+        private int minGallop = MIN_GALLOP;
+
+        private final int[] runBase = new int[49];
+        private final int[] runLen = new int[49];
+        private int stackSize = 0;
+
+        LongMergeState(long[] a, int n) {
+            this.a = a;
+            this.n = n;
+            tmp = new long[Math.min(INITIAL_TMP_LENGTH, n >>> 1)];
+        }
+
+        void pushRun(int base, int len) {
+            runBase[stackSize] = base;
+            runLen[stackSize] = len;
+            stackSize++;
+        }
+
+        void mergeCollapse() {
+            while (stackSize > 1) {
+                int i = stackSize - 2;
+                if (i > 0 && runLen[i - 1] <= runLen[i] + runLen[i + 1]
+                        || i > 1 && runLen[i - 2] <= runLen[i] + runLen[i - 1]) {
+                    if (runLen[i - 1] < runLen[i + 1]) i--;
+                }
+                else if (runLen[i] > runLen[i + 1]) {
+                    break;
+                }
+                mergeAt(i);
+            }
+        }
+
+        void mergeForceCollapse() {
+            while (stackSize > 1) {
+                int i = stackSize - 2;
+                if (i > 0 && runLen[i - 1] < runLen[i + 1]) i--;
+                mergeAt(i);
+            }
+        }
+
+        private void mergeAt(int i) {
+            int base1 = runBase[i];
+            int len1 = runLen[i];
+            int base2 = runBase[i + 1];
+            int len2 = runLen[i + 1];
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+
+            int k = gallopRight(a[base2], a, base1, len1, 0);
+            base1 += k;
+            len1 -= k;
+            if (len1 == 0) return;
+            len2 = gallopLeft(a[base1 + len1 - 1], a, base2, len2, len2 - 1);
+            if (len2 == 0) return;
+
+            if (len1 <= len2) mergeLo(base1, len1, base2, len2);
+            else mergeHi(base1, len1, base2, len2);
+        }
+
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            long[] a = this.a;
+            long[] tmp = ensureCapacity(len1);
+            System.arraycopy(a, base1, tmp, 0, len1);
+            int cursor1 = 0;
+            int cursor2 = base2;
+            int dest = base1;
+            int end1 = len1;
+            int end2 = base2 + len2;
+            int minGallop = this.minGallop;
+
+            outer:
+            while (true) {
+                int count1 = 0;     // times in a row run 1 won
+                int count2 = 0;     // times in a row run 2 won
+
+                do {
+                    if (less(a[cursor2], tmp[cursor1])) {
+                        a[dest++] = a[cursor2++];
+                        count2++;
+                        count1 = 0;
+                        if (cursor2 == end2) break outer;
+                    }
+                    else {
+                        a[dest++] = tmp[cursor1++];
+                        count1++;
+                        count2 = 0;
+                        if (cursor1 == end1) break outer;
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                do {
+                    count1 = gallopRight(a[cursor2], tmp, cursor1, end1 - cursor1, 0);
+                    if (count1 != 0) {
+                        System.arraycopy(tmp, cursor1, a, dest, count1);
+                        dest += count1;
+                        cursor1 += count1;
+                        if (cursor1 == end1) break outer;
+                    }
+                    a[dest++] = a[cursor2++];
+                    if (cursor2 == end2) break outer;
+
+                    count2 = gallopLeft(tmp[cursor1], a, cursor2, end2 - cursor2, 0);
+                    if (count2 != 0) {
+                        System.arraycopy(a, cursor2, a, dest, count2);
+                        dest += count2;
+                        cursor2 += count2;
+                        if (cursor2 == end2) break outer;
+                    }
+                    a[dest++] = tmp[cursor1++];
+                    if (cursor1 == end1) break outer;
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP || count2 >= MIN_GALLOP);
+                if (minGallop < 0) minGallop = 0;
+                minGallop += 2;
+            }
+            this.minGallop = Math.max(minGallop, 1);
+
+            if (cursor1 < end1) System.arraycopy(tmp, cursor1, a, dest, end1 - cursor1);
+        }
+
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            long[] a = this.a;
+            long[] tmp = ensureCapacity(len2);
+            System.arraycopy(a, base2, tmp, 0, len2);
+            int cursor1 = base1 + len1 - 1;
+            int cursor2 = len2 - 1;
+            int dest = base2 + len2 - 1;
+            int minGallop = this.minGallop;
+
+            outer:
+            while (true) {
+                int count1 = 0;
+                int count2 = 0;
+
+                do {
+                    if (less(tmp[cursor2], a[cursor1])) {
+                        a[dest--] = a[cursor1--];
+                        count1++;
+                        count2 = 0;
+                        if (cursor1 < base1) break outer;
+                    }
+                    else {
+                        a[dest--] = tmp[cursor2--];
+                        count2++;
+                        count1 = 0;
+                        if (cursor2 < 0) break outer;
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                do {
+                    count1 = cursor1 - base1 + 1 - gallopRight(tmp[cursor2], a, base1, cursor1 - base1 + 1, cursor1 - base1);
+                    if (count1 != 0) {
+                        dest -= count1;
+                        cursor1 -= count1;
+                        System.arraycopy(a, cursor1 + 1, a, dest + 1, count1);
+                        if (cursor1 < base1) break outer;
+                    }
+                    a[dest--] = tmp[cursor2--];
+                    if (cursor2 < 0) break outer;
+
+                    count2 = cursor2 + 1 - gallopLeft(a[cursor1], tmp, 0, cursor2 + 1, cursor2);
+                    if (count2 != 0) {
+                        dest -= count2;
+                        cursor2 -= count2;
+                        System.arraycopy(tmp, cursor2 + 1, a, dest + 1, count2);
+                        if (cursor2 < 0) break outer;
+                    }
+                    a[dest--] = a[cursor1--];
+                    if (cursor1 < base1) break outer;
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP || count2 >= MIN_GALLOP);
+                if (minGallop < 0) minGallop = 0;
+                minGallop += 2;
+            }
+            this.minGallop = Math.max(minGallop, 1);
+
+            if (cursor2 >= 0) System.arraycopy(tmp, 0, a, dest - cursor2, cursor2 + 1);
+        }
+
+        private long[] ensureCapacity(int minCapacity) {
+            if (tmp.length < minCapacity) {
+                int size = Math.max(minCapacity, Math.min(tmp.length * 2, n >>> 1));
+                tmp = new long[size];
+            }
+            return tmp;
+        }
+    }
+
+    public static void sort(double[] a){
+        sort(a, 0, a.length);
+    }
+    public static void sort(double[] a, int from, int to){
+        rangeCheck(a.length, from, to);
+        int n = to - from;
+        if (n < 2) return;
+
+        if (n < MIN_MERGE) {
+            int run = countRunAndMakeAscending(a, from, to);
+            binaryInsertionSort(a, from, to, from + run);
+            return;
+        }
+
+        DoubleMergeState ms = new DoubleMergeState(a, n);
+        int minRun = minRunLength(n);
+        int lo = from;
+        int remaining = n;
+        do {
+            int run = countRunAndMakeAscending(a, lo, to);
+            if (run < minRun) {
+                int force = Math.min(remaining, minRun);
+                binaryInsertionSort(a, lo, lo + force, lo + run);
+                run = force;
+            }
+            ms.pushRun(lo, run);
+            ms.mergeCollapse();
+            lo += run;
+            remaining -= run;
+        } while (remaining != 0);
+        ms.mergeForceCollapse();
+    }
+
+    private static int countRunAndMakeAscending(double[] a, int lo, int hi){
+        int runHi = lo + 1;
+        if (runHi == hi) return 1;
+        if (less(a[runHi++], a[lo])) {
+            while (runHi < hi && less(a[runHi], a[runHi - 1])) runHi++;
+            for (int i = lo, j = runHi - 1; i < j; i++, j--) exchange(a, i, j);
+        }
+        else {
+            while (runHi < hi && !less(a[runHi], a[runHi - 1])) runHi++;
+        }
+        return runHi - lo;
+    }
+
+    private static void binaryInsertionSort(double[] a, int lo, int hi, int start){
+        for (; start < hi; start++) {
+            double pivot = a[start];
+            int left = lo;
+            int right = start;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (less(pivot, a[mid])) right = mid;
+                else left = mid + 1;
+            }
+            System.arraycopy(a, left, a, left + 1, start - left);
+            a[left] = pivot;
+        }
+    }
+
+    private static int gallopLeft(double key, double[] a, int base, int len, int hint){
+        int lastOfs = 0;
+        int ofs = 1;
+        if (less(a[base + hint], key)) {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && less(a[base + hint + ofs], key)) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            lastOfs += hint;
+            ofs += hint;
+        }
+        else {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && !less(a[base + hint - ofs], key)) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            int t = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - t;
+        }
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (less(a[base + m], key)) lastOfs = m + 1;
+            else ofs = m;
+        }
+        return ofs;
+    }
+
+    private static int gallopRight(double key, double[] a, int base, int len, int hint){
+        int lastOfs = 0;
+        int ofs = 1;
+        if (less(key, a[base + hint])) {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && less(key, a[base + hint - ofs])) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            int t = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - t;
+        }
+        else {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && !less(key, a[base + hint + ofs])) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            lastOfs += hint;
+            ofs += hint;
+        }
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (less(key, a[base + m])) ofs = m;
+            else lastOfs = m + 1;
+        }
+        return ofs;
+    }
+
+    private static class DoubleMergeState {
+        private final double[] a;
+        private final int n;
+        private double[] tmp;
+        private int minGallop = MIN_GALLOP;
+
+        private final int[] runBase = new int[49];
+        private final int[] runLen = new int[49];
+        private int stackSize = 0;
+
+        DoubleMergeState(double[] a, int n) {
+            this.a = a;
+            this.n = n;
+            tmp = new double[Math.min(INITIAL_TMP_LENGTH, n >>> 1)];
+        }
+
+        void pushRun(int base, int len) {
+            runBase[stackSize] = base;
+            runLen[stackSize] = len;
+            stackSize++;
+        }
+
+        void mergeCollapse() {
+            while (stackSize > 1) {
+                int i = stackSize - 2;
+                if (i > 0 && runLen[i - 1] <= runLen[i] + runLen[i + 1]
+                        || i > 1 && runLen[i - 2] <= runLen[i] + runLen[i - 1]) {
+                    if (runLen[i - 1] < runLen[i + 1]) i--;
+                }
+                else if (runLen[i] > runLen[i + 1]) {
+                    break;
+                }
+                mergeAt(i);
+            }
+        }
+
+        void mergeForceCollapse() {
+            while (stackSize > 1) {
+                int i = stackSize - 2;
+                if (i > 0 && runLen[i - 1] < runLen[i + 1]) i--;
+                mergeAt(i);
+            }
+        }
+
+        private void mergeAt(int i) {
+            int base1 = runBase[i];
+            int len1 = runLen[i];
+            int base2 = runBase[i + 1];
+            int len2 = runLen[i + 1];
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+
+            int k = gallopRight(a[base2], a, base1, len1, 0);
+            base1 += k;
+            len1 -= k;
+            if (len1 == 0) return;
+            len2 = gallopLeft(a[base1 + len1 - 1], a, base2, len2, len2 - 1);
+            if (len2 == 0) return;
+
+            if (len1 <= len2) mergeLo(base1, len1, base2, len2);
+            else mergeHi(base1, len1, base2, len2);
+        }
+
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            double[] a = this.a;
+            double[] tmp = ensureCapacity(len1);
+            System.arraycopy(a, base1, tmp, 0, len1);
+            int cursor1 = 0;
+            int cursor2 = base2;
+            int dest = base1;
+            int end1 = len1;
+            int end2 = base2 + len2;
+            int minGallop = this.minGallop;
+
+            outer:
+            while (true) {
+                int count1 = 0;     // times in a row run 1 won
+                int count2 = 0;     // times in a row run 2 won
+
+                do {
+                    if (less(a[cursor2], tmp[cursor1])) {
+                        a[dest++] = a[cursor2++];
+                        count2++;
+                        count1 = 0;
+                        if (cursor2 == end2) break outer;
+                    }
+                    else {
+                        a[dest++] = tmp[cursor1++];
+                        count1++;
+                        count2 = 0;
+                        if (cursor1 == end1) break outer;
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                do {
+                    count1 = gallopRight(a[cursor2], tmp, cursor1, end1 - cursor1, 0);
+                    if (count1 != 0) {
+                        System.arraycopy(tmp, cursor1, a, dest, count1);
+                        dest += count1;
+                        cursor1 += count1;
+                        if (cursor1 == end1) break outer;
+                    }
+                    a[dest++] = a[cursor2++];
+                    if (cursor2 == end2) break outer;
+
+                    count2 = gallopLeft(tmp[cursor1], a, cursor2, end2 - cursor2, 0);
+                    if (count2 != 0) {
+                        System.arraycopy(a, cursor2, a, dest, count2);
+                        dest += count2;
+                        cursor2 += count2;
+                        if (cursor2 == end2) break outer;
+                    }
+                    a[dest++] = tmp[cursor1++];
+                    if (cursor1 == end1) break outer;
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP || count2 >= MIN_GALLOP);
+                if (minGallop < 0) minGallop = 0;
+                minGallop += 2;
+            }
+            this.minGallop = Math.max(minGallop, 1);
+
+            if (cursor1 < end1) System.arraycopy(tmp, cursor1, a, dest, end1 - cursor1);
+        }
+
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            double[] a = this.a;
+            double[] tmp = ensureCapacity(len2);
+            System.arraycopy(a, base2, tmp, 0, len2);
+            int cursor1 = base1 + len1 - 1;
+            int cursor2 = len2 - 1;
+            int dest = base2 + len2 - 1;
+            int minGallop = this.minGallop;
+
+            outer:
+            while (true) {
+                int count1 = 0;
+                int count2 = 0;
+
+                do {
+                    if (less(tmp[cursor2], a[cursor1])) {
+                        a[dest--] = a[cursor1--];
+                        count1++;
+                        count2 = 0;
+                        if (cursor1 < base1) break outer;
+                    }
+                    else {
+                        a[dest--] = tmp[cursor2--];
+                        count2++;
+                        count1 = 0;
+                        if (cursor2 < 0) break outer;
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                do {
+                    count1 = cursor1 - base1 + 1 - gallopRight(tmp[cursor2], a, base1, cursor1 - base1 + 1, cursor1 - base1);
+                    if (count1 != 0) {
+                        dest -= count1;
+                        cursor1 -= count1;
+                        System.arraycopy(a, cursor1 + 1, a, dest + 1, count1);
+                        if (cursor1 < base1) break outer;
+                    }
+                    a[dest--] = tmp[cursor2--];
+                    if (cursor2 < 0) break outer;
+
+                    count2 = cursor2 + 1 - gallopLeft(a[cursor1], tmp, 0, cursor2 + 1, cursor2);
+                    if (count2 != 0) {
+                        dest -= count2;
+                        cursor2 -= count2;
+                        System.arraycopy(tmp, cursor2 + 1, a, dest + 1, count2);
+                        if (cursor2 < 0) break outer;
+                    }
+                    a[dest--] = a[cursor1--];
+                    if (cursor1 < base1) break outer;
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP || count2 >= MIN_GALLOP);
+                if (minGallop < 0) minGallop = 0;
+                minGallop += 2;
+            }
+            this.minGallop = Math.max(minGallop, 1);
+
+            if (cursor2 >= 0) System.arraycopy(tmp, 0, a, dest - cursor2, cursor2 + 1);
+        }
+
+        private double[] ensureCapacity(int minCapacity) {
+            if (tmp.length < minCapacity) {
+                int size = Math.max(minCapacity, Math.min(tmp.length * 2, n >>> 1));
+                tmp = new double[size];
+            }
+            return tmp;
+        }
+    }
+
+    public static void main(String[] args) {
+        String myString = "ILOVEALGORITHMS";
+        String[] s = myString.split("(?!^)");
+        show(s);
+        sort(s);
+        assert isSorted(s);
+        show(s);
+
+        //Nearly sorted timestamps: increasing, with about 1% of the entries displaced
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        java.util.Random random = new java.util.Random();
+        long[] a = new long[n];
+        for (int i = 0; i < n; i++) a[i] = 1000L * i;
+        for (int i = 0; i < n / 100; i++) a[random.nextInt(n)] = 1000L * random.nextInt(n);
+        long[] b = a.clone();
+
+        long start = System.nanoTime();
+        MergeSortTopDown.sort(a);
+        long merge = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        sort(b);
+        long tim = System.nanoTime() - start;
+
+        assert isSorted(b);
+        System.out.printf("n = %d nearly sorted longs%n", n);
+        System.out.printf("MergeSortTopDown: %8.1f ms%n", merge / 1e6);
+        System.out.printf("TimSort:          %8.1f ms%n", tim / 1e6);
+    }
+}
@@ -0,0 +1,17 @@
+/*  Prints the array after each pass in the style of the textbook traces.
+ *  This is the tracing the sorts used to do unconditionally; the main() demos attach it with Sorting.setListener.
+ */
+public class TraceListener implements SortListener {
+
+    public void compare(Comparable v, Comparable w) {
+    }
+
+    public void exchange(Comparable[] a, int i, int j) {
+    }
+
+    public void passComplete(Comparable[] a, String pass) {
+        System.out.print(pass);
+        Sorting.show(a);
+        System.out.println();
+    }
+}